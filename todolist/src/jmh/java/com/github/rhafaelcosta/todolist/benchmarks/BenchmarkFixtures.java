@@ -0,0 +1,56 @@
+package com.github.rhafaelcosta.todolist.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.rhafaelcosta.todolist.enums.SeverityType;
+import com.github.rhafaelcosta.todolist.enums.TaskStatusType;
+import com.github.rhafaelcosta.todolist.models.Tag;
+import com.github.rhafaelcosta.todolist.models.Task;
+import com.github.rhafaelcosta.todolist.models.User;
+
+/**
+ * Detached entities shaped like the rows of a typical page: a few owners and tags shared by many tasks.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() { }
+
+    static List<Task> tasks(int count) {
+        var owners = new ArrayList<User>();
+        for (long i = 1; i <= 5; i++) {
+            var user = new User();
+            user.setId(i);
+            user.setName("User " + i);
+            user.setEmail("user" + i + "@email.com");
+            user.setActive(true);
+            owners.add(user);
+        }
+
+        var tags = new ArrayList<Tag>();
+        for (long i = 1; i <= 8; i++) {
+            var tag = new Tag("Tag " + i);
+            tag.setId(i);
+            tags.add(tag);
+        }
+
+        var tasks = new ArrayList<Task>(count);
+        for (int i = 0; i < count; i++) {
+            var task = new Task();
+            task.setId((long) i + 1);
+            task.setTitle("Task " + i);
+            task.setDescription("Description for Task " + i);
+            task.setPriority(1 + i % 5);
+            task.setSeverityType(SeverityType.values()[i % SeverityType.values().length]);
+            task.setTaskStatusType(TaskStatusType.values()[i % TaskStatusType.values().length]);
+            task.setCreateAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i));
+            task.setOwner(owners.get(i % owners.size()));
+            task.setTags(List.of(tags.get(i % tags.size()), tags.get((i + 3) % tags.size())));
+            tasks.add(task);
+        }
+
+        return tasks;
+    }
+
+}
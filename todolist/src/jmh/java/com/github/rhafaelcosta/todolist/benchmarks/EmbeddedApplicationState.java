@@ -0,0 +1,88 @@
+package com.github.rhafaelcosta.todolist.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.github.rhafaelcosta.todolist.TodolistApplication;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Application context running against an embedded PostgreSQL migrated by Flyway and filled with a realistic
+ * volume of tasks. The list cache is disabled so every call reaches the database.
+ */
+@State(Scope.Benchmark)
+public class EmbeddedApplicationState {
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        postgres = EmbeddedPostgres.start();
+
+        var arguments = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true",
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.jpa.show-sql=false",
+                "--todolist.cache.list.enabled=false",
+                "--logging.level.root=WARN"));
+        arguments.addAll(additionalArguments());
+
+        context = new SpringApplicationBuilder(TodolistApplication.class)
+                .web(webApplicationType())
+                .run(arguments.toArray(String[]::new));
+
+        var jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.execute("""
+                INSERT INTO users (name, email, active)
+                SELECT 'User ' || i, 'user' || i || '@email.com', TRUE FROM generate_series(1, 500) i
+                """);
+        jdbc.execute("""
+                INSERT INTO task (user_id, title, description, priority, status_type, severity_type, create_at)
+                SELECT 1 + i % 500, 'Task ' || i, 'Description for Task ' || i, 1 + i % 5, 1 + i % 4, 1 + (i / 4) % 4,
+                       TIMESTAMP '2023-01-01' + i * INTERVAL '5 minutes'
+                FROM generate_series(1, 50000) i
+                """);
+        jdbc.execute("""
+                INSERT INTO task_tag (tag_id, task_id)
+                SELECT 1 + t.id % 5, t.id FROM task t WHERE t.id > 4
+                """);
+        jdbc.execute("ANALYZE");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public ConfigurableApplicationContext getContext() {
+        return context;
+    }
+
+    protected WebApplicationType webApplicationType() {
+        return WebApplicationType.NONE;
+    }
+
+    protected List<String> additionalArguments() {
+        return List.of();
+    }
+
+}
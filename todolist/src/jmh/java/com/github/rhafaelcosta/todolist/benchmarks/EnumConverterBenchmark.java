@@ -0,0 +1,55 @@
+package com.github.rhafaelcosta.todolist.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.rhafaelcosta.todolist.converters.SeverityTypeConverter;
+import com.github.rhafaelcosta.todolist.converters.TaskStatusTypeConverter;
+
+/**
+ * Conversion of the enum codes read from every row of the task table.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnumConverterBenchmark {
+
+    private final SeverityTypeConverter severityConverter = new SeverityTypeConverter();
+    private final TaskStatusTypeConverter statusConverter = new TaskStatusTypeConverter();
+
+    private final Integer[] codes = { 1, 2, 3, 4 };
+
+    @Benchmark
+    public void severityType(Blackhole blackhole) {
+        for (var code : codes) {
+            blackhole.consume(severityConverter.convertToEntityAttribute(code));
+        }
+    }
+
+    @Benchmark
+    public void taskStatusType(Blackhole blackhole) {
+        for (var code : codes) {
+            blackhole.consume(statusConverter.convertToEntityAttribute(code));
+        }
+    }
+
+    @Benchmark
+    public Integer unknownCode() {
+        var type = severityConverter.convertToEntityAttribute(99);
+        return type == null ? null : type.getCode();
+    }
+
+}
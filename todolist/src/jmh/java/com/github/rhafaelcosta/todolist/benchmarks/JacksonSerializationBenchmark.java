@@ -0,0 +1,66 @@
+package com.github.rhafaelcosta.todolist.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.github.rhafaelcosta.todolist.responses.TagResponse;
+import com.github.rhafaelcosta.todolist.responses.TaskResponse;
+
+/**
+ * Serialization of the task pages returned by GET /tasks, with and without the Blackbird module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+
+    @Param({ "20", "100" })
+    int pageSize;
+
+    @Param({ "true", "false" })
+    boolean blackbird;
+
+    private ObjectMapper mapper;
+    private Page<TaskResponse> page;
+
+    @Setup
+    public void setup() {
+        var builder = Jackson2ObjectMapperBuilder.json();
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        mapper = builder.build();
+
+        var tasks = BenchmarkFixtures.tasks(pageSize).stream()
+                .map(task -> new TaskResponse(task, task.getTags().stream().map(TagResponse::new).toList()))
+                .toList();
+        page = new PageImpl<>(tasks, PageRequest.of(0, pageSize), 10_000);
+    }
+
+    @Benchmark
+    public byte[] page() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+}
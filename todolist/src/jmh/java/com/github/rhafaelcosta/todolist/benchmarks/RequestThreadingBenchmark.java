@@ -0,0 +1,55 @@
+package com.github.rhafaelcosta.todolist.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Load comparison of the platform and virtual thread modes: more concurrent clients than Tomcat threads
+ * request task pages, whose queries block on JDBC.
+ * <p>
+ * The throughput mode gives the requests per second and the sample mode the latency percentiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(256)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup
+    public void setup(WebApplicationState application) {
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUrl = application.baseUrl();
+    }
+
+    @Benchmark
+    public int ownerPage() throws IOException, InterruptedException {
+        var userId = ThreadLocalRandom.current().nextInt(1, 501);
+        var request = HttpRequest.newBuilder(URI.create(baseUrl + "/tasks?size=20&includeTags=true&userId=" + userId)).build();
+
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+}
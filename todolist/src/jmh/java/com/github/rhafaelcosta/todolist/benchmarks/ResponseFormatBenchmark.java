@@ -0,0 +1,161 @@
+package com.github.rhafaelcosta.todolist.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.github.rhafaelcosta.todolist.formats.ProtobufJacksonHttpMessageConverter;
+import com.github.rhafaelcosta.todolist.responses.TagResponse;
+import com.github.rhafaelcosta.todolist.responses.TaskResponse;
+
+/**
+ * Writes the task pages returned by GET /tasks through the converter of each format, as the server does, and reads
+ * them back into records, as a client does. The writes also report the {@code bytes} and {@code pages} written, the
+ * size of a payload being their ratio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+    private static final Type PAGE = ResolvableType.forClassWithGenerics(Page.class, TaskResponse.class).getType();
+
+    @Param({ "20", "100" })
+    int pageSize;
+
+    @Param({ "json", "cbor", "smile", "protobuf" })
+    String format;
+
+    private GenericHttpMessageConverter<Object> converter;
+    private ObjectReader reader;
+    private Page<TaskResponse> page;
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws IOException {
+        var factory = switch (format) {
+            case "json" -> new JsonFactory();
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            case "protobuf" -> new ProtobufFactory();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        var mapper = Jackson2ObjectMapperBuilder.json().factory(factory).modulesToInstall(new BlackbirdModule()).build();
+
+        converter = switch (format) {
+            case "json" -> new MappingJackson2HttpMessageConverter(mapper);
+            case "cbor" -> new MappingJackson2CborHttpMessageConverter(mapper);
+            case "smile" -> new MappingJackson2SmileHttpMessageConverter(mapper);
+            default -> new ProtobufJacksonHttpMessageConverter(mapper);
+        };
+
+        var pageReader = mapper.readerFor(ClientPage.class).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        reader = converter instanceof ProtobufJacksonHttpMessageConverter protobuf ? pageReader.with(protobuf.findSchema(PAGE, Page.class)) : pageReader;
+
+        var tasks = BenchmarkFixtures.tasks(pageSize).stream()
+                .map(task -> new TaskResponse(task, task.getTags().stream().map(TagResponse::new).toList()))
+                .toList();
+        page = new PageImpl<>(tasks, PageRequest.of(0, pageSize), 10_000);
+        payload = write(new ByteArrayOutputStream());
+    }
+
+    @Benchmark
+    public byte[] write(Payload payload) throws IOException {
+        var bytes = write(payload.buffer);
+        payload.bytes += bytes.length;
+        payload.pages++;
+
+        return bytes;
+    }
+
+    @Benchmark
+    public ClientPage read() throws IOException {
+        return reader.readValue(payload);
+    }
+
+    private byte[] write(ByteArrayOutputStream buffer) throws IOException {
+        buffer.reset();
+        converter.write(page, PAGE, null, new BufferOutputMessage(buffer));
+
+        return buffer.toByteArray();
+    }
+
+    /**
+     * The page as read by a client, with the content and total only.
+     */
+    public record ClientPage(List<TaskResponse> content, long totalElements) { }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+
+        public long bytes;
+        public long pages;
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+            pages = 0;
+        }
+
+    }
+
+    private record BufferOutputMessage(OutputStream body, HttpHeaders headers) implements HttpOutputMessage {
+
+        BufferOutputMessage(OutputStream body) {
+            this(body, new HttpHeaders());
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+    }
+
+}
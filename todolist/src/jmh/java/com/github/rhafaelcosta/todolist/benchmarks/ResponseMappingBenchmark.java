@@ -0,0 +1,64 @@
+package com.github.rhafaelcosta.todolist.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.rhafaelcosta.todolist.models.Task;
+import com.github.rhafaelcosta.todolist.responses.TaskDetailResponse;
+import com.github.rhafaelcosta.todolist.responses.TaskResponse;
+
+/**
+ * Mapping of a page of task entities to their responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({ "20", "100" })
+    int pageSize;
+
+    private List<Task> tasks;
+
+    @Setup
+    public void setup() {
+        tasks = BenchmarkFixtures.tasks(pageSize);
+    }
+
+    @Benchmark
+    public List<TaskResponse> taskResponses() {
+        var responses = new ArrayList<TaskResponse>(tasks.size());
+        for (var task : tasks) {
+            responses.add(new TaskResponse(task));
+        }
+
+        return responses;
+    }
+
+    @Benchmark
+    public List<TaskDetailResponse> taskDetailResponses() {
+        var responses = new ArrayList<TaskDetailResponse>(tasks.size());
+        for (var task : tasks) {
+            responses.add(new TaskDetailResponse(task));
+        }
+
+        return responses;
+    }
+
+}
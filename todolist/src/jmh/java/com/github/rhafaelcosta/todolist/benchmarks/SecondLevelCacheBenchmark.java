@@ -0,0 +1,121 @@
+package com.github.rhafaelcosta.todolist.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.github.rhafaelcosta.todolist.models.Tag;
+import com.github.rhafaelcosta.todolist.models.Task;
+import com.github.rhafaelcosta.todolist.models.User;
+import com.github.rhafaelcosta.todolist.requests.TaskRequest;
+import com.github.rhafaelcosta.todolist.responses.TagResponse;
+import com.github.rhafaelcosta.todolist.services.TagService;
+import com.github.rhafaelcosta.todolist.services.TaskService;
+import com.github.rhafaelcosta.todolist.services.UserService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Task writes and user and tag reads with the second-level cache of Hibernate disabled and enabled. Next to the
+ * time of a call, the {@code statements} counter gives the SQL statements it sent to the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+
+    private static final List<TagResponse> TAGS = List.of(new TagResponse(1L, null), new TagResponse(2L, null));
+
+    private TaskService taskService;
+    private UserService userService;
+    private TagService tagService;
+    private Long taskId;
+
+    @Setup
+    public void setup(SecondLevelCacheState application) {
+        taskService = application.getBean(TaskService.class);
+        userService = application.getBean(UserService.class);
+        tagService = application.getBean(TagService.class);
+        taskId = application.getBean(JdbcTemplate.class).queryForObject("SELECT id FROM task ORDER BY id OFFSET 25000 LIMIT 1", Long.class);
+    }
+
+    /**
+     * Statements sent per call during the iteration, the database being shared by the single benchmark thread only.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+
+        public double statements;
+
+        private Statistics statistics;
+        private long start;
+        private long calls;
+
+        @Setup(Level.Iteration)
+        public void reset(SecondLevelCacheState application) {
+            statistics = application.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+            start = statistics.getPrepareStatementCount();
+            calls = 0;
+            statements = 0;
+        }
+
+        void count() {
+            calls++;
+            statements = (double) (statistics.getPrepareStatementCount() - start) / calls;
+        }
+
+    }
+
+    @Benchmark
+    public Task createTask(RoundTrips roundTrips) throws Exception {
+        var task = taskService.save(request());
+        roundTrips.count();
+        return task;
+    }
+
+    @Benchmark
+    public Task updateTask(RoundTrips roundTrips) throws Exception {
+        var task = taskService.save(taskId, request());
+        roundTrips.count();
+        return task;
+    }
+
+    @Benchmark
+    public User findUser(RoundTrips roundTrips) {
+        var user = userService.findById(ThreadLocalRandom.current().nextLong(1, 501));
+        roundTrips.count();
+        return user;
+    }
+
+    @Benchmark
+    public Tag findTag(RoundTrips roundTrips) {
+        var tag = tagService.findById(ThreadLocalRandom.current().nextLong(1, 6));
+        roundTrips.count();
+        return tag;
+    }
+
+    private static TaskRequest request() {
+        return new TaskRequest("Cached task", "Description", ThreadLocalRandom.current().nextLong(1, 501), 1, 1, 1, TAGS);
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.github.rhafaelcosta.todolist.benchmarks;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link EmbeddedApplicationState} with the second-level cache of Hibernate disabled or enabled.
+ */
+@State(Scope.Benchmark)
+public class SecondLevelCacheState extends EmbeddedApplicationState {
+
+    @Param({ "false", "true" })
+    boolean secondLevelCache;
+
+    @Override
+    protected List<String> additionalArguments() {
+        return List.of("--todolist.cache.entities.enabled=" + secondLevelCache);
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.github.rhafaelcosta.todolist.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.github.rhafaelcosta.todolist.filters.TaskFilter;
+import com.github.rhafaelcosta.todolist.models.Task;
+import com.github.rhafaelcosta.todolist.repositories.specifications.TaskSpecification;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Composition of the {@link TaskSpecification} of a filter, and its translation to a criteria predicate,
+ * as done by {@code TaskService} before every filtered query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpecificationBenchmark {
+
+    private final TaskFilter filter = new TaskFilter(7L, 1L, 2L, "task", 3,
+            LocalDateTime.of(2023, 6, 1, 0, 0), LocalDateTime.of(2023, 7, 1, 0, 0), null, null, null, null);
+
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup
+    public void setup(EmbeddedApplicationState application) {
+        entityManagerFactory = application.getBean(EntityManagerFactory.class);
+    }
+
+    @Benchmark
+    public Specification<Task> compose() {
+        return TaskSpecification.matches(filter);
+    }
+
+    @Benchmark
+    public Predicate composeAndBuildPredicate() {
+        var criteriaBuilder = entityManagerFactory.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(Task.class);
+        var root = query.from(Task.class);
+
+        return TaskSpecification.matches(filter).toPredicate(root, query, criteriaBuilder);
+    }
+
+}
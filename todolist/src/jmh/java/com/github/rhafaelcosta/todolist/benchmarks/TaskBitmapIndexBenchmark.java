@@ -0,0 +1,84 @@
+package com.github.rhafaelcosta.todolist.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.rhafaelcosta.todolist.caches.TaskBitmapIndex;
+import com.github.rhafaelcosta.todolist.filters.TaskFilter;
+import com.github.rhafaelcosta.todolist.filters.TaskTagMode;
+import com.github.rhafaelcosta.todolist.repositories.projections.TaskFacetCounts;
+
+/**
+ * Counts and facets of the filters of the task listing answered by the {@link TaskBitmapIndex}, built with random
+ * tasks of 1000 owners, 4 statuses and severities, 5 priorities and 50 tags, up to 3 per task.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskBitmapIndexBenchmark {
+
+    @Param({ "100000", "1000000" })
+    int tasks;
+
+    private final TaskFilter byStatus = new TaskFilter(null, null, 2L, null, null, null, null, null, null, null, null);
+    private final TaskFilter byOwnerAndStatus = new TaskFilter(7L, null, 2L, null, null, null, null, null, null, null, null);
+    private final TaskFilter byStatusSeverityAndTags = new TaskFilter(null, 1L, 2L, null, 3, null, null, null, null,
+            List.of(4L, 9L, 17L), TaskTagMode.ANY);
+
+    private TaskBitmapIndex index;
+
+    @Setup
+    public void setup() {
+        index = new TaskBitmapIndex(true);
+        var builder = index.startBuild();
+        var random = new SplittableRandom(42);
+
+        for (var id = 1L; id <= tasks; id++) {
+            builder.addTask(id, random.nextLong(1, 1001), random.nextInt(1, 5), random.nextInt(1, 5), random.nextInt(1, 6));
+            for (var tag = random.nextInt(0, 4); tag > 0; tag--) {
+                builder.addTag(id, random.nextLong(1, 51));
+            }
+        }
+
+        builder.finish();
+    }
+
+    @Benchmark
+    public OptionalLong countByStatus() {
+        return index.count(byStatus);
+    }
+
+    @Benchmark
+    public OptionalLong countByOwnerAndStatus() {
+        return index.count(byOwnerAndStatus);
+    }
+
+    @Benchmark
+    public OptionalLong countByStatusSeverityAndTags() {
+        return index.count(byStatusSeverityAndTags);
+    }
+
+    @Benchmark
+    public Optional<TaskFacetCounts> facetsByStatus() {
+        return index.facets(byStatus);
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.github.rhafaelcosta.todolist.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.github.rhafaelcosta.todolist.filters.TaskFilter;
+import com.github.rhafaelcosta.todolist.models.Task;
+import com.github.rhafaelcosta.todolist.responses.CursorPageResponse;
+import com.github.rhafaelcosta.todolist.responses.TaskResponse;
+import com.github.rhafaelcosta.todolist.services.TaskService;
+
+/**
+ * End-to-end calls of the {@link TaskService}, from the query to the responses, against the embedded database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    @Param({ "false", "true" })
+    boolean includeTags;
+
+    private TaskService taskService;
+    private Long taskId;
+
+    private final Pageable firstPage = PageRequest.of(0, 20);
+    private final Pageable deepPage = PageRequest.of(1000, 20);
+    private final TaskFilter ownerFilter = new TaskFilter(42L, null, null, null, null, null, null, null, null, null, null);
+
+    @Setup
+    public void setup(EmbeddedApplicationState application) {
+        taskService = application.getBean(TaskService.class);
+        // IDs are allocated in blocks, so a task from the middle of the table is looked up
+        taskId = application.getBean(JdbcTemplate.class).queryForObject("SELECT id FROM task ORDER BY id OFFSET 25000 LIMIT 1", Long.class);
+    }
+
+    @Benchmark
+    public Page<TaskResponse> firstPage() {
+        return taskService.getPaginatedTasksByFilter(null, firstPage, includeTags);
+    }
+
+    @Benchmark
+    public Page<TaskResponse> deepPage() {
+        return taskService.getPaginatedTasksByFilter(null, deepPage, includeTags);
+    }
+
+    @Benchmark
+    public Page<TaskResponse> ownerPage() {
+        return taskService.getPaginatedTasksByFilter(ownerFilter, firstPage, includeTags);
+    }
+
+    @Benchmark
+    public CursorPageResponse<TaskResponse> firstCursorPage() throws Exception {
+        return taskService.getTasksByCursor(null, null, firstPage, includeTags);
+    }
+
+    @Benchmark
+    public Slice<TaskResponse> search() {
+        return taskService.searchTasks("task 4242", null, firstPage, includeTags);
+    }
+
+    @Benchmark
+    public Task findDetailById() {
+        return taskService.findDetailById(taskId);
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.github.rhafaelcosta.todolist.benchmarks;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+
+/**
+ * {@link EmbeddedApplicationState} serving HTTP requests on a random port, with Tomcat running the requests
+ * on its pool of platform threads or on virtual threads.
+ */
+@State(Scope.Benchmark)
+public class WebApplicationState extends EmbeddedApplicationState {
+
+    @Param({ "platform", "virtual" })
+    String threads;
+
+    public String baseUrl() {
+        var port = ((WebServerApplicationContext) getContext()).getWebServer().getPort();
+        return "http://localhost:" + port;
+    }
+
+    @Override
+    protected WebApplicationType webApplicationType() {
+        return WebApplicationType.SERVLET;
+    }
+
+    @Override
+    protected List<String> additionalArguments() {
+        return List.of("--server.port=0", "--spring.threads.virtual.enabled=" + "virtual".equals(threads));
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.github.rhafaelcosta.todolist.caches;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Key of an entry of the {@link ListResultCache}.
+ * <p>
+ * The parameters must include the generations the result depends on, so that a bumped generation
+ * makes the previous entries unreachable.
+ */
+public record ListCacheKey(String region, List<Object> parameters) {
+
+    public static ListCacheKey of(String region, Object... parameters) {
+        return new ListCacheKey(region, Arrays.asList(parameters));
+    }
+
+}
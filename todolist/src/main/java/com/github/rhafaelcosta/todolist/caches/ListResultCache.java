@@ -0,0 +1,236 @@
+package com.github.rhafaelcosta.todolist.caches;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.rhafaelcosta.todolist.responses.TaskFacetedPageResponse;
+import com.github.rhafaelcosta.todolist.responses.TaskFieldsPageResponse;
+
+/**
+ * Bounded in-memory cache of list pages and counts.
+ * <p>
+ * Entries are weighted by the number of rows they hold and evicted in least recently used order once the
+ * configured maximum weight is reached. Instead of removing entries on writes, every cached result is keyed by
+ * the generations it depends on: a global generation per {@link Scope} and a generation per task owner.
+ * Writes bump those generations after their transaction commits, so the stale entries are never read again
+ * and are evicted as any other cold entry.
+ * <p>
+ * Only the owners of written tasks get their own generation, the others share a floor generation, so reading the
+ * tasks of any user ID does not grow the cache. Past the configured number of owners, the floor is raised above
+ * every owner generation and they are dropped, which only makes the results filtered by owner miss once.
+ * <p>
+ * When the reads may go to a lagging replica, a result loaded within the stale read window after a write may
+ * still miss it, so it is returned without being cached.
+ */
+@Component
+public class ListResultCache {
+
+    public enum Scope { TASKS, TAGS, USERS }
+
+    private final boolean enabled;
+    private final long maxWeight;
+    private final long staleReadWindowNanos;
+
+    private final Map<Scope, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final Map<Long, Long> ownerGenerations = new ConcurrentHashMap<>();
+    private final int maxOwners;
+    private long ownerSequence;
+    private volatile long ownerFloor;
+
+    private final LinkedHashMap<ListCacheKey, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long weight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private volatile long lastInvalidation;
+
+    public ListResultCache(@Value("${todolist.cache.list.enabled:true}") boolean enabled,
+                           @Value("${todolist.cache.list.max-weight:50000}") long maxWeight,
+                           @Value("${todolist.cache.list.stale-read-window:PT0S}") Duration staleReadWindow,
+                           @Value("${todolist.cache.list.max-owners:10000}") int maxOwners) {
+        this.enabled = enabled;
+        this.maxWeight = maxWeight;
+        this.maxOwners = maxOwners;
+        this.staleReadWindowNanos = staleReadWindow.toNanos();
+        this.lastInvalidation = System.nanoTime() - staleReadWindowNanos;
+    }
+
+    /**
+     * Returns the cached value for the given key, loading and caching it on a miss.
+     *
+     * @param key    the key of the entry, including the generations the value depends on
+     * @param loader the function loading the value from the database
+     * @return the cached or loaded value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(ListCacheKey key, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        synchronized (entries) {
+            var entry = entries.get(key);
+            if (entry != null) {
+                hits.increment();
+                return (T) entry.value();
+            }
+        }
+
+        misses.increment();
+        var cacheable = System.nanoTime() - lastInvalidation >= staleReadWindowNanos;
+        // The loader runs outside the lock, concurrent misses of the same key may load it more than once
+        var value = loader.get();
+        if (cacheable) {
+            put(key, value);
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the current generation of the given scope.
+     */
+    public long generation(Scope scope) {
+        return generations.computeIfAbsent(scope, s -> new AtomicLong()).get();
+    }
+
+    /**
+     * Returns the current generation of the tasks owned by the given user, the floor one if no task of the user was
+     * written since it was last raised.
+     */
+    public long ownerGeneration(Long userId) {
+        var generation = ownerGenerations.get(userId);
+        return generation == null ? ownerFloor : generation;
+    }
+
+    /**
+     * Invalidates every cached result of the given scope once the current transaction commits.
+     */
+    public void invalidate(Scope scope) {
+        afterCommit(() -> {
+            generations.computeIfAbsent(scope, s -> new AtomicLong()).incrementAndGet();
+            lastInvalidation = System.nanoTime();
+        });
+    }
+
+    /**
+     * Invalidates the cached task results of the given owner, and the ones not restricted to an owner,
+     * once the current transaction commits.
+     */
+    public void invalidateOwner(Long userId) {
+        afterCommit(() -> {
+            bumpOwnerGeneration(userId);
+            generations.computeIfAbsent(Scope.TASKS, s -> new AtomicLong()).incrementAndGet();
+            lastInvalidation = System.nanoTime();
+        });
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getWeight() {
+        synchronized (entries) {
+            return weight;
+        }
+    }
+
+    public int getOwnerCount() {
+        return ownerGenerations.size();
+    }
+
+    /**
+     * Gives the owner a generation above the ones of every owner and the floor. The floor is raised before the owners
+     * are dropped, so the generation read for an owner never goes back.
+     */
+    private synchronized void bumpOwnerGeneration(Long userId) {
+        if (ownerGenerations.size() >= maxOwners && !ownerGenerations.containsKey(userId)) {
+            ownerFloor = ownerSequence;
+            ownerGenerations.clear();
+        }
+
+        ownerGenerations.put(userId, ++ownerSequence);
+    }
+
+    private void put(ListCacheKey key, Object value) {
+        var entry = new Entry(value, weigh(value));
+        if (entry.weight() > maxWeight) {
+            return;
+        }
+
+        synchronized (entries) {
+            var previous = entries.put(key, entry);
+            weight += entry.weight() - (previous == null ? 0 : previous.weight());
+
+            var iterator = entries.values().iterator();
+            while (weight > maxWeight && iterator.hasNext()) {
+                weight -= iterator.next().weight();
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * A cached read racing with a write may store the old result under the old generation. Bumping the generation
+     * only after the commit guarantees that a result stored under the new generation was read after the write.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long weigh(Object value) {
+        if (value instanceof Slice<?> slice) {
+            return 1L + slice.getNumberOfElements();
+        }
+
+        if (value instanceof TaskFieldsPageResponse page) {
+            return 1L + page.content().size();
+        }
+
+        if (value instanceof TaskFacetedPageResponse page) {
+            return 1L + page.content().size();
+        }
+
+        if (value instanceof Collection<?> collection) {
+            return 1L + collection.size();
+        }
+
+        return 1L;
+    }
+
+    private record Entry(Object value, long weight) { }
+
+}
@@ -0,0 +1,234 @@
+package com.github.rhafaelcosta.todolist.caches;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.rhafaelcosta.todolist.models.Tag;
+import com.github.rhafaelcosta.todolist.repositories.TagRepository;
+import com.github.rhafaelcosta.todolist.responses.TagResponse;
+
+/**
+ * In-memory catalog of all the tags, indexed by ID and by normalized (lower case) name.
+ * <p>
+ * Tags are a small and read-mostly set, so the whole catalog is kept as an immutable snapshot that readers
+ * access without locking. Tag writes replace the snapshot once their transaction commits, and the catalog is
+ * reloaded periodically to pick up the tags written by other instances. A lookup by ID that is not in the snapshot
+ * falls back to the database.
+ * <p>
+ * Every snapshot has a version, bumped by each write. A reload racing with a write may have read the tags before it
+ * committed, so it is only installed if no write happened while it was read, and read again otherwise.
+ */
+@Component
+public class TagCatalog {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TagCatalog.class);
+
+    private final TagRepository tagRepository;
+
+    private static final int MAX_RELOADS = 3;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), 0);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public TagCatalog(TagRepository tagRepository) {
+        this.tagRepository = tagRepository;
+    }
+
+    /**
+     * Reloads the whole catalog from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${todolist.tag-catalog.refresh-interval:PT5M}", initialDelayString = "${todolist.tag-catalog.refresh-interval:PT5M}")
+    public void refresh() {
+        for (var attempt = 1; attempt <= MAX_RELOADS; attempt++) {
+            var version = snapshot.version();
+            var byId = new HashMap<Long, TagResponse>();
+            var byName = new HashMap<String, TagResponse>();
+
+            tagRepository.findAll().forEach(tag -> {
+                var entry = new TagResponse(tag);
+                byId.put(entry.id(), entry);
+                byName.put(normalize(entry.name()), entry);
+            });
+
+            synchronized (this) {
+                if (snapshot.version() == version) {
+                    snapshot = new Snapshot(Map.copyOf(byId), Map.copyOf(byName), version + 1);
+                    LOGGER.debug("Tag catalog loaded with {} tags", byId.size());
+                    return;
+                }
+            }
+        }
+
+        LOGGER.debug("Tag catalog not loaded, the tags kept changing while they were read");
+    }
+
+    /**
+     * Finds a tag by its ID, loading it from the database if it is not in the catalog yet.
+     *
+     * @param id the ID of the tag
+     * @return an {@link Optional} containing the tag, or {@link Optional#empty()} if it does not exist
+     */
+    public Optional<TagResponse> findById(Long id) {
+        var tag = snapshot.byId().get(id);
+        if (tag != null) {
+            hits.increment();
+            return Optional.of(tag);
+        }
+
+        misses.increment();
+        var loaded = tagRepository.findById(id);
+        loaded.ifPresent(this::put);
+
+        return loaded.map(TagResponse::new);
+    }
+
+    /**
+     * Finds the tags with the given IDs, loading the ones that are not in the catalog yet with a single query.
+     * <p>
+     * IDs that do not exist are ignored, so the result may be smaller than the given collection.
+     *
+     * @param ids the IDs of the tags
+     * @return the tags found, by ID, in the order of the IDs
+     */
+    public Map<Long, TagResponse> findAllById(Collection<Long> ids) {
+        var known = snapshot.byId();
+        var missing = new ArrayList<Long>();
+        ids.forEach(id -> {
+            if (known.containsKey(id)) {
+                hits.increment();
+            } else {
+                misses.increment();
+                missing.add(id);
+            }
+        });
+
+        var loaded = new HashMap<Long, TagResponse>();
+        if (!missing.isEmpty()) {
+            tagRepository.findAllById(missing).forEach(tag -> {
+                put(tag);
+                loaded.put(tag.getId(), new TagResponse(tag));
+            });
+        }
+
+        var tags = new LinkedHashMap<Long, TagResponse>();
+        ids.forEach(id -> {
+            var tag = known.containsKey(id) ? known.get(id) : loaded.get(id);
+            if (tag != null) {
+                tags.put(id, tag);
+            }
+        });
+
+        return tags;
+    }
+
+    /**
+     * Finds a tag by its name, ignoring case. The database is not queried.
+     *
+     * @param name the name of the tag
+     * @return an {@link Optional} containing the tag, or {@link Optional#empty()} if no tag has this name
+     */
+    public Optional<TagResponse> findByName(String name) {
+        var tag = snapshot.byName().get(normalize(name));
+        if (tag != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+
+        return Optional.ofNullable(tag);
+    }
+
+    /**
+     * Adds or replaces a tag in the catalog once the current transaction commits, right away outside of one.
+     */
+    public void put(Tag tag) {
+        var entry = new TagResponse(tag);
+        afterCommit(() -> put(entry));
+    }
+
+    /**
+     * Removes a tag from the catalog once the current transaction commits, right away outside of one.
+     */
+    public void remove(Long id) {
+        afterCommit(() -> removeById(id));
+    }
+
+    private synchronized void put(TagResponse entry) {
+        var byId = new HashMap<>(snapshot.byId());
+        var byName = new HashMap<>(snapshot.byName());
+
+        var previous = byId.put(entry.id(), entry);
+        if (previous != null) {
+            byName.remove(normalize(previous.name()));
+        }
+        byName.put(normalize(entry.name()), entry);
+
+        snapshot = new Snapshot(Map.copyOf(byId), Map.copyOf(byName), snapshot.version() + 1);
+    }
+
+    private synchronized void removeById(Long id) {
+        var byId = new HashMap<>(snapshot.byId());
+        var byName = new HashMap<>(snapshot.byName());
+
+        var previous = byId.remove(id);
+        if (previous != null) {
+            byName.remove(normalize(previous.name()));
+        }
+
+        snapshot = new Snapshot(Map.copyOf(byId), Map.copyOf(byName), snapshot.version() + 1);
+    }
+
+    public int size() {
+        return snapshot.byId().size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * A rolled back write must not reach the catalog, where the name check of the tags would still see it.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private record Snapshot(Map<Long, TagResponse> byId, Map<String, TagResponse> byName, long version) { }
+
+}
@@ -0,0 +1,551 @@
+package com.github.rhafaelcosta.todolist.caches;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.rhafaelcosta.todolist.filters.TaskFilter;
+import com.github.rhafaelcosta.todolist.filters.TaskTagMode;
+import com.github.rhafaelcosta.todolist.models.Tag;
+import com.github.rhafaelcosta.todolist.models.Task;
+import com.github.rhafaelcosta.todolist.repositories.projections.TaskFacetCounts;
+import com.github.rhafaelcosta.todolist.repositories.projections.TaskIndexCount;
+
+/**
+ * In-memory index of the task IDs per owner, status, severity, priority and tag, each set of IDs held in a
+ * compressed {@link RoaringBitmap}.
+ * <p>
+ * The tasks matching a {@link TaskFilter} are counted by intersecting the bitmaps of its criteria, without querying
+ * the database, as long as the filter has no title or date criteria, which are left to SQL. The same intersection
+ * is broken down by the values of every dimension for the facets of a listing.
+ * <p>
+ * The index is built from the database at startup, see {@code TaskIndexService}, and the task writes apply their
+ * changes after their transaction commits. The changes committed while it is built are queued and replayed on the
+ * new bitmaps before they are swapped in; until then, and whenever the index is invalidated, nothing is answered
+ * from it. The bitmaps hold 32-bit values, so a task ID above that range invalidates the index.
+ */
+@Component
+public class TaskBitmapIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskBitmapIndex.class);
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Bitmaps bitmaps;
+    private List<Changes> pending;
+    private long generation;
+
+    private final LongAdder builds = new LongAdder();
+
+    public TaskBitmapIndex(@Value("${todolist.task-index.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether the index is built and answers the counts.
+     */
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return bitmaps != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the criteria of the filter are all held by the index.
+     */
+    public static boolean supports(TaskFilter filter) {
+        return filter == null || (filter.title() == null
+                && filter.createdFrom() == null && filter.createdTo() == null
+                && filter.updatedFrom() == null && filter.updatedTo() == null);
+    }
+
+    /**
+     * Counts the tasks matching the filter.
+     *
+     * @return the number of tasks, or empty if the index is not ready or does not support the filter
+     */
+    public OptionalLong count(TaskFilter filter) {
+        if (!enabled || !supports(filter)) {
+            return OptionalLong.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (bitmaps == null) {
+                return OptionalLong.empty();
+            }
+
+            var criteria = bitmaps.criteria(filter);
+            var last = criteria.size() - 1;
+            if (last == 0) {
+                return OptionalLong.of(criteria.get(0).getLongCardinality());
+            }
+
+            // Only the cardinality of the last intersection is needed, it is not materialized
+            return OptionalLong.of(RoaringBitmap.andCardinality(intersect(criteria.subList(0, last)), criteria.get(last)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the tasks matching the filter per status, severity, priority and tag.
+     *
+     * @return the counts, or empty if the index is not ready or does not support the filter
+     */
+    public Optional<TaskFacetCounts> facets(TaskFilter filter) {
+        if (!enabled || !supports(filter)) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (bitmaps == null) {
+                return Optional.empty();
+            }
+
+            var criteria = bitmaps.criteria(filter);
+            var selected = intersect(criteria);
+
+            return Optional.of(new TaskFacetCounts(selected.getLongCardinality(), facet(selected, bitmaps.statuses),
+                    facet(selected, bitmaps.severities), facet(selected, bitmaps.priorities), facet(selected, bitmaps.tags)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of tasks per value of every dimension, in the form of
+     * {@link com.github.rhafaelcosta.todolist.repositories.TaskIndexRepository#countDimensions()}, or an empty list
+     * if the index is not ready.
+     */
+    public List<TaskIndexCount> counts() {
+        lock.readLock().lock();
+        try {
+            var counts = new ArrayList<TaskIndexCount>();
+            if (bitmaps == null) {
+                return counts;
+            }
+
+            counts.add(new TaskIndexCount("total", null, bitmaps.tasks.getLongCardinality()));
+            bitmaps.users.forEach((value, bitmap) -> counts.add(new TaskIndexCount("user", value, bitmap.getLongCardinality())));
+            bitmaps.statuses.forEach((value, bitmap) -> counts.add(new TaskIndexCount("status", value.longValue(), bitmap.getLongCardinality())));
+            bitmaps.severities.forEach((value, bitmap) -> counts.add(new TaskIndexCount("severity", value.longValue(), bitmap.getLongCardinality())));
+            bitmaps.priorities.forEach((value, bitmap) -> counts.add(new TaskIndexCount("priority", value.longValue(), bitmap.getLongCardinality())));
+            bitmaps.tags.forEach((value, bitmap) -> counts.add(new TaskIndexCount("tag", value, bitmap.getLongCardinality())));
+
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed tasks, zero when the index is not ready.
+     */
+    public long getTaskCount() {
+        lock.readLock().lock();
+        try {
+            return bitmaps == null ? 0 : bitmaps.tasks.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the memory used by the bitmaps, in bytes, zero when the index is not ready.
+     */
+    public long getSizeInBytes() {
+        lock.readLock().lock();
+        try {
+            return bitmaps == null ? 0 : bitmaps.sizeInBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getBuildCount() {
+        return builds.sum();
+    }
+
+    /**
+     * Applies the changes once the current transaction commits, or right away outside of a transaction.
+     */
+    public void apply(Changes changes) {
+        if (!enabled || changes.changes.isEmpty()) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyNow(changes);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyNow(changes);
+            }
+        });
+    }
+
+    /**
+     * Stops answering from the index until it is built again, also discarding a build in progress.
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            generation++;
+            bitmaps = null;
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Starts building the index, which stops answering until the returned builder finishes. The changes applied
+     * from now on are queued to be replayed on the new bitmaps.
+     */
+    public Builder startBuild() {
+        lock.writeLock().lock();
+        try {
+            generation++;
+            bitmaps = null;
+            pending = new ArrayList<>();
+
+            return new Builder(generation);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyNow(Changes changes) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(changes);
+            }
+            if (bitmaps != null) {
+                changes.applyTo(bitmaps);
+            }
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Task index invalidated: {}", e.getMessage());
+            generation++;
+            bitmaps = null;
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Intersects the bitmaps, from the smallest one, returning the only one as is.
+     */
+    private static RoaringBitmap intersect(List<RoaringBitmap> bitmaps) {
+        if (bitmaps.size() == 1) {
+            return bitmaps.get(0);
+        }
+
+        var result = RoaringBitmap.and(bitmaps.get(0), bitmaps.get(1));
+        for (var i = 2; i < bitmaps.size() && !result.isEmpty(); i++) {
+            result.and(bitmaps.get(i));
+        }
+
+        return result;
+    }
+
+    private static <K> Map<K, Long> facet(RoaringBitmap selected, Map<K, RoaringBitmap> values) {
+        var counts = new TreeMap<K, Long>();
+        values.forEach((value, bitmap) -> {
+            long count = RoaringBitmap.andCardinality(selected, bitmap);
+            if (count > 0) {
+                counts.put(value, count);
+            }
+        });
+
+        return counts;
+    }
+
+    private static int toIndex(long taskId) {
+        if (taskId < 0 || taskId >>> 32 != 0) {
+            throw new IllegalArgumentException("Task id out of the range of the index: " + taskId);
+        }
+
+        return (int) taskId;
+    }
+
+    /**
+     * Loads the tasks of a new build of the index.
+     */
+    public final class Builder {
+
+        private final long buildGeneration;
+        private final Bitmaps building = new Bitmaps();
+
+        private Builder(long buildGeneration) {
+            this.buildGeneration = buildGeneration;
+        }
+
+        /**
+         * Adds a task with its owner, status, severity and priority, any of them possibly null.
+         *
+         * @throws IllegalArgumentException if the ID of the task is out of the range of the index
+         */
+        public void addTask(long id, Long userId, Integer status, Integer severity, Integer priority) {
+            building.add(toIndex(id), userId, status, severity, priority);
+        }
+
+        /**
+         * Adds a tag to a task.
+         *
+         * @throws IllegalArgumentException if the ID of the task is out of the range of the index
+         */
+        public void addTag(long taskId, long tagId) {
+            building.addTag(toIndex(taskId), tagId);
+        }
+
+        /**
+         * Replays the changes queued during the build and swaps the new bitmaps in.
+         *
+         * @return false if the index was invalidated or another build started meanwhile, the bitmaps being discarded
+         */
+        public boolean finish() {
+            building.optimize();
+
+            lock.writeLock().lock();
+            try {
+                if (generation != buildGeneration) {
+                    return false;
+                }
+
+                for (var changes : pending) {
+                    changes.applyTo(building);
+                }
+                bitmaps = building;
+                pending = null;
+                builds.increment();
+
+                return true;
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("Task index not built: {}", e.getMessage());
+                pending = null;
+                return false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Discards the build, the index staying unavailable.
+         */
+        public void abort() {
+            lock.writeLock().lock();
+            try {
+                if (generation == buildGeneration) {
+                    pending = null;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+    }
+
+    /**
+     * Changes to the index, accumulated by a write and applied once.
+     */
+    public static class Changes {
+
+        private final List<Change> changes = new ArrayList<>();
+
+        /**
+         * Indexes the task with its current owner, status, severity, priority and tags.
+         */
+        public Changes add(Task task) {
+            var tagIds = task.getTags() == null ? new long[0] : task.getTags().stream().mapToLong(Tag::getId).toArray();
+            changes.add(new Change(false, task.getId(), task.getOwner() == null ? null : task.getOwner().getId(),
+                    task.getTaskStatusType() == null ? null : task.getTaskStatusType().getCode(),
+                    task.getSeverityType() == null ? null : task.getSeverityType().getCode(), task.getPriority(), tagIds));
+            return this;
+        }
+
+        /**
+         * Removes the task, indexed with its current owner, status, severity and priority, and all its tags.
+         */
+        public Changes remove(Task task) {
+            changes.add(new Change(true, task.getId(), task.getOwner() == null ? null : task.getOwner().getId(),
+                    task.getTaskStatusType() == null ? null : task.getTaskStatusType().getCode(),
+                    task.getSeverityType() == null ? null : task.getSeverityType().getCode(), task.getPriority(), null));
+            return this;
+        }
+
+        private void applyTo(Bitmaps bitmaps) {
+            for (var change : changes) {
+                var id = toIndex(change.taskId());
+
+                if (change.removed()) {
+                    bitmaps.remove(id, change.userId(), change.status(), change.severity(), change.priority());
+                } else {
+                    bitmaps.add(id, change.userId(), change.status(), change.severity(), change.priority());
+                    for (var tagId : change.tagIds()) {
+                        bitmaps.addTag(id, tagId);
+                    }
+                }
+            }
+        }
+
+    }
+
+    private record Change(boolean removed, long taskId, Long userId, Integer status, Integer severity, Integer priority, long[] tagIds) { }
+
+    /**
+     * The bitmaps of every dimension, guarded by the lock of the index once swapped in.
+     */
+    private static class Bitmaps {
+
+        private final RoaringBitmap tasks = new RoaringBitmap();
+        private final Map<Long, RoaringBitmap> users = new HashMap<>();
+        private final Map<Integer, RoaringBitmap> statuses = new TreeMap<>();
+        private final Map<Integer, RoaringBitmap> severities = new TreeMap<>();
+        private final Map<Integer, RoaringBitmap> priorities = new TreeMap<>();
+        private final Map<Long, RoaringBitmap> tags = new HashMap<>();
+
+        void add(int id, Long userId, Integer status, Integer severity, Integer priority) {
+            tasks.add(id);
+            add(users, userId, id);
+            add(statuses, status, id);
+            add(severities, severity, id);
+            add(priorities, priority, id);
+        }
+
+        void addTag(int id, long tagId) {
+            add(tags, tagId, id);
+        }
+
+        void remove(int id, Long userId, Integer status, Integer severity, Integer priority) {
+            tasks.remove(id);
+            remove(users, userId, id);
+            remove(statuses, status, id);
+            remove(severities, severity, id);
+            remove(priorities, priority, id);
+            // The tags of a task are few, the ones of the catalog are scanned instead of tracking them
+            tags.values().removeIf(bitmap -> {
+                bitmap.remove(id);
+                return bitmap.isEmpty();
+            });
+        }
+
+        /**
+         * Returns the bitmaps to intersect for the filter, smallest first, or the bitmap of all the tasks when it has
+         * no criteria.
+         */
+        List<RoaringBitmap> criteria(TaskFilter filter) {
+            var criteria = new ArrayList<RoaringBitmap>();
+
+            if (filter != null) {
+                if (filter.userId() != null) {
+                    criteria.add(users.getOrDefault(filter.userId(), EMPTY));
+                }
+                if (filter.taskStatusTypeCode() != null) {
+                    criteria.add(byCode(statuses, filter.taskStatusTypeCode()));
+                }
+                if (filter.severityTypeCode() != null) {
+                    criteria.add(byCode(severities, filter.severityTypeCode()));
+                }
+                if (filter.priority() != null) {
+                    criteria.add(priorities.getOrDefault(filter.priority(), EMPTY));
+                }
+                // The empty values of the parameter are bound as null tags, ignored as the database query does
+                var tagIds = filter.tagIds() == null ? Set.<Long>of()
+                        : filter.tagIds().stream().filter(Objects::nonNull).collect(Collectors.toCollection(TreeSet::new));
+                if (!tagIds.isEmpty()) {
+                    var tagBitmaps = tagIds.stream().map(tagId -> tags.getOrDefault(tagId, EMPTY)).toList();
+
+                    if (filter.tagMode() == TaskTagMode.ALL || tagBitmaps.size() == 1) {
+                        criteria.addAll(tagBitmaps);
+                    } else {
+                        criteria.add(FastAggregation.or(tagBitmaps.iterator()));
+                    }
+                }
+            }
+
+            if (criteria.isEmpty()) {
+                return List.of(tasks);
+            }
+
+            criteria.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+            return criteria;
+        }
+
+        void optimize() {
+            tasks.runOptimize();
+            for (var values : List.of(users, statuses, severities, priorities, tags)) {
+                values.values().forEach(RoaringBitmap::runOptimize);
+            }
+        }
+
+        long sizeInBytes() {
+            var size = tasks.getLongSizeInBytes();
+            for (var values : List.of(users, statuses, severities, priorities, tags)) {
+                for (var bitmap : values.values()) {
+                    size += bitmap.getLongSizeInBytes();
+                }
+            }
+
+            return size;
+        }
+
+        private static RoaringBitmap byCode(Map<Integer, RoaringBitmap> values, long code) {
+            return code < Integer.MIN_VALUE || code > Integer.MAX_VALUE ? EMPTY : values.getOrDefault((int) code, EMPTY);
+        }
+
+        private static <K> void add(Map<K, RoaringBitmap> values, K value, int id) {
+            if (value != null) {
+                values.computeIfAbsent(value, v -> new RoaringBitmap()).add(id);
+            }
+        }
+
+        private static <K> void remove(Map<K, RoaringBitmap> values, K value, int id) {
+            var bitmap = value == null ? null : values.get(value);
+            if (bitmap != null) {
+                bitmap.remove(id);
+                if (bitmap.isEmpty()) {
+                    values.remove(value);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.github.rhafaelcosta.todolist.caches;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.rhafaelcosta.todolist.enums.SeverityType;
+import com.github.rhafaelcosta.todolist.enums.TaskStatusType;
+import com.github.rhafaelcosta.todolist.models.Task;
+import com.github.rhafaelcosta.todolist.repositories.projections.TaskGroupCount;
+
+/**
+ * In-memory number of tasks per status, severity and priority.
+ * <p>
+ * Each count is a {@link LongAdder}, so the writes of different threads do not contend and the reads never block
+ * them. The task writes apply their changes after their transaction commits, and the counts are reconciled
+ * periodically with the database, which also picks up the tasks written by other instances or directly in the
+ * database.
+ * <p>
+ * The reconciliation adds the difference between the database and the counts taken right before querying it,
+ * instead of replacing the counts, so the writes applied meanwhile are kept. A write committing while the
+ * query runs may be counted twice until the next reconciliation, but the errors do not add up across them.
+ */
+@Component
+public class TaskStatsCounters {
+
+    private static final Comparator<Key> ORDER = Comparator
+            .comparing((Key key) -> key.status() == null ? null : key.status().getCode(), Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(key -> key.severity() == null ? null : key.severity().getCode(), Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Key::priority, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final Map<Key, LongAdder> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the non-zero counts, ordered by status, severity and priority.
+     */
+    public List<TaskGroupCount> snapshot() {
+        return counts.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .filter(entry -> entry.getValue() != 0)
+                .sorted(Map.Entry.comparingByKey(ORDER))
+                .map(entry -> new TaskGroupCount(entry.getKey().status(), entry.getKey().severity(), entry.getKey().priority(), entry.getValue()))
+                .toList();
+    }
+
+    /**
+     * Applies the changes once the current transaction commits, or right away outside of a transaction.
+     */
+    public void apply(Changes changes) {
+        if (changes.deltas.isEmpty()) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changes.deltas.forEach(this::add);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                changes.deltas.forEach(TaskStatsCounters.this::add);
+            }
+        });
+    }
+
+    /**
+     * Returns the current value of every count, to be passed to {@link #reconcile(Map, List)}.
+     */
+    public Map<Key, Long> sums() {
+        var sums = new HashMap<Key, Long>();
+        counts.forEach((key, count) -> sums.put(key, count.sum()));
+
+        return sums;
+    }
+
+    /**
+     * Moves each count by the difference between the database and its value before the database was queried.
+     *
+     * @param before the counts taken by {@link #sums()} before querying the database
+     * @param actual the counts of the database
+     */
+    public void reconcile(Map<Key, Long> before, List<TaskGroupCount> actual) {
+        var corrections = new HashMap<Key, Long>();
+        before.forEach((key, count) -> corrections.put(key, -count));
+        actual.forEach(count -> corrections.merge(new Key(count.status(), count.severity(), count.priority()), count.count(), Long::sum));
+
+        corrections.forEach(this::add);
+    }
+
+    private void add(Key key, long delta) {
+        if (delta != 0) {
+            counts.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        }
+    }
+
+    public record Key(TaskStatusType status, SeverityType severity, Integer priority) { }
+
+    /**
+     * Changes to the counts, accumulated by a write and applied once.
+     */
+    public static class Changes {
+
+        private final Map<Key, Long> deltas = new HashMap<>();
+
+        /**
+         * Counts the task with its current status, severity and priority.
+         */
+        public Changes add(Task task) {
+            return add(new Key(task.getTaskStatusType(), task.getSeverityType(), task.getPriority()), 1);
+        }
+
+        /**
+         * Stops counting the task with its current status, severity and priority.
+         */
+        public Changes remove(Task task) {
+            return add(new Key(task.getTaskStatusType(), task.getSeverityType(), task.getPriority()), -1);
+        }
+
+        /**
+         * Counts the tasks of a group.
+         */
+        public Changes add(TaskGroupCount count) {
+            return add(new Key(count.status(), count.severity(), count.priority()), count.count());
+        }
+
+        private Changes add(Key key, long delta) {
+            deltas.merge(key, delta, Long::sum);
+            return this;
+        }
+
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.github.rhafaelcosta.todolist.configs;
+
+import java.sql.SQLException;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.rhafaelcosta.todolist.caches.ListResultCache;
+import com.github.rhafaelcosta.todolist.caches.TagCatalog;
+import com.github.rhafaelcosta.todolist.caches.TaskBitmapIndex;
+import com.github.rhafaelcosta.todolist.datasources.ConcurrencyLimitingDataSource;
+import com.github.rhafaelcosta.todolist.datasources.ReplicaRoutingDataSource;
+import com.github.rhafaelcosta.todolist.datasources.ReplicaRoutingDataSource.Replica;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Metrics of the application, on top of the HTTP, Hibernate, connection pool and repository metrics
+ * registered by Spring Boot. They are scraped from the {@code /actuator/prometheus} endpoint of the management port.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Records the latency of the services annotated with {@code @Timed}, by class and method.
+     */
+    @Bean
+    TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    MeterBinder cacheMetrics(ListResultCache listCache, TagCatalog tagCatalog) {
+        return registry -> {
+            FunctionCounter.builder("todolist.cache.gets", listCache, ListResultCache::getHitCount)
+                    .tags("cache", "list", "result", "hit").register(registry);
+            FunctionCounter.builder("todolist.cache.gets", listCache, ListResultCache::getMissCount)
+                    .tags("cache", "list", "result", "miss").register(registry);
+            FunctionCounter.builder("todolist.cache.evictions", listCache, ListResultCache::getEvictionCount)
+                    .tags("cache", "list").register(registry);
+            Gauge.builder("todolist.cache.weight", listCache, ListResultCache::getWeight)
+                    .tags("cache", "list").register(registry);
+            Gauge.builder("todolist.cache.size", listCache, ListResultCache::getOwnerCount)
+                    .tags("cache", "list-owners").register(registry);
+
+            FunctionCounter.builder("todolist.cache.gets", tagCatalog, TagCatalog::getHitCount)
+                    .tags("cache", "tag-catalog", "result", "hit").register(registry);
+            FunctionCounter.builder("todolist.cache.gets", tagCatalog, TagCatalog::getMissCount)
+                    .tags("cache", "tag-catalog", "result", "miss").register(registry);
+            Gauge.builder("todolist.cache.size", tagCatalog, TagCatalog::size)
+                    .tags("cache", "tag-catalog").register(registry);
+        };
+    }
+
+    /**
+     * Size of the in-memory task index, zero while it is not built.
+     */
+    @Bean
+    MeterBinder taskIndexMetrics(TaskBitmapIndex taskIndex) {
+        return registry -> {
+            Gauge.builder("todolist.task.index.memory", taskIndex, TaskBitmapIndex::getSizeInBytes)
+                    .baseUnit("bytes").register(registry);
+            Gauge.builder("todolist.task.index.tasks", taskIndex, TaskBitmapIndex::getTaskCount)
+                    .register(registry);
+            FunctionCounter.builder("todolist.task.index.builds", taskIndex, TaskBitmapIndex::getBuildCount)
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Usage of the connection cap applied in front of each pool in the virtual threads mode, by pool name. The caps of
+     * the primary and of the replicas sit behind the routing data source, when the replicas are configured.
+     */
+    @Bean
+    MeterBinder dataSourceConcurrencyMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream()
+                .flatMap(MetricsConfig::pools)
+                .forEach(pool -> {
+                    var dataSource = unwrap(pool, ConcurrencyLimitingDataSource.class);
+                    if (dataSource == null) {
+                        return;
+                    }
+
+                    var hikari = unwrap(pool, HikariDataSource.class);
+                    var name = hikari == null ? "default" : hikari.getPoolName();
+                    Gauge.builder("todolist.datasource.permits.available", dataSource, ConcurrencyLimitingDataSource::getAvailablePermits)
+                            .tags("pool", name).register(registry);
+                    Gauge.builder("todolist.datasource.permits.waiting", dataSource, ConcurrencyLimitingDataSource::getQueueLength)
+                            .tags("pool", name).register(registry);
+                });
+    }
+
+    /**
+     * Returns the primary and the replicas of a routing data source, the data source itself otherwise.
+     */
+    private static Stream<DataSource> pools(DataSource dataSource) {
+        var routing = unwrap(dataSource, ReplicaRoutingDataSource.class);
+        if (routing == null) {
+            return Stream.of(dataSource);
+        }
+
+        return Stream.concat(Stream.of(routing.getPrimary()), routing.getReplicas().stream().map(Replica::getDataSource));
+    }
+
+    private static <T> T unwrap(DataSource dataSource, Class<T> type) {
+        try {
+            return dataSource.isWrapperFor(type) ? dataSource.unwrap(type) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,198 @@
+package com.github.rhafaelcosta.todolist.configs;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.github.rhafaelcosta.todolist.datasources.ConcurrencyLimitingDataSource;
+import com.github.rhafaelcosta.todolist.datasources.ReadYourWritesTracker;
+import com.github.rhafaelcosta.todolist.datasources.ReplicaHealthMonitor;
+import com.github.rhafaelcosta.todolist.datasources.ReplicaRoutingDataSource;
+import com.github.rhafaelcosta.todolist.datasources.ReplicaRoutingDataSource.Replica;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Enabled when at least one replica is configured with {@code todolist.datasource.replicas[n].url}, when the
+ * read-only transactions are routed to the replicas by a {@link ReplicaRoutingDataSource} that replaces the
+ * data source of Spring Boot, which becomes the primary.
+ * <p>
+ * Each replica has its own connection pool, configured by {@code todolist.datasource.replicas[n].hikari.*},
+ * that does not fail the startup when the replica is unreachable. In the virtual threads mode the primary and each
+ * replica are capped separately by {@code todolist.datasource.max-concurrency}. The primary is capped here, unless
+ * it already was, as the post-processor of {@link VirtualThreadsConfig} leaves the routing data source alone and may
+ * run after this one.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "todolist.datasource.replicas[0]", name = "url")
+public class ReplicaRoutingConfig {
+
+    /**
+     * Returns the replication lag of a PostgreSQL standby in seconds, 0 when it has replayed everything it received
+     * or when it is not a standby.
+     */
+    private static final String DEFAULT_LAG_QUERY = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END
+            """;
+
+    @Bean
+    static BeanPostProcessor replicaRoutingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !isRouting(dataSource)) {
+                    return new ClosingLazyConnectionDataSourceProxy(routingDataSource(dataSource, environment), dataSource);
+                }
+
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    ReplicaHealthMonitor replicaHealthMonitor(DataSource dataSource, Environment environment) throws SQLException {
+        return new ReplicaHealthMonitor(dataSource.unwrap(ReplicaRoutingDataSource.class),
+                environment.getProperty("todolist.datasource.replica.lag-query", DEFAULT_LAG_QUERY),
+                environment.getProperty("todolist.datasource.replica.max-lag", Duration.class, Duration.ofSeconds(5)));
+    }
+
+    /**
+     * Published as the {@code replicas} component of the health endpoint. The application stays up while replicas
+     * are down, their reads going to the primary.
+     */
+    @Bean
+    HealthIndicator replicasHealthIndicator(DataSource dataSource) throws SQLException {
+        var routing = dataSource.unwrap(ReplicaRoutingDataSource.class);
+
+        return () -> {
+            var health = Health.up();
+            routing.getReplicas().forEach(replica -> health.withDetail(replica.getName(), replica.isUp()
+                    ? Map.of("status", "UP", "lag", replica.getLag().toMillis())
+                    : Map.of("status", "DOWN", "lag", replica.getLag().toMillis(), "reason", String.valueOf(replica.getReason()))));
+
+            return health.build();
+        };
+    }
+
+    @Bean
+    MeterBinder replicaMetrics(DataSource dataSource) throws SQLException {
+        var routing = dataSource.unwrap(ReplicaRoutingDataSource.class);
+
+        return registry -> routing.getReplicas().forEach(replica -> {
+            Gauge.builder("todolist.datasource.replica.up", replica, r -> r.isUp() ? 1 : 0)
+                    .tags("replica", replica.getName()).register(registry);
+            TimeGauge.builder("todolist.datasource.replica.lag", replica, TimeUnit.MILLISECONDS, r -> r.getLag().toMillis())
+                    .tags("replica", replica.getName()).register(registry);
+        });
+    }
+
+    private static ReplicaRoutingDataSource routingDataSource(DataSource primary, Environment environment) {
+        var binder = Binder.get(environment);
+        var virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        var maxConcurrency = environment.getProperty("todolist.datasource.max-concurrency", Integer.class, 10);
+        var primaryTimeout = Duration.ofMillis(environment.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 30000L));
+        var connectionTimeout = environment.getProperty("todolist.datasource.replica.connection-timeout", Duration.class, Duration.ofSeconds(2));
+
+        var replicas = new LinkedHashMap<String, DataSource>();
+        var properties = binder.bind("todolist.datasource.replicas", Bindable.listOf(DataSourceProperties.class)).orElse(List.of());
+
+        for (var i = 0; i < properties.size(); i++) {
+            var name = "replica-" + i;
+            var replica = properties.get(i).initializeDataSourceBuilder().type(HikariDataSource.class).build();
+
+            if (replica.getUsername() == null) {
+                replica.setUsername(environment.getProperty("spring.datasource.username"));
+                replica.setPassword(environment.getProperty("spring.datasource.password"));
+            }
+
+            // Defaults that the hikari properties of the replica may override
+            replica.setPoolName(name);
+            replica.setReadOnly(true);
+            replica.setInitializationFailTimeout(-1);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            binder.bind("todolist.datasource.replicas[" + i + "].hikari", Bindable.ofInstance(replica));
+
+            replicas.put(name, virtualThreads
+                    ? new ConcurrencyLimitingDataSource(replica, maxConcurrency, Duration.ofMillis(replica.getConnectionTimeout()))
+                    : replica);
+        }
+
+        var limitedPrimary = virtualThreads && !isConcurrencyLimited(primary)
+                ? new ConcurrencyLimitingDataSource(primary, maxConcurrency, primaryTimeout)
+                : primary;
+
+        return new ReplicaRoutingDataSource(limitedPrimary, replicas, new ReadYourWritesTracker(
+                environment.getProperty("todolist.datasource.replica.client-header", "X-Client-Id"),
+                environment.getProperty("todolist.datasource.replica.sticky-window", Duration.class, Duration.ofSeconds(10))));
+    }
+
+    static boolean isRouting(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(ReplicaRoutingDataSource.class);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static boolean isConcurrencyLimited(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(ConcurrencyLimitingDataSource.class);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Closes the connection pools of the primary and of the replicas when the context is closed, which Spring
+     * no longer does once the data source of Spring Boot is wrapped.
+     */
+    private static final class ClosingLazyConnectionDataSourceProxy extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+        private final ReplicaRoutingDataSource routing;
+        private final DataSource primary;
+
+        ClosingLazyConnectionDataSourceProxy(ReplicaRoutingDataSource routing, DataSource primary) {
+            super(routing);
+            this.routing = routing;
+            this.primary = primary;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            for (Replica replica : routing.getReplicas()) {
+                closePool(replica.getDataSource());
+            }
+
+            closePool(primary);
+        }
+
+        private static void closePool(DataSource dataSource) throws SQLException {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                dataSource.unwrap(HikariDataSource.class).close();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.github.rhafaelcosta.todolist.configs;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.rhafaelcosta.todolist.formats.ProtobufJacksonHttpMessageConverter;
+
+/**
+ * Binary formats of the responses, chosen by the Accept header: CBOR ({@code application/cbor}), Smile
+ * ({@code application/x-jackson-smile}) and protobuf ({@code application/x-protobuf}). JSON stays the default.
+ * <p>
+ * The mappers are built by the builder of Spring Boot, so they share the modules and settings of the JSON one.
+ * The CBOR and Smile converters replace the default ones of Spring MVC, after the JSON converter, and the protobuf
+ * converter is added last, so it is only used when asked for.
+ */
+@Configuration
+public class ResponseFormatConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+
+    public ResponseFormatConfig(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        this.builders = builders;
+    }
+
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+        return new MappingJackson2CborHttpMessageConverter(builders.getObject().factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter() {
+        return new MappingJackson2SmileHttpMessageConverter(builders.getObject().factory(new SmileFactory()).build());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ProtobufJacksonHttpMessageConverter(builders.getObject().factory(new ProtobufFactory()).build()));
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.github.rhafaelcosta.todolist.configs;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the periodic jobs, like the refresh of the in-memory caches.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+}
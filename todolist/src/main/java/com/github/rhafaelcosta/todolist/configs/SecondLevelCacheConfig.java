@@ -0,0 +1,66 @@
+package com.github.rhafaelcosta.todolist.configs;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Second-level cache of Hibernate, kept in process by Caffeine behind JCache: the tags, the users and the tags
+ * of each task. Each region is bounded by {@code todolist.cache.entities.<region>.max-size} entries and expires
+ * {@code todolist.cache.entities.<region>.ttl} after being written, which also bounds how long the writes of other
+ * instances, or the reads of a lagging replica, stay unseen.
+ * <p>
+ * The hits, misses and puts of each region are published with the other Hibernate statistics.
+ */
+@Configuration
+@ConditionalOnProperty(name = "todolist.cache.entities.enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheConfig {
+
+    /**
+     * The regions of the entities and collections annotated with {@code @Cache}.
+     */
+    static final List<String> REGIONS = List.of("tag", "user", "task-tags");
+
+    @Bean(destroyMethod = "close")
+    CacheManager secondLevelCacheManager(Environment environment) {
+        var provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // Every application context gets its own manager, as the contexts of the tests share the JVM
+        var cacheManager = provider.getCacheManager(URI.create("todolist:" + UUID.randomUUID()), getClass().getClassLoader());
+
+        for (var region : REGIONS) {
+            cacheManager.createCache(region, regionConfiguration(environment, region));
+        }
+
+        return cacheManager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(Environment environment, String region) {
+        var prefix = "todolist.cache.entities." + region;
+        var configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(environment.getProperty(prefix + ".max-size", Long.class, 10_000L)));
+        configuration.setExpireAfterWrite(OptionalLong.of(environment.getProperty(prefix + ".ttl", Duration.class, Duration.ofMinutes(10)).toNanos()));
+
+        return configuration;
+    }
+
+}
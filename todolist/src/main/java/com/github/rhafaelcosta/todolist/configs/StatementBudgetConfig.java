@@ -0,0 +1,72 @@
+package com.github.rhafaelcosta.todolist.configs;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.JdbcProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.github.rhafaelcosta.todolist.statements.CountingJdbcTemplate;
+import com.github.rhafaelcosta.todolist.statements.CountingStatementInspector;
+import com.github.rhafaelcosta.todolist.statements.StatementBudgetFilter;
+import com.github.rhafaelcosta.todolist.statements.StatementBudgetInterceptor;
+import com.github.rhafaelcosta.todolist.statements.StatementCountingCallableInterceptor;
+
+/**
+ * Counts the SQL statements of every request against the budget configured by {@code todolist.statements.budget},
+ * or by the {@code StatementBudget} of the endpoint. Going over the budget is logged, or fails the request
+ * when {@code todolist.statements.fail-on-exceed} is set.
+ */
+@Configuration
+public class StatementBudgetConfig implements WebMvcConfigurer {
+
+    @Bean
+    HibernatePropertiesCustomizer statementInspectorCustomizer(@Value("${todolist.statements.fail-on-exceed:false}") boolean failOnExceed) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new CountingStatementInspector(failOnExceed));
+    }
+
+    /**
+     * Replaces the {@link JdbcTemplate} of Spring Boot, configured the same way, to count the statements run
+     * outside of Hibernate.
+     */
+    @Bean
+    JdbcTemplate jdbcTemplate(DataSource dataSource, JdbcProperties properties,
+                              @Value("${todolist.statements.fail-on-exceed:false}") boolean failOnExceed) {
+        var jdbcTemplate = new CountingJdbcTemplate(dataSource, failOnExceed);
+        var template = properties.getTemplate();
+        jdbcTemplate.setFetchSize(template.getFetchSize());
+        jdbcTemplate.setMaxRows(template.getMaxRows());
+        if (template.getQueryTimeout() != null) {
+            jdbcTemplate.setQueryTimeout((int) template.getQueryTimeout().getSeconds());
+        }
+
+        return jdbcTemplate;
+    }
+
+    @Bean
+    FilterRegistrationBean<StatementBudgetFilter> statementBudgetFilter(@Value("${todolist.statements.budget:10}") int budget) {
+        var registration = new FilterRegistrationBean<>(new StatementBudgetFilter(budget));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new StatementBudgetInterceptor());
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new StatementCountingCallableInterceptor());
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.github.rhafaelcosta.todolist.configs;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.github.rhafaelcosta.todolist.datasources.ConcurrencyLimitingDataSource;
+
+/**
+ * Enabled with {@code spring.threads.virtual.enabled=true}, when Spring Boot runs the requests handled by Tomcat,
+ * and so the service calls, on virtual threads.
+ * <p>
+ * The number of requests in flight is no longer bounded by a thread pool, so the connections borrowed at the same
+ * time are capped in front of the connection pool by {@code todolist.datasource.max-concurrency}.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    @Bean
+    static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(Environment environment) {
+        var maxConcurrency = environment.getProperty("todolist.datasource.max-concurrency", Integer.class, 10);
+        var timeout = Duration.ofMillis(environment.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 30000L));
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // The pools behind a routing data source are capped separately by the routing configuration
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitingDataSource)
+                        && !ReplicaRoutingConfig.isRouting(dataSource)) {
+                    return new ConcurrencyLimitingDataSource(dataSource, maxConcurrency, timeout);
+                }
+
+                return bean;
+            }
+        };
+    }
+
+}
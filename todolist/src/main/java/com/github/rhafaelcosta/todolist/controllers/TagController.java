@@ -1,6 +1,7 @@
 package com.github.rhafaelcosta.todolist.controllers;
 
 import com.github.rhafaelcosta.todolist.exceptions.EntityAlreadyExistsException;
+import com.github.rhafaelcosta.todolist.formats.ResponseVariants;
 import com.github.rhafaelcosta.todolist.requests.TagRequest;
 import com.github.rhafaelcosta.todolist.responses.ErrorResponse;
 import com.github.rhafaelcosta.todolist.responses.TagResponse;
@@ -17,6 +18,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 
 
 @RestController
@@ -25,9 +27,11 @@ import org.springframework.web.bind.annotation.*;
 public class TagController {
 
     private final TagService tagService;
+    private final ResponseVariants responseVariants;
 
-    TagController(TagService tagService) {
+    TagController(TagService tagService, ResponseVariants responseVariants) {
         this.tagService = tagService;
+        this.responseVariants = responseVariants;
     }
 
     @GetMapping
@@ -37,10 +41,15 @@ public class TagController {
             responses = {
                     @ApiResponse(responseCode = "200", description = "successful operation",
                             content = @Content(schema = @Schema(implementation = TagResponse.class))
-                    )
+                    ),
+                    @ApiResponse(responseCode = "304", description = "The tags did not change since the entity tag sent in If-None-Match", content = @Content)
             }
     )
-    public ResponseEntity<Page<TagResponse>> listAll(@RequestParam(required = false) String name, Pageable pageable) {
+    public ResponseEntity<Page<TagResponse>> listAll(@RequestParam(required = false) String name, Pageable pageable, NativeWebRequest request) {
+        if (request.checkNotModified(responseVariants.eTag(request, tagService.getChangeStamp()))) {
+            return null;
+        }
+
         var tags = tagService.getPaginatedTagsByFilter(name, pageable);
         return ResponseEntity.status(HttpStatus.OK).body(tags);
     }
@@ -53,12 +62,18 @@ public class TagController {
                     @ApiResponse(responseCode = "200", description = "successful operation",
                             content = @Content(schema = @Schema(implementation = TagResponse.class))
                     ),
+                    @ApiResponse(responseCode = "304", description = "The tag did not change since the entity tag or the date sent", content = @Content),
                     @ApiResponse(responseCode = "404", description = "Tag not found",
                             content = @Content(schema = @Schema(implementation = ErrorResponse.class))
                     )
             }
     )
-    public ResponseEntity<TagResponse> findById(@PathVariable Long id) throws EntityNotFoundException {
+    public ResponseEntity<TagResponse> findById(@PathVariable Long id, NativeWebRequest request) throws EntityNotFoundException {
+        var stamp = tagService.getChangeStamp(id);
+        if (request.checkNotModified(responseVariants.eTag(request, stamp), stamp.lastModifiedMillis())) {
+            return null;
+        }
+
         var tag = tagService.findById(id);
         return ResponseEntity.status(HttpStatus.OK).body(new TagResponse(tag));
     }
@@ -1,12 +1,24 @@
 package com.github.rhafaelcosta.todolist.controllers;
 
 import com.github.rhafaelcosta.todolist.exceptions.EnumNotFoundException;
+import com.github.rhafaelcosta.todolist.exceptions.InvalidCursorException;
+import com.github.rhafaelcosta.todolist.exports.TaskExportFormat;
+import com.github.rhafaelcosta.todolist.filters.TaskFieldSet;
 import com.github.rhafaelcosta.todolist.filters.TaskFilter;
+import com.github.rhafaelcosta.todolist.formats.ResponseVariants;
+import com.github.rhafaelcosta.todolist.requests.TaskBatchRequest;
 import com.github.rhafaelcosta.todolist.requests.TaskRequest;
+import com.github.rhafaelcosta.todolist.responses.CursorPageResponse;
 import com.github.rhafaelcosta.todolist.responses.ErrorResponse;
+import com.github.rhafaelcosta.todolist.responses.TaskBatchResponse;
 import com.github.rhafaelcosta.todolist.responses.TaskDetailResponse;
+import com.github.rhafaelcosta.todolist.responses.TaskFacetedPageResponse;
+import com.github.rhafaelcosta.todolist.responses.TaskFieldsPageResponse;
 import com.github.rhafaelcosta.todolist.responses.TaskResponse;
+import com.github.rhafaelcosta.todolist.responses.TaskStatsResponse;
 import com.github.rhafaelcosta.todolist.services.TaskService;
+import com.github.rhafaelcosta.todolist.services.TaskStatsService;
+import com.github.rhafaelcosta.todolist.statements.StatementBudget;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -14,11 +26,18 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
+import java.util.List;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/tasks")
@@ -26,9 +45,13 @@ import org.springframework.web.bind.annotation.*;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskStatsService taskStatsService;
+    private final ResponseVariants responseVariants;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskStatsService taskStatsService, ResponseVariants responseVariants) {
         this.taskService = taskService;
+        this.taskStatsService = taskStatsService;
+        this.responseVariants = responseVariants;
     }
 
     @GetMapping
@@ -38,14 +61,142 @@ public class TaskController {
             responses = {
                     @ApiResponse(responseCode = "200", description = "successful operation",
                             content = @Content(schema = @Schema(implementation = TaskResponse.class))
+                    ),
+                    @ApiResponse(responseCode = "304", description = "The tasks did not change since the entity tag sent in If-None-Match", content = @Content)
+            }
+    )
+    public ResponseEntity<Page<TaskResponse>> listAll(@ParameterObject TaskFilter filter, @RequestParam(defaultValue = "false") boolean includeTags, Pageable pageable,
+                                                      NativeWebRequest request) {
+        // The stamp covers every page of the filter, the pages themselves are told apart by their URL
+        if (request.checkNotModified(responseVariants.eTag(request, taskService.getChangeStamp(filter, includeTags)))) {
+            return null;
+        }
+
+        var tasks = taskService.getPaginatedTasksByFilter(filter, pageable, includeTags);
+        return ResponseEntity.status(HttpStatus.OK).body(tasks);
+    }
+
+    @GetMapping(params = { "facets=true", "!fields", "!cursor" })
+    @Operation(
+            summary = "Fetch the tasks with their facet counts",
+            description = "fetches a page of tasks with the number of all the filtered tasks per status, severity, priority and tag in facets. The facets and the total are counted by a single query, or by the in-memory task index when it is enabled and the filter has no title or date criteria.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "successful operation",
+                            content = @Content(schema = @Schema(implementation = TaskFacetedPageResponse.class))
+                    ),
+                    @ApiResponse(responseCode = "304", description = "The tasks did not change since the entity tag sent in If-None-Match", content = @Content)
+            }
+    )
+    public ResponseEntity<TaskFacetedPageResponse> listFaceted(@ParameterObject TaskFilter filter, @RequestParam(defaultValue = "false") boolean includeTags, Pageable pageable,
+                                                               NativeWebRequest request) {
+        // The facets name the tags, so the stamp covers them
+        if (request.checkNotModified(responseVariants.eTag(request, taskService.getChangeStamp(filter, true), includeTags ? "tags" : null))) {
+            return null;
+        }
+
+        var tasks = taskService.getFacetedTasksByFilter(filter, pageable, includeTags);
+        return ResponseEntity.status(HttpStatus.OK).body(tasks);
+    }
+
+    @GetMapping(params = { "fields", "!cursor" })
+    @Operation(
+            summary = "Fetch the selected fields of the tasks",
+            description = "fetches a page of tasks with only the fields listed in fields (id, title, description, priority, severityType, taskStatusType) and the associations listed in expand (user, tags). Only the selected columns are read and the users are only joined when expanded. With normalize=true each task references its owner by userId and the owners of the page are returned once in users. The total is not counted when the first page is not full.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "successful operation",
+                            content = @Content(schema = @Schema(implementation = TaskFieldsPageResponse.class))
+                    ),
+                    @ApiResponse(responseCode = "304", description = "The tasks did not change since the entity tag sent in If-None-Match", content = @Content),
+                    @ApiResponse(responseCode = "400", description = "Invalid field or association",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    public ResponseEntity<TaskFieldsPageResponse> listFields(@ParameterObject TaskFilter filter, @RequestParam List<String> fields, @RequestParam(required = false) List<String> expand,
+                                                             @RequestParam(defaultValue = "false") boolean normalize, Pageable pageable, NativeWebRequest request) throws EnumNotFoundException {
+        var fieldSet = TaskFieldSet.of(fields, expand, normalize);
+
+        if (request.checkNotModified(responseVariants.eTag(request, taskService.getChangeStamp(filter, fieldSet.tags()), fieldSet.variant()))) {
+            return null;
+        }
+
+        var tasks = taskService.getTaskFieldsByFilter(filter, fieldSet, pageable);
+        return ResponseEntity.status(HttpStatus.OK).body(tasks);
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(
+            summary = "Fetch tasks using cursor pagination",
+            description = "fetches tasks using keyset pagination: send an empty cursor to get the first page and the returned nextCursor to get the following ones. The total of tasks is not counted.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "successful operation",
+                            content = @Content(schema = @Schema(implementation = CursorPageResponse.class))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Invalid cursor or sort property",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
                     )
             }
     )
-    public ResponseEntity<Page<TaskResponse>> listAll(@RequestParam(required = false) Long userId, @RequestParam(required = false) Long severityTypeCode, @RequestParam(required = false) Long taskStatusTypeCode, Pageable pageable) {
-        var tasks = taskService.getPaginatedTasksByFilter(new TaskFilter(userId, severityTypeCode, taskStatusTypeCode), pageable);
+    public ResponseEntity<CursorPageResponse<TaskResponse>> listByCursor(@ParameterObject TaskFilter filter, @RequestParam String cursor, @RequestParam(defaultValue = "false") boolean includeTags, Pageable pageable) throws InvalidCursorException {
+        var tasks = taskService.getTasksByCursor(filter, cursor, pageable, includeTags);
         return ResponseEntity.status(HttpStatus.OK).body(tasks);
     }
 
+    @GetMapping(value = "/search")
+    @Operation(
+            summary = "Search tasks by text",
+            description = "searches the tasks whose title or description match the given text, from the most to the least relevant. Supports quoted phrases, 'or' and '-' to exclude words, and can be combined with the task filters. The total of matches is not counted.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "successful operation",
+                            content = @Content(schema = @Schema(implementation = TaskResponse.class))
+                    )
+            }
+    )
+    public ResponseEntity<Slice<TaskResponse>> search(@RequestParam String q, @ParameterObject TaskFilter filter, @RequestParam(defaultValue = "false") boolean includeTags, Pageable pageable) {
+        var tasks = taskService.searchTasks(q, filter, pageable, includeTags);
+        return ResponseEntity.status(HttpStatus.OK).body(tasks);
+    }
+
+    @GetMapping(value = "/export")
+    @Operation(
+            summary = "Export tasks",
+            description = "streams every task matching the filters, ordered by id, as newline-delimited JSON (format=ndjson, default) or CSV (format=csv). The tasks are written as they are read, so the export is not limited in size.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "successful operation", content = {
+                            @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = TaskResponse.class)),
+                            @Content(mediaType = "text/csv")
+                    }),
+                    @ApiResponse(responseCode = "400", description = "Invalid export format",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    public ResponseEntity<StreamingResponseBody> export(@ParameterObject TaskFilter filter, @RequestParam(defaultValue = "ndjson") String format) throws EnumNotFoundException {
+        var exportFormat = TaskExportFormat.getByCode(format);
+        var disposition = ContentDisposition.attachment().filename("tasks." + exportFormat.getCode()).build();
+
+        StreamingResponseBody body = output -> taskService.exportTasks(filter, exportFormat, output);
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+
+    @GetMapping(value = "/stats")
+    @Operation(
+            summary = "Fetch the task statistics",
+            description = "fetches the number of tasks of every user per status, severity and priority. The numbers are kept in memory by the task writes and reconciled with the data source periodically, so the data source is not queried.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "successful operation",
+                            content = @Content(schema = @Schema(implementation = TaskStatsResponse.class))
+                    )
+            }
+    )
+    public ResponseEntity<TaskStatsResponse> stats() {
+        return ResponseEntity.status(HttpStatus.OK).body(taskStatsService.getTaskStats());
+    }
+
     @GetMapping(value = "/{id}")
     @Operation(
             summary = "Fetch the task by id",
@@ -54,13 +205,19 @@ public class TaskController {
                     @ApiResponse(responseCode = "200", description = "successful operation",
                             content = @Content(schema = @Schema(implementation = TaskDetailResponse.class))
                     ),
+                    @ApiResponse(responseCode = "304", description = "The task did not change since the entity tag or the date sent", content = @Content),
                     @ApiResponse(responseCode = "404", description = "Task not found",
                             content = @Content(schema = @Schema(implementation = ErrorResponse.class))
                     )
             }
     )
-    public ResponseEntity<TaskDetailResponse> findById(@PathVariable Long id) throws EntityNotFoundException {
-        var task = taskService.findById(id);
+    public ResponseEntity<TaskDetailResponse> findById(@PathVariable Long id, NativeWebRequest request) throws EntityNotFoundException {
+        var stamp = taskService.getChangeStamp(id);
+        if (request.checkNotModified(responseVariants.eTag(request, stamp), stamp.lastModifiedMillis())) {
+            return null;
+        }
+
+        var task = taskService.findDetailById(id);
         return ResponseEntity.status(HttpStatus.OK).body(new TaskDetailResponse(task));
     }
 
@@ -82,6 +239,23 @@ public class TaskController {
         return ResponseEntity.status(HttpStatus.CREATED).body(new TaskResponse(task));
     }
 
+    @PostMapping(value = "/batch")
+    @Operation(
+            summary = "Create several tasks",
+            description = "Creates up to 1000 tasks in a single transaction. Each invalid task is rejected individually and the result of every task is returned in the order of the request.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Batch processed",
+                            content = @Content(schema = @Schema(implementation = TaskBatchResponse.class))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Empty or too large batch", content = @Content)
+            }
+    )
+    @StatementBudget(100)
+    public ResponseEntity<TaskBatchResponse> insertAll(@RequestBody @Valid TaskBatchRequest request) {
+        var items = this.taskService.saveAll(request.tasks());
+        return ResponseEntity.status(HttpStatus.OK).body(new TaskBatchResponse(items));
+    }
+
     @PutMapping(value = "/{id}")
     @Operation(
             summary = "Update a task by id",
@@ -0,0 +1,124 @@
+package com.github.rhafaelcosta.todolist.controllers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.github.rhafaelcosta.todolist.exceptions.EnumNotFoundException;
+import com.github.rhafaelcosta.todolist.imports.TaskImportFormat;
+import com.github.rhafaelcosta.todolist.imports.TaskImportRegistry;
+import com.github.rhafaelcosta.todolist.responses.ErrorResponse;
+import com.github.rhafaelcosta.todolist.responses.TaskImportResponse;
+import com.github.rhafaelcosta.todolist.services.TaskImportService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityNotFoundException;
+
+@RestController
+@RequestMapping("/tasks/imports")
+@Tag(name = "Task imports", description = "Endpoints for the Bulk Import of Tasks")
+public class TaskImportController {
+
+    private final TaskImportService taskImportService;
+    private final TaskImportRegistry importRegistry;
+
+    public TaskImportController(TaskImportService taskImportService, TaskImportRegistry importRegistry) {
+        this.taskImportService = taskImportService;
+        this.importRegistry = importRegistry;
+    }
+
+    @PostMapping(consumes = { "text/csv", "application/x-ndjson" })
+    @Operation(
+            summary = "Import tasks",
+            description = "Imports the tasks of a CSV file (with a header line naming the title, description, user_id, priority, severity_type, task_status_type, tag_ids separated by '|', create_at and update_at columns) or of a newline-delimited JSON file (one task request per line, optionally with createAt and updateAt), in a single transaction. The file is processed as it is uploaded, each invalid row is rejected individually and written to the rejected rows file of the import.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Import finished",
+                            content = @Content(schema = @Schema(implementation = TaskImportResponse.class))
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Unreadable file",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    public ResponseEntity<TaskImportResponse> importTasks(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) throws EnumNotFoundException, IOException {
+        var progress = taskImportService.importTasks(TaskImportFormat.getByMediaType(contentType), body);
+        return ResponseEntity.status(HttpStatus.OK).body(new TaskImportResponse(progress));
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Fetch the imports",
+            description = "fetches the progress of the running imports and of the last finished ones, the most recent first",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "successful operation",
+                            content = @Content(schema = @Schema(implementation = TaskImportResponse.class))
+                    )
+            }
+    )
+    public ResponseEntity<List<TaskImportResponse>> listAll() {
+        var imports = importRegistry.list().stream().map(TaskImportResponse::new).toList();
+        return ResponseEntity.status(HttpStatus.OK).body(imports);
+    }
+
+    @GetMapping(value = "/{id}")
+    @Operation(
+            summary = "Fetch the import by id",
+            description = "Fetches the progress of an import.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "successful operation",
+                            content = @Content(schema = @Schema(implementation = TaskImportResponse.class))
+                    ),
+                    @ApiResponse(responseCode = "404", description = "Import not found",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    public ResponseEntity<TaskImportResponse> findById(@PathVariable UUID id) throws EntityNotFoundException {
+        var progress = importRegistry.find(id)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Import not found with id: %s", id)));
+
+        return ResponseEntity.status(HttpStatus.OK).body(new TaskImportResponse(progress));
+    }
+
+    @GetMapping(value = "/{id}/rejected", produces = "text/csv")
+    @Operation(
+            summary = "Download the rejected rows of an import",
+            description = "Downloads a CSV file with the line, the reason and the source text of every rejected row of the import.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "successful operation", content = @Content(mediaType = "text/csv")),
+                    @ApiResponse(responseCode = "404", description = "Import not found",
+                            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    public ResponseEntity<Resource> findRejectedRows(@PathVariable UUID id) throws EntityNotFoundException {
+        var progress = importRegistry.find(id)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Import not found with id: %s", id)));
+        var disposition = ContentDisposition.attachment().filename(id + "-rejected.csv").build();
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(new FileSystemResource(progress.getRejectedFile()));
+    }
+
+}
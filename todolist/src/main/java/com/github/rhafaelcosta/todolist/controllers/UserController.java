@@ -1,9 +1,12 @@
 package com.github.rhafaelcosta.todolist.controllers;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,12 +15,21 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.github.rhafaelcosta.todolist.exceptions.EntityAlreadyExistsException;
+import com.github.rhafaelcosta.todolist.exceptions.InvalidCursorException;
+import com.github.rhafaelcosta.todolist.filters.UserFilter;
+import com.github.rhafaelcosta.todolist.formats.ResponseVariants;
 import com.github.rhafaelcosta.todolist.requests.UserRequest;
+import com.github.rhafaelcosta.todolist.responses.CursorPageResponse;
 import com.github.rhafaelcosta.todolist.responses.ErrorResponse;
 import com.github.rhafaelcosta.todolist.responses.UserResponse;
+import com.github.rhafaelcosta.todolist.responses.UserTaskStatsResponse;
+import com.github.rhafaelcosta.todolist.services.TaskStatsService;
 import com.github.rhafaelcosta.todolist.services.UserService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -34,32 +46,78 @@ import jakarta.validation.Valid;
 @Tag(name = "Users", description = "Endpoints for Managing Users")
 public class UserController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final UserService userService;
+    private final TaskStatsService taskStatsService;
+    private final ResponseVariants responseVariants;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, TaskStatsService taskStatsService, ResponseVariants responseVariants) {
         this.userService = userService;
+        this.taskStatsService = taskStatsService;
+        this.responseVariants = responseVariants;
     }
 
     @GetMapping
     @Operation(
         summary = "Fetch all users",
-        description = "fetches all users entities and their data from data source",
+        description = "fetches a page of the users, filtered by their active flag and by the start of their name or email (ignoring case). Unsorted pages are ordered by id.",
         responses = {
             @ApiResponse(responseCode = "200", description = "successful operation",
 			    content = @Content(schema = @Schema(implementation = UserResponse.class))
-		    )
+		    ),
+            @ApiResponse(responseCode = "304", description = "The users did not change since the entity tag sent in If-None-Match", content = @Content)
         }
     )
-    public ResponseEntity<List<UserResponse>> listAll() {
-        var users = this.userService
-                        .listAll()
-                        .stream()
-                        .map(UserResponse::new)
-                        .collect(Collectors.toList());
+    public ResponseEntity<Page<UserResponse>> listAll(@ParameterObject UserFilter filter, Pageable pageable, NativeWebRequest request) {
+        // The stamp covers every page of every filter, the pages themselves are told apart by their URL
+        if (request.checkNotModified(responseVariants.eTag(request, userService.getChangeStamp()))) {
+            return null;
+        }
 
+        var users = this.userService.getPaginatedUsersByFilter(filter, pageable);
         return ResponseEntity.status(HttpStatus.OK).body(users);
     }
 
+    @GetMapping(params = "cursor")
+    @Operation(
+        summary = "Fetch users using cursor pagination",
+        description = "fetches users using keyset pagination, sorted by id, name or email: send an empty cursor to get the first page and the returned nextCursor to get the following ones. The total of users is not counted.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "successful operation",
+                content = @Content(schema = @Schema(implementation = CursorPageResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or sort property",
+                content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+        }
+    )
+    public ResponseEntity<CursorPageResponse<UserResponse>> listByCursor(@ParameterObject UserFilter filter, @RequestParam String cursor, Pageable pageable) throws InvalidCursorException {
+        var users = this.userService.getUsersByCursor(filter, cursor, pageable);
+        return ResponseEntity.status(HttpStatus.OK).body(users);
+    }
+
+    @GetMapping(value = "/export")
+    @Operation(
+        summary = "Export users",
+        description = "streams every user matching the filters, ordered by id, as newline-delimited JSON. The users are written as they are read, so a full directory sync is not limited in size.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "successful operation",
+                content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = UserResponse.class))
+            )
+        }
+    )
+    public ResponseEntity<StreamingResponseBody> export(@ParameterObject UserFilter filter) {
+        var disposition = ContentDisposition.attachment().filename("users.ndjson").build();
+
+        StreamingResponseBody body = output -> userService.exportUsers(filter, output);
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+
     @GetMapping(value = "/{id}")
     @Operation(
         summary = "Fetch the user by id",
@@ -68,16 +126,40 @@ public class UserController {
             @ApiResponse(responseCode = "200", description = "successful operation",
                 content = @Content(schema = @Schema(implementation = UserResponse.class))
             ),
+            @ApiResponse(responseCode = "304", description = "The user did not change since the entity tag or the date sent", content = @Content),
             @ApiResponse(responseCode = "404", description = "User not found",
                 content = @Content(schema = @Schema(implementation = ErrorResponse.class))
             )
         }
     )
-    public ResponseEntity<UserResponse> findById(@PathVariable Long id) {
+    public ResponseEntity<UserResponse> findById(@PathVariable Long id, NativeWebRequest request) {
+        var stamp = this.userService.getChangeStamp(id);
+        if (request.checkNotModified(responseVariants.eTag(request, stamp), stamp.lastModifiedMillis())) {
+            return null;
+        }
+
         var user = this.userService.findById(id);
         return ResponseEntity.status(HttpStatus.OK).body(new UserResponse(user));
     }
 
+    @GetMapping(value = "/{id}/task-stats")
+    @Operation(
+        summary = "Fetch the task statistics of the user",
+        description = "Fetches the number of tasks of the user in total, per status, per severity and per status and severity. The numbers are kept up to date by the task writes, so they are not counted on each request.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "successful operation",
+                content = @Content(schema = @Schema(implementation = UserTaskStatsResponse.class))
+            ),
+            @ApiResponse(responseCode = "404", description = "User not found",
+                content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+        }
+    )
+    public ResponseEntity<UserTaskStatsResponse> findTaskStats(@PathVariable Long id) throws EntityNotFoundException {
+        var stats = this.taskStatsService.getUserTaskStats(id);
+        return ResponseEntity.status(HttpStatus.OK).body(stats);
+    }
+
     @PostMapping
     @Operation(
         summary = "Create a new user",
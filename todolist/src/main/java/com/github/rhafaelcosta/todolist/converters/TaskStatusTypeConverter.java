@@ -1,7 +1,6 @@
 package com.github.rhafaelcosta.todolist.converters;
 
 import com.github.rhafaelcosta.todolist.enums.TaskStatusType;
-import com.github.rhafaelcosta.todolist.exceptions.EnumNotFoundException;
 
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
@@ -20,15 +19,8 @@ public class TaskStatusTypeConverter implements AttributeConverter<TaskStatusTyp
 
     @Override
     public TaskStatusType convertToEntityAttribute(Integer value) {
-        try {
-            if (value == null) {
-                return null;
-            }
-
-            return TaskStatusType.getTaskStatusTypeByCode(value);
-        } catch (EnumNotFoundException e) {
-            return null;
-        }
+        // Unknown codes are read as null
+        return TaskStatusType.fromCode(value);
     }
 
 }
@@ -0,0 +1,24 @@
+package com.github.rhafaelcosta.todolist.converters;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import com.github.rhafaelcosta.todolist.filters.TaskTagMode;
+
+/**
+ * Binds the {@code tagMode} request parameter ignoring its case, so {@code any} and {@code all} are accepted.
+ * Unknown modes fail the binding of the request.
+ */
+@Component
+public class TaskTagModeConverter implements Converter<String, TaskTagMode> {
+
+    @Override
+    public TaskTagMode convert(String source) {
+        if (source.isBlank()) {
+            return null;
+        }
+
+        return TaskTagMode.valueOf(source.trim().toUpperCase());
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.github.rhafaelcosta.todolist.datasources;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Runs the annotated service method in a read-only transaction.
+ * <p>
+ * When replicas are configured, the connection of a read-only transaction is borrowed from a replica by the
+ * {@link ReplicaRoutingDataSource}, so only methods that never write may be annotated. Called from a read-write
+ * transaction, the method joins it and reads from the primary.
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+public @interface ReadOnlyTransactional {
+
+}
@@ -0,0 +1,85 @@
+package com.github.rhafaelcosta.todolist.datasources;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Remembers the clients that wrote recently, so that their reads are sent to the primary until the replicas
+ * have caught up with their writes.
+ * <p>
+ * A client is identified by the configured request header, or by its remote address when the header is missing.
+ * Reads made outside of a request, like the scheduled jobs, are never sticky.
+ */
+public class ReadYourWritesTracker {
+
+    private final String clientHeader;
+    private final long windowNanos;
+
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(String clientHeader, Duration window) {
+        this.clientHeader = clientHeader;
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Records a write of the current client once the current transaction commits.
+     */
+    public void recordWrite() {
+        var client = currentClient();
+        if (client == null || windowNanos <= 0) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lastWrites.put(client, System.nanoTime());
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWrites.put(client, System.nanoTime());
+            }
+        });
+    }
+
+    /**
+     * Returns whether the current client wrote within the window, and so must read from the primary.
+     */
+    public boolean isSticky() {
+        var client = currentClient();
+        if (client == null) {
+            return false;
+        }
+
+        var writtenAt = lastWrites.get(client);
+        return writtenAt != null && System.nanoTime() - writtenAt < windowNanos;
+    }
+
+    /**
+     * Forgets the clients whose last write is older than the window.
+     */
+    public void purge() {
+        var now = System.nanoTime();
+        lastWrites.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+    }
+
+    private String currentClient() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+
+        var request = attributes.getRequest();
+        var client = request.getHeader(clientHeader);
+
+        return client == null || client.isBlank() ? request.getRemoteAddr() : client;
+    }
+
+}
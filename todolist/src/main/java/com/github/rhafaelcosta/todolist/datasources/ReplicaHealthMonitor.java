@@ -0,0 +1,67 @@
+package com.github.rhafaelcosta.todolist.datasources;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.github.rhafaelcosta.todolist.datasources.ReplicaRoutingDataSource.Replica;
+
+/**
+ * Checks the replicas of a {@link ReplicaRoutingDataSource} periodically.
+ * <p>
+ * The lag query returns the replication lag in seconds. A replica is marked down when the query fails or the lag
+ * is over the maximum, so that its reads go to the other replicas or to the primary, and marked up again by the
+ * first check that succeeds within the maximum lag.
+ */
+public class ReplicaHealthMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaHealthMonitor.class);
+
+    private final ReplicaRoutingDataSource dataSource;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    public ReplicaHealthMonitor(ReplicaRoutingDataSource dataSource, String lagQuery, Duration maxLag) {
+        this.dataSource = dataSource;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    /**
+     * Checks every replica and forgets the clients that no longer need to read from the primary.
+     */
+    @Scheduled(fixedDelayString = "${todolist.datasource.replica.health-check-interval:PT5S}")
+    public void check() {
+        dataSource.getReplicas().forEach(this::check);
+        dataSource.getTracker().purge();
+    }
+
+    private void check(Replica replica) {
+        var wasUp = replica.isUp();
+
+        try (var connection = replica.getDataSource().getConnection();
+             var statement = connection.createStatement();
+             var result = statement.executeQuery(lagQuery)) {
+            result.next();
+            var lag = Duration.ofMillis(Math.round(result.getDouble(1) * 1000));
+
+            if (lag.compareTo(maxLag) > 0) {
+                replica.markDown(lag, String.format("Replication lag of %d ms is over %d ms", lag.toMillis(), maxLag.toMillis()));
+            } else {
+                replica.markUp(lag);
+            }
+        } catch (SQLException e) {
+            replica.markDown(e.getMessage());
+        }
+
+        if (wasUp && !replica.isUp()) {
+            LOGGER.warn("Replica {} is down: {}", replica.getName(), replica.getReason());
+        } else if (!wasUp && replica.isUp()) {
+            LOGGER.info("Replica {} is up, with a lag of {} ms", replica.getName(), replica.getLag().toMillis());
+        }
+    }
+
+}
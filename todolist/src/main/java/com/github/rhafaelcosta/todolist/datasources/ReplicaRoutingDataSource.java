@@ -0,0 +1,208 @@
+package com.github.rhafaelcosta.todolist.datasources;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@link DataSource} that sends the read-only transactions to the replicas and everything else to the primary.
+ * <p>
+ * The replicas are taken in turn, skipping the ones marked down by the {@link ReplicaHealthMonitor}, because they
+ * are unreachable or lag too far behind. A replica whose connection fails is marked down at once, and the
+ * transaction falls back to the primary, as it does when no replica is up or the client wrote recently
+ * (see {@link ReadYourWritesTracker}).
+ * <p>
+ * The connection is chosen when it is borrowed, so the data source must be wrapped in a
+ * {@link LazyConnectionDataSourceProxy}: the transaction manager opens the connection before the transaction is
+ * flagged as read-only, and the proxy only borrows it on the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    public static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final ReadYourWritesTracker tracker;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param primary the data source of the primary
+     * @param replicas the data sources of the replicas, by name
+     * @param tracker the tracker of the clients that must read from the primary
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReadYourWritesTracker tracker) {
+        this.primary = primary;
+        this.tracker = tracker;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+
+        var targets = new HashMap<Object, Object>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * Returns the data source of the primary.
+     */
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    /**
+     * Returns the replicas, in the order they are taken.
+     */
+    public List<Replica> getReplicas() {
+        return List.copyOf(replicas);
+    }
+
+    /**
+     * Returns the tracker of the clients that must read from the primary.
+     */
+    public ReadYourWritesTracker getTracker() {
+        return tracker;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        var replica = selectReplica();
+        return replica == null ? PRIMARY : replica.getName();
+    }
+
+    private Connection connect(ConnectionFactory factory) throws SQLException {
+        var replica = selectReplica();
+
+        if (replica != null) {
+            try {
+                return factory.connect(replica.getDataSource());
+            } catch (SQLException e) {
+                LOGGER.warn("Replica {} is unavailable, reading from the primary: {}", replica.getName(), e.getMessage());
+                replica.markDown(e.getMessage());
+            }
+        } else if (isReadWriteTransaction()) {
+            tracker.recordWrite();
+        }
+
+        return factory.connect(primary);
+    }
+
+    /**
+     * Returns the next replica that is up, or null when the current transaction must use the primary.
+     */
+    private Replica selectReplica() {
+        if (replicas.isEmpty()
+                || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || tracker.isSticky()) {
+            return null;
+        }
+
+        var start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (var i = 0; i < replicas.size(); i++) {
+            var replica = replicas.get((start + i) % replicas.size());
+            if (replica.isUp()) {
+                return replica;
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean isReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    @FunctionalInterface
+    private interface ConnectionFactory {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    /**
+     * A replica and its last known state.
+     */
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+
+        private volatile boolean up = true;
+        private volatile Duration lag = Duration.ZERO;
+        private volatile String reason;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+
+        public boolean isUp() {
+            return up;
+        }
+
+        /**
+         * Returns the replication lag measured by the last health check.
+         */
+        public Duration getLag() {
+            return lag;
+        }
+
+        /**
+         * Returns why the replica is down, or null when it is up.
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        void markUp(Duration lag) {
+            this.lag = lag;
+            this.reason = null;
+            this.up = true;
+        }
+
+        void markDown(String reason) {
+            markDown(lag, reason);
+        }
+
+        void markDown(Duration lag, String reason) {
+            this.lag = lag;
+            this.reason = reason;
+            this.up = false;
+        }
+
+    }
+
+}
@@ -1,7 +1,5 @@
 package com.github.rhafaelcosta.todolist.enums;
 
-import java.util.Arrays;
-
 import com.github.rhafaelcosta.todolist.exceptions.EnumNotFoundException;
 
 public enum SeverityType {
@@ -11,6 +9,20 @@ public enum SeverityType {
     MEDIUM   (3, "Medium"),
     LOW      (4, "Low");
 
+    private static final SeverityType[] BY_CODE;
+
+    static {
+        var maxCode = 0;
+        for (var type : values()) {
+            maxCode = Math.max(maxCode, type.code);
+        }
+
+        BY_CODE = new SeverityType[maxCode + 1];
+        for (var type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
     private final Integer code;
     private final String description;
 
@@ -28,10 +40,25 @@ public enum SeverityType {
     }
 
     public static SeverityType getSeverityTypeByCode(Integer code) throws EnumNotFoundException {
-        return Arrays.stream(SeverityType.values())
-                     .filter(status -> status.code.equals(code))
-                     .findFirst()
-                     .orElseThrow( () -> new EnumNotFoundException("Invalid SeverityType code: " + code));
+        var type = fromCode(code);
+        if (type == null) {
+            throw new EnumNotFoundException("Invalid SeverityType code: " + code);
+        }
+
+        return type;
+    }
+
+    /**
+     * Returns the constant with the given code, or {@code null} if there is none.
+     * <p>
+     * The lookup is a direct access to an array indexed by the code, it runs for every row read from the database.
+     */
+    public static SeverityType fromCode(Integer code) {
+        if (code == null || code < 0 || code >= BY_CODE.length) {
+            return null;
+        }
+
+        return BY_CODE[code];
     }
 
 }
@@ -1,7 +1,5 @@
 package com.github.rhafaelcosta.todolist.enums;
 
-import java.util.Arrays;
-
 import com.github.rhafaelcosta.todolist.exceptions.EnumNotFoundException;
 
 public enum TaskStatusType {
@@ -11,6 +9,20 @@ public enum TaskStatusType {
     PROPOSED (3, "Proposed"),
     RESOLVED (4, "Resolved");
 
+    private static final TaskStatusType[] BY_CODE;
+
+    static {
+        var maxCode = 0;
+        for (var type : values()) {
+            maxCode = Math.max(maxCode, type.code);
+        }
+
+        BY_CODE = new TaskStatusType[maxCode + 1];
+        for (var type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
     private final Integer code;
     private final String description;
 
@@ -28,9 +40,24 @@ public enum TaskStatusType {
     }
 
     public static TaskStatusType getTaskStatusTypeByCode(Integer code) throws EnumNotFoundException {
-        return Arrays.stream(TaskStatusType.values())
-                     .filter(status -> status.code.equals(code))
-                     .findFirst()
-                     .orElseThrow( () -> new EnumNotFoundException("Invalid TaskStatusType code: " + code));
+        var type = fromCode(code);
+        if (type == null) {
+            throw new EnumNotFoundException("Invalid TaskStatusType code: " + code);
+        }
+
+        return type;
+    }
+
+    /**
+     * Returns the constant with the given code, or {@code null} if there is none.
+     * <p>
+     * The lookup is a direct access to an array indexed by the code, it runs for every row read from the database.
+     */
+    public static TaskStatusType fromCode(Integer code) {
+        if (code == null || code < 0 || code >= BY_CODE.length) {
+            return null;
+        }
+
+        return BY_CODE[code];
     }
 }
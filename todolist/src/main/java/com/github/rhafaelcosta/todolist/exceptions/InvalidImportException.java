@@ -0,0 +1,14 @@
+package com.github.rhafaelcosta.todolist.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Thrown when an import file cannot be read at all, as opposed to the rows that are rejected individually.
+ */
+public class InvalidImportException extends IOException {
+
+    public InvalidImportException(String message) {
+        super(message);
+    }
+
+}
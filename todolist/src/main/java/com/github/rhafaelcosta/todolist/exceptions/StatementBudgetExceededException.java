@@ -0,0 +1,12 @@
+package com.github.rhafaelcosta.todolist.exceptions;
+
+/**
+ * Thrown when a request prepares more SQL statements than its budget allows and the budget is enforced.
+ */
+public class StatementBudgetExceededException extends RuntimeException {
+
+    public StatementBudgetExceededException(String message) {
+        super(message);
+    }
+
+}
@@ -13,6 +13,8 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 
 import com.github.rhafaelcosta.todolist.exceptions.EntityAlreadyExistsException;
 import com.github.rhafaelcosta.todolist.exceptions.EnumNotFoundException;
+import com.github.rhafaelcosta.todolist.exceptions.InvalidCursorException;
+import com.github.rhafaelcosta.todolist.exceptions.InvalidImportException;
 import com.github.rhafaelcosta.todolist.responses.ErrorResponse;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -60,4 +62,28 @@ public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
 		return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Handles InvalidCursorException and returns a 400 Bad Request response.
+	 * @param ex
+	 * @param request
+	 * @return
+	 */
+    @ExceptionHandler(InvalidCursorException.class)
+	public final ResponseEntity<ErrorResponse> handleInvalidCursorExceptions(Exception ex, WebRequest request) {
+		var response = new ErrorResponse(LocalDateTime.now(), ex.getMessage(), request.getDescription(false));
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+	}
+
+	/**
+	 * Handles InvalidImportException and returns a 400 Bad Request response.
+	 * @param ex
+	 * @param request
+	 * @return
+	 */
+    @ExceptionHandler(InvalidImportException.class)
+	public final ResponseEntity<ErrorResponse> handleInvalidImportExceptions(Exception ex, WebRequest request) {
+		var response = new ErrorResponse(LocalDateTime.now(), ex.getMessage(), request.getDescription(false));
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+	}
+
+}
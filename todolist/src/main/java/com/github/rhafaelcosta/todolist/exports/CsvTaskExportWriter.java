@@ -0,0 +1,104 @@
+package com.github.rhafaelcosta.todolist.exports;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.github.rhafaelcosta.todolist.models.Task;
+
+/**
+ * Writes the tasks as CSV (RFC 4180), with a header line and one line per task.
+ * <p>
+ * The owner is flattened to its ID and name, the severity and status to their codes.
+ */
+class CsvTaskExportWriter implements TaskExportWriter {
+
+    private static final String HEADER = "id,title,description,user_id,user_name,priority,severity_type,task_status_type,create_at,update_at";
+
+    private final Writer writer;
+    private boolean headerWritten;
+
+    CsvTaskExportWriter(OutputStream output) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void write(Task task) throws IOException {
+        writeHeader();
+
+        writer.write(String.valueOf(task.getId()));
+        writer.write(',');
+        writeText(task.getTitle());
+        writer.write(',');
+        writeText(task.getDescription());
+        writer.write(',');
+        writer.write(String.valueOf(task.getOwner().getId()));
+        writer.write(',');
+        writeText(task.getOwner().getName());
+        writer.write(',');
+        writeValue(task.getPriority());
+        writer.write(',');
+        writeValue(task.getSeverityType() != null ? task.getSeverityType().getCode() : null);
+        writer.write(',');
+        writeValue(task.getTaskStatusType() != null ? task.getTaskStatusType().getCode() : null);
+        writer.write(',');
+        writeValue(task.getCreateAt());
+        writer.write(',');
+        writeValue(task.getUpdateAt());
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // An empty export still has its header
+        writeHeader();
+        writer.flush();
+    }
+
+    private void writeHeader() throws IOException {
+        if (!headerWritten) {
+            writer.write(HEADER);
+            writer.write("\r\n");
+            headerWritten = true;
+        }
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value != null) {
+            writer.write(value.toString());
+        }
+    }
+
+    /**
+     * Writes a text field, quoted only when it contains a separator, a quote or a line break.
+     */
+    private void writeText(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+
+        var quoted = false;
+        for (int i = 0; i < value.length() && !quoted; i++) {
+            var c = value.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!quoted) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.github.rhafaelcosta.todolist.exports;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.rhafaelcosta.todolist.models.Task;
+import com.github.rhafaelcosta.todolist.responses.TaskResponse;
+
+/**
+ * Writes each task as a {@link TaskResponse} on its own line (newline-delimited JSON).
+ */
+class NdjsonTaskExportWriter implements TaskExportWriter {
+
+    private final JsonGenerator generator;
+
+    NdjsonTaskExportWriter(OutputStream output, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(output, JsonEncoding.UTF8);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // The lines are separated by the newline written after each task, not by the default space
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(Task task) throws IOException {
+        generator.writeObject(new TaskResponse(task));
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.github.rhafaelcosta.todolist.exports;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.rhafaelcosta.todolist.exceptions.EnumNotFoundException;
+
+/**
+ * Formats of the task export.
+ */
+public enum TaskExportFormat {
+
+    NDJSON ("ndjson", MediaType.parseMediaType("application/x-ndjson")) {
+        @Override
+        public TaskExportWriter newWriter(OutputStream output, ObjectMapper objectMapper) throws IOException {
+            return new NdjsonTaskExportWriter(output, objectMapper);
+        }
+    },
+    CSV    ("csv", MediaType.parseMediaType("text/csv;charset=UTF-8")) {
+        @Override
+        public TaskExportWriter newWriter(OutputStream output, ObjectMapper objectMapper) {
+            return new CsvTaskExportWriter(output);
+        }
+    };
+
+    private final String code;
+    private final MediaType mediaType;
+
+    TaskExportFormat(String code, MediaType mediaType) {
+        this.code = code;
+        this.mediaType = mediaType;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Creates a writer of the tasks in this format to the given output, which is not closed by the writer.
+     */
+    public abstract TaskExportWriter newWriter(OutputStream output, ObjectMapper objectMapper) throws IOException;
+
+    public static TaskExportFormat getByCode(String code) throws EnumNotFoundException {
+        for (var format : values()) {
+            if (format.code.equalsIgnoreCase(code)) {
+                return format;
+            }
+        }
+
+        throw new EnumNotFoundException("Invalid export format: " + code);
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.github.rhafaelcosta.todolist.exports;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+import com.github.rhafaelcosta.todolist.models.Task;
+
+/**
+ * Writes the exported tasks one at a time, so no more than the current row is kept in memory.
+ * <p>
+ * Closing the writer flushes the rows still buffered but does not close the underlying output.
+ */
+public interface TaskExportWriter extends Closeable, Flushable {
+
+    /**
+     * Writes a task, with its owner already loaded.
+     */
+    void write(Task task) throws IOException;
+
+}
@@ -0,0 +1,96 @@
+package com.github.rhafaelcosta.todolist.filters;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Sort;
+
+import com.github.rhafaelcosta.todolist.exceptions.InvalidCursorException;
+import com.github.rhafaelcosta.todolist.models.Task;
+
+/**
+ * Position of the last task returned by a keyset page.
+ * <p>
+ * The cursor stores the sort property, its direction, the value of that property on the last row and
+ * the row id used as tie-breaker. It is exchanged with clients as an opaque URL-safe Base64 token.
+ */
+public record TaskCursor(String property, Sort.Direction direction, Comparable<?> value, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Non-nullable task properties that can drive keyset pagination, with the parser of their encoded value.
+     */
+    private static final Map<String, Function<String, Comparable<?>>> SORTABLE_PROPERTIES = Map.of(
+            "id", Long::valueOf,
+            "createAt", LocalDateTime::parse,
+            "priority", Integer::valueOf,
+            "title", value -> value);
+
+    /**
+     * Checks if the given task property can be used to sort a keyset page.
+     *
+     * @param property the name of the task property
+     * @return {@code true} if the property is supported by the cursor pagination mode
+     */
+    public static boolean isSortable(String property) {
+        return SORTABLE_PROPERTIES.containsKey(property);
+    }
+
+    /**
+     * Creates the cursor pointing at the given task.
+     *
+     * @param property  the sort property of the page
+     * @param direction the sort direction of the page
+     * @param task      the last task returned in the page
+     * @return the {@link TaskCursor} positioned after the task
+     */
+    public static TaskCursor of(String property, Sort.Direction direction, Task task) {
+        Comparable<?> value = switch (property) {
+            case "createAt" -> task.getCreateAt();
+            case "priority" -> task.getPriority();
+            case "title" -> task.getTitle();
+            default -> task.getId();
+        };
+
+        return new TaskCursor(property, direction, value, task.getId());
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     *
+     * @param token the opaque cursor token
+     * @return the decoded {@link TaskCursor}
+     * @throws InvalidCursorException if the token is malformed or refers to an unsupported sort property
+     */
+    public static TaskCursor decode(String token) throws InvalidCursorException {
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // The value goes last because it is the only part that may contain the separator
+            var parts = decoded.split("\\" + SEPARATOR, 4);
+
+            if (parts.length != 4 || !isSortable(parts[0])) {
+                throw new InvalidCursorException(String.format("Invalid cursor: %s", token));
+            }
+
+            var value = SORTABLE_PROPERTIES.get(parts[0]).apply(parts[3]);
+            return new TaskCursor(parts[0], Sort.Direction.fromString(parts[1]), value, Long.valueOf(parts[2]));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(String.format("Invalid cursor: %s", token), e);
+        }
+    }
+
+    /**
+     * Encodes this cursor as an opaque URL-safe token.
+     *
+     * @return the encoded token
+     */
+    public String encode() {
+        var raw = String.join(SEPARATOR, property, direction.name(), String.valueOf(id), String.valueOf(value));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.github.rhafaelcosta.todolist.filters;
+
+import com.github.rhafaelcosta.todolist.exceptions.EnumNotFoundException;
+
+/**
+ * Columns of a task that can be selected by a sparse listing, named after the properties of the task.
+ */
+public enum TaskField {
+
+    ID               ("id"),
+    TITLE            ("title"),
+    DESCRIPTION      ("description"),
+    PRIORITY         ("priority"),
+    SEVERITY_TYPE    ("severityType"),
+    TASK_STATUS_TYPE ("taskStatusType");
+
+    private final String property;
+
+    TaskField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public static TaskField getByProperty(String property) throws EnumNotFoundException {
+        for (var field : values()) {
+            if (field.property.equalsIgnoreCase(property)) {
+                return field;
+            }
+        }
+
+        throw new EnumNotFoundException("Invalid task field: " + property);
+    }
+
+}
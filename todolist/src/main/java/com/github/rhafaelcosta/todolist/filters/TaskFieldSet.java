@@ -0,0 +1,73 @@
+package com.github.rhafaelcosta.todolist.filters;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.github.rhafaelcosta.todolist.exceptions.EnumNotFoundException;
+
+/**
+ * Parts of the tasks returned by a sparse listing: the selected columns, always including the id, and the expanded
+ * associations, the owner and the tags.
+ * <p>
+ * When normalized, each task references its owner by id and the expanded owners are returned once, apart from the
+ * tasks.
+ */
+public record TaskFieldSet(Set<TaskField> fields, boolean user, boolean tags, boolean normalized) {
+
+    /**
+     * Parses the {@code fields} and {@code expand} parameters of a listing.
+     *
+     * @param fields     the names of the selected task properties
+     * @param expand     the associations to expand, {@code user} and {@code tags}, or null for none
+     * @param normalized whether the owners are returned apart from the tasks
+     * @return the {@link TaskFieldSet} of the listing
+     * @throws EnumNotFoundException if a field or an association is unknown
+     */
+    public static TaskFieldSet of(Collection<String> fields, Collection<String> expand, boolean normalized) throws EnumNotFoundException {
+        var selected = EnumSet.of(TaskField.ID);
+        for (var field : fields) {
+            selected.add(TaskField.getByProperty(field.trim()));
+        }
+
+        var user = false;
+        var tags = false;
+        if (expand != null) {
+            for (var association : expand) {
+                switch (association.trim().toLowerCase()) {
+                    case "user" -> user = true;
+                    case "tags" -> tags = true;
+                    default -> throw new EnumNotFoundException("Invalid task association: " + association);
+                }
+            }
+        }
+
+        return new TaskFieldSet(selected, user, tags, normalized && user);
+    }
+
+    public boolean has(TaskField field) {
+        return fields.contains(field);
+    }
+
+    /**
+     * Returns the selected fields and associations in a canonical form, the same whatever the order they were listed
+     * in, to tell the representations of the listing apart.
+     */
+    public String variant() {
+        var variant = new StringBuilder();
+        fields.stream().sorted().forEach(field -> variant.append(variant.isEmpty() ? "" : ".").append(field.getProperty()));
+
+        if (user) {
+            variant.append("+user");
+        }
+        if (tags) {
+            variant.append("+tags");
+        }
+        if (normalized) {
+            variant.append("+normalized");
+        }
+
+        return variant.toString();
+    }
+
+}
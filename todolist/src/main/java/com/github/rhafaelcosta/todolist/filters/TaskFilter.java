@@ -1,5 +1,27 @@
 package com.github.rhafaelcosta.todolist.filters;
 
-public record TaskFilter (Long userId, Long severityTypeCode, Long taskStatusTypeCode) {
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * Filtering criteria of the task listing. Null fields are not applied.
+ * <p>
+ * The date ranges are inclusive and the title matches any task whose title contains the given text, ignoring case.
+ * The tags match the tasks with any of them, or with all of them when {@code tagMode} is {@link TaskTagMode#ALL}.
+ */
+public record TaskFilter (
+    Long userId,
+    Long severityTypeCode,
+    Long taskStatusTypeCode,
+    String title,
+    Integer priority,
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedFrom,
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedTo,
+    List<Long> tagIds,
+    TaskTagMode tagMode) {
 
 }
@@ -0,0 +1,11 @@
+package com.github.rhafaelcosta.todolist.filters;
+
+/**
+ * How the tags of the {@link TaskFilter} are matched: tasks with any of them, or with all of them.
+ */
+public enum TaskTagMode {
+
+    ANY,
+    ALL
+
+}
@@ -0,0 +1,89 @@
+package com.github.rhafaelcosta.todolist.filters;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+import org.springframework.data.domain.Sort;
+
+import com.github.rhafaelcosta.todolist.exceptions.InvalidCursorException;
+import com.github.rhafaelcosta.todolist.models.User;
+
+/**
+ * Position of the last user returned by a keyset page.
+ * <p>
+ * Like the {@link TaskCursor}, it stores the sort property, its direction, the value of that property on the
+ * last row and the row id used as tie-breaker, exchanged with clients as an opaque URL-safe Base64 token.
+ */
+public record UserCursor(String property, Sort.Direction direction, Comparable<?> value, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Non-nullable user properties that can drive keyset pagination.
+     */
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "name", "email");
+
+    /**
+     * Checks if the given user property can be used to sort a keyset page.
+     *
+     * @param property the name of the user property
+     * @return {@code true} if the property is supported by the cursor pagination mode
+     */
+    public static boolean isSortable(String property) {
+        return SORTABLE_PROPERTIES.contains(property);
+    }
+
+    /**
+     * Creates the cursor pointing at the given user.
+     *
+     * @param property  the sort property of the page
+     * @param direction the sort direction of the page
+     * @param user      the last user returned in the page
+     * @return the {@link UserCursor} positioned after the user
+     */
+    public static UserCursor of(String property, Sort.Direction direction, User user) {
+        Comparable<?> value = switch (property) {
+            case "name" -> user.getName();
+            case "email" -> user.getEmail();
+            default -> user.getId();
+        };
+
+        return new UserCursor(property, direction, value, user.getId());
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     *
+     * @param token the opaque cursor token
+     * @return the decoded {@link UserCursor}
+     * @throws InvalidCursorException if the token is malformed or refers to an unsupported sort property
+     */
+    public static UserCursor decode(String token) throws InvalidCursorException {
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // The value goes last because it is the only part that may contain the separator
+            var parts = decoded.split("\\" + SEPARATOR, 4);
+
+            if (parts.length != 4 || !isSortable(parts[0])) {
+                throw new InvalidCursorException(String.format("Invalid cursor: %s", token));
+            }
+
+            Comparable<?> value = "id".equals(parts[0]) ? Long.valueOf(parts[3]) : parts[3];
+            return new UserCursor(parts[0], Sort.Direction.fromString(parts[1]), value, Long.valueOf(parts[2]));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(String.format("Invalid cursor: %s", token), e);
+        }
+    }
+
+    /**
+     * Encodes this cursor as an opaque URL-safe token.
+     *
+     * @return the encoded token
+     */
+    public String encode() {
+        var raw = String.join(SEPARATOR, property, direction.name(), String.valueOf(id), String.valueOf(value));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.github.rhafaelcosta.todolist.filters;
+
+/**
+ * Filtering criteria of the user listing. Null fields are not applied.
+ * <p>
+ * The name and the email match the users whose name or email starts with the given text, ignoring case.
+ */
+public record UserFilter(Boolean active, String name, String email) {
+
+}
@@ -0,0 +1,163 @@
+package com.github.rhafaelcosta.todolist.formats;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.util.StreamUtils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.protobuf.schema.NativeProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import com.github.rhafaelcosta.todolist.responses.CursorPageResponse;
+import com.github.rhafaelcosta.todolist.responses.ErrorResponse;
+import com.github.rhafaelcosta.todolist.responses.TagResponse;
+import com.github.rhafaelcosta.todolist.responses.TaskDetailResponse;
+import com.github.rhafaelcosta.todolist.responses.TaskResponse;
+import com.github.rhafaelcosta.todolist.responses.UserResponse;
+
+/**
+ * Writes the responses as protobuf messages, with the same response records as JSON.
+ * <p>
+ * The messages are declared in {@value #SCHEMA}, whose field numbers stay stable as the records change, instead of
+ * being generated from the records. Only the response types mapped to a message can be written, the properties of
+ * a response missing from its message are skipped.
+ */
+public class ProtobufJacksonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType PROTOBUF = MediaType.parseMediaType("application/x-protobuf");
+
+    private static final String SCHEMA = "proto/responses.proto";
+
+    private final ObjectMapper mapper;
+    private final Map<ResolvableType, ProtobufSchema> schemas = new LinkedHashMap<>();
+    private final Map<ProtobufSchema, ObjectWriter> writers = new IdentityHashMap<>();
+
+    /**
+     * @param mapper a mapper created with a {@code ProtobufFactory}
+     */
+    public ProtobufJacksonHttpMessageConverter(ObjectMapper mapper) {
+        super(PROTOBUF);
+        this.mapper = mapper;
+
+        NativeProtobufSchema messages;
+        try (var input = new ClassPathResource(SCHEMA).getInputStream()) {
+            messages = ProtobufSchemaLoader.std.loadNative(input, false);
+        } catch (IOException e) {
+            throw new IllegalStateException("Protobuf schema not readable: " + SCHEMA, e);
+        }
+
+        map(ResolvableType.forClass(TaskResponse.class), messages.forType("TaskResponse"));
+        // The details of a task have the same fields as the task
+        map(ResolvableType.forClass(TaskDetailResponse.class), messages.forType("TaskResponse"));
+        map(ResolvableType.forClass(UserResponse.class), messages.forType("UserResponse"));
+        map(ResolvableType.forClass(TagResponse.class), messages.forType("TagResponse"));
+        map(ResolvableType.forClass(ErrorResponse.class), messages.forType("ErrorResponse"));
+        map(ResolvableType.forClassWithGenerics(Slice.class, TaskResponse.class), messages.forType("TaskPage"));
+        map(ResolvableType.forClassWithGenerics(Page.class, UserResponse.class), messages.forType("UserPage"));
+        map(ResolvableType.forClassWithGenerics(Page.class, TagResponse.class), messages.forType("TagPage"));
+        map(ResolvableType.forClassWithGenerics(CursorPageResponse.class, TaskResponse.class), messages.forType("TaskCursorPage"));
+        map(ResolvableType.forClassWithGenerics(CursorPageResponse.class, UserResponse.class), messages.forType("UserCursorPage"));
+    }
+
+    private void map(ResolvableType type, ProtobufSchema schema) {
+        schemas.put(type, schema);
+        writers.computeIfAbsent(schema, key -> mapper.writer(key).with(JsonGenerator.Feature.IGNORE_UNKNOWN));
+    }
+
+    /**
+     * Returns the message of the type, or null if it has none, to read the responses back. The generic type of the
+     * body, as declared by the handler method, is needed to tell apart the pages of different responses.
+     */
+    public ProtobufSchema findSchema(Type type, Class<?> clazz) {
+        var resolved = type != null ? ResolvableType.forType(type) : ResolvableType.forClass(clazz);
+        for (var entry : schemas.entrySet()) {
+            if (entry.getKey().isAssignableFrom(resolved)) {
+                return entry.getValue();
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return canWrite(mediaType) && findSchema(type, clazz) != null;
+    }
+
+    /**
+     * The generic type of the pages was already checked by {@link #canWrite(Type, Class, MediaType)}, their class
+     * alone does not tell whether they have a message.
+     */
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return getSupportedMediaTypes();
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return findSchema(null, clazz) != null;
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException, HttpMessageNotWritableException {
+        var schema = findSchema(type, value.getClass());
+        if (schema == null) {
+            throw new HttpMessageNotWritableException("No protobuf message for " + (type != null ? type : value.getClass()));
+        }
+
+        // The pages are written with the fields of their message only, their nested pageable and sort are skipped
+        var message = value instanceof Slice<?> slice ? SliceMessage.of(slice) : value;
+
+        writers.get(schema).writeValue(StreamUtils.nonClosing(outputMessage.getBody()), message);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException, HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("Protobuf requests are not supported", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException, HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("Protobuf requests are not supported", inputMessage);
+    }
+
+    private record SliceMessage(List<?> content, Long totalElements, Integer totalPages, int number, int size,
+                                int numberOfElements, boolean first, boolean last, boolean empty) {
+
+        static SliceMessage of(Slice<?> slice) {
+            var page = slice instanceof Page<?> p ? p : null;
+
+            return new SliceMessage(slice.getContent(), page != null ? page.getTotalElements() : null, page != null ? page.getTotalPages() : null,
+                    slice.getNumber(), slice.getSize(), slice.getNumberOfElements(), slice.isFirst(), slice.isLast(), slice.isEmpty());
+        }
+
+    }
+
+}
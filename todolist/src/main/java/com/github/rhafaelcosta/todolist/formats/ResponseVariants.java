@@ -0,0 +1,146 @@
+package com.github.rhafaelcosta.todolist.formats;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import com.github.rhafaelcosta.todolist.repositories.projections.ChangeStamp;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Entity tags of the representations of a resource, told apart by the format negotiated from the Accept header and
+ * by the parts of the resource the request selects.
+ * <p>
+ * The format is negotiated before the body is read, so the unchanged representations can be answered without it.
+ * It is the one Spring MVC writes the body in: the first of the accepted types, by specificity and quality, that a
+ * converter of the handler return type produces. As the URL does not tell the formats apart, the responses vary
+ * with the Accept header.
+ */
+@Component
+public class ResponseVariants {
+
+    private final ObjectProvider<ContentNegotiationManager> contentNegotiationManager;
+    private final ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter;
+    private final Map<Method, List<MediaType>> producibleTypes = new ConcurrentHashMap<>();
+
+    /**
+     * The beans of Spring MVC are looked up on the first request, the application may run without it.
+     */
+    public ResponseVariants(@Qualifier("mvcContentNegotiationManager") ObjectProvider<ContentNegotiationManager> contentNegotiationManager,
+                            ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter) {
+        this.contentNegotiationManager = contentNegotiationManager;
+        this.handlerAdapter = handlerAdapter;
+    }
+
+    /**
+     * Returns the entity tag of the whole resource in the negotiated format, without the quotes.
+     *
+     * @param request the request of the representation
+     * @param stamp   the stamp of the rows the representation renders
+     */
+    public String eTag(NativeWebRequest request, ChangeStamp stamp) {
+        return eTag(request, stamp, null);
+    }
+
+    /**
+     * Returns the entity tag of the selected parts of the resource in the negotiated format, without the quotes, and
+     * declares that the response varies with the Accept header.
+     *
+     * @param request the request of the representation
+     * @param stamp   the stamp of the rows the representation renders
+     * @param parts   the canonical form of the selected parts, or null for the whole resource
+     */
+    public String eTag(NativeWebRequest request, ChangeStamp stamp, String parts) {
+        var response = request.getNativeResponse(HttpServletResponse.class);
+        if (response != null && !response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT)) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+
+        var format = negotiate(request).getSubtype();
+        return stamp.eTag(parts == null ? format : format + "." + parts);
+    }
+
+    /**
+     * Negotiates the format as {@code AbstractMessageConverterMethodProcessor} does, JSON standing for the formats
+     * it leaves to the converters and for the requests it rejects.
+     */
+    private MediaType negotiate(NativeWebRequest request) {
+        List<MediaType> acceptable;
+        try {
+            acceptable = contentNegotiationManager.getObject().resolveMediaTypes(request);
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+
+        var compatible = new ArrayList<MediaType>();
+        for (var accepted : acceptable) {
+            for (var producible : producibleTypes(request)) {
+                if (accepted.isCompatibleWith(producible)) {
+                    var produced = producible.copyQualityValue(accepted);
+                    compatible.add(accepted.isLessSpecific(produced) ? produced : accepted);
+                }
+            }
+        }
+        MimeTypeUtils.sortBySpecificity(compatible);
+
+        for (var type : compatible) {
+            if (type.isConcrete()) {
+                return type;
+            }
+        }
+
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private List<MediaType> producibleTypes(NativeWebRequest request) {
+        var handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (!(handler instanceof HandlerMethod method)) {
+            return List.of(MediaType.APPLICATION_JSON);
+        }
+
+        return producibleTypes.computeIfAbsent(method.getMethod(), key -> producibleTypes(method.getReturnType()));
+    }
+
+    private List<MediaType> producibleTypes(MethodParameter returnType) {
+        // The handlers return a response entity of the body, whose declared type tells the pages apart
+        var body = ResolvableType.forMethodParameter(returnType);
+        if (HttpEntity.class.isAssignableFrom(returnType.getParameterType())) {
+            body = body.getGeneric();
+        }
+        var bodyClass = body.toClass();
+
+        var types = new ArrayList<MediaType>();
+        for (var converter : handlerAdapter.getObject().getMessageConverters()) {
+            var writable = converter instanceof GenericHttpMessageConverter<?> generic
+                    ? generic.canWrite(body.getType(), bodyClass, null)
+                    : converter.canWrite(bodyClass, null);
+            if (writable) {
+                types.addAll(converter.getSupportedMediaTypes(bodyClass));
+            }
+        }
+
+        return types;
+    }
+
+}
@@ -0,0 +1,203 @@
+package com.github.rhafaelcosta.todolist.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.github.rhafaelcosta.todolist.exceptions.InvalidImportException;
+import com.github.rhafaelcosta.todolist.requests.TaskRequest;
+import com.github.rhafaelcosta.todolist.responses.TagResponse;
+
+/**
+ * Reads the tasks of a CSV file (RFC 4180) whose first line names the columns.
+ * <p>
+ * The {@code title}, {@code user_id}, {@code priority}, {@code severity_type} and {@code task_status_type} columns
+ * are required, {@code description}, {@code tag_ids} (separated by {@code |}), {@code create_at} and
+ * {@code update_at} are optional and any other column is ignored, so a file of the task export can be imported.
+ */
+class CsvTaskImportReader implements TaskImportReader {
+
+    static final String TAG_SEPARATOR = "|";
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("title", "user_id", "priority", "severity_type", "task_status_type");
+
+    private final BufferedReader reader;
+    private final StringBuilder source = new StringBuilder();
+    private final List<String> fields = new ArrayList<>();
+    private Map<String, Integer> columns;
+    private long line = 1;
+
+    CsvTaskImportReader(InputStream input) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public TaskImportRow next() throws IOException {
+        if (columns == null) {
+            readHeader();
+        }
+
+        long start;
+        do {
+            start = line;
+            if (!readRecord()) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isEmpty());
+
+        var text = source.toString();
+        if (fields.size() != columns.size()) {
+            return TaskImportRow.rejected(start, text, String.format("Expected %d columns but found %d", columns.size(), fields.size()));
+        }
+
+        try {
+            var tags = parseTags(field("tag_ids"));
+            var request = new TaskRequest(field("title"), field("description"), parseLong("user_id"), parseInteger("priority"),
+                    parseInteger("severity_type"), parseInteger("task_status_type"), tags);
+
+            return TaskImportRow.parsed(start, text, request, parseDate("create_at"), parseDate("update_at"));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return TaskImportRow.rejected(start, text, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        // The input belongs to the caller
+    }
+
+    private void readHeader() throws IOException {
+        columns = new HashMap<>();
+        if (readRecord()) {
+            for (int i = 0; i < fields.size(); i++) {
+                // Some spreadsheets start the file with a byte order mark
+                columns.put(fields.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        var missing = REQUIRED_COLUMNS.stream().filter(c -> !columns.containsKey(c)).toList();
+        if (!missing.isEmpty()) {
+            throw new InvalidImportException("Missing CSV columns: " + String.join(", ", missing));
+        }
+    }
+
+    /**
+     * Reads the fields of the next record, which spans several lines when a quoted field contains line breaks.
+     *
+     * @return false at the end of the file
+     */
+    private boolean readRecord() throws IOException {
+        fields.clear();
+        source.setLength(0);
+
+        var field = new StringBuilder();
+        var quoted = false;
+        var read = false;
+        int c;
+
+        while ((c = reader.read()) != -1) {
+            read = true;
+
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                        source.append("\"\"");
+                        continue;
+                    }
+                    reader.reset();
+                    quoted = false;
+                } else {
+                    field.append((char) c);
+                    if (c == '\n') {
+                        line++;
+                    }
+                }
+                source.append((char) c);
+            } else if (c == '"') {
+                quoted = true;
+                source.append('"');
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                source.append(',');
+            } else if (c == '\n') {
+                line++;
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+                source.append((char) c);
+            }
+        }
+
+        if (!read) {
+            return false;
+        }
+
+        fields.add(field.toString());
+        return true;
+    }
+
+    private String field(String column) {
+        var index = columns.get(column);
+        if (index == null) {
+            return null;
+        }
+
+        var value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private Long parseLong(String column) {
+        var value = field(column);
+        try {
+            return value == null ? null : Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Invalid %s: %s", column, value));
+        }
+    }
+
+    private Integer parseInteger(String column) {
+        var value = field(column);
+        try {
+            return value == null ? null : Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Invalid %s: %s", column, value));
+        }
+    }
+
+    private LocalDateTime parseDate(String column) {
+        var value = field(column);
+        return value == null ? null : LocalDateTime.parse(value.trim());
+    }
+
+    private static List<TagResponse> parseTags(String value) {
+        var tags = new ArrayList<TagResponse>();
+        if (value == null) {
+            return tags;
+        }
+
+        for (var id : value.split("\\" + TAG_SEPARATOR)) {
+            if (!id.isBlank()) {
+                try {
+                    tags.add(new TagResponse(Long.valueOf(id.trim()), null));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid tag_ids: " + value);
+                }
+            }
+        }
+
+        return tags;
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.github.rhafaelcosta.todolist.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.rhafaelcosta.todolist.requests.TaskRequest;
+import com.github.rhafaelcosta.todolist.responses.TagResponse;
+
+/**
+ * Reads one task per line (newline-delimited JSON), in the format of the {@link TaskRequest} of the task endpoints,
+ * optionally with its {@code createAt} and {@code updateAt} dates. Blank lines are skipped.
+ */
+class NdjsonTaskImportReader implements TaskImportReader {
+
+    private final BufferedReader reader;
+    private final ObjectReader objectReader;
+    private long line;
+
+    NdjsonTaskImportReader(InputStream input, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.objectReader = objectMapper.readerFor(ImportedTask.class);
+    }
+
+    @Override
+    public TaskImportRow next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+        } while (text != null && text.isBlank());
+
+        if (text == null) {
+            return null;
+        }
+
+        try {
+            ImportedTask task = objectReader.readValue(text);
+            var request = new TaskRequest(task.title(), task.description(), task.userId(), task.priority(),
+                    task.severityType(), task.taskStatusType(), task.tags());
+
+            return TaskImportRow.parsed(line, text, request, task.createAt(), task.updateAt());
+        } catch (JsonProcessingException e) {
+            return TaskImportRow.rejected(line, text, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        // The input belongs to the caller
+    }
+
+    private record ImportedTask(String title, String description, Long userId, Integer priority, Integer severityType,
+                                Integer taskStatusType, List<TagResponse> tags, LocalDateTime createAt, LocalDateTime updateAt) {
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.github.rhafaelcosta.todolist.imports;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes the rejected rows of an import to a CSV file with the {@code line}, {@code reason} and {@code source}
+ * of each row, so they can be fixed and imported again.
+ */
+public class RejectedRowWriter implements Closeable {
+
+    private final BufferedWriter writer;
+
+    public RejectedRowWriter(Path file) throws IOException {
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        this.writer.write("line,reason,source\r\n");
+    }
+
+    public void write(long line, String reason, String source) throws IOException {
+        writer.write(Long.toString(line));
+        writer.write(',');
+        writeText(reason);
+        writer.write(',');
+        writeText(source);
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeText(String value) throws IOException {
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+}
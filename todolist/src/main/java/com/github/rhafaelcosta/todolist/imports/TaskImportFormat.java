@@ -0,0 +1,54 @@
+package com.github.rhafaelcosta.todolist.imports;
+
+import java.io.InputStream;
+
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.rhafaelcosta.todolist.exceptions.EnumNotFoundException;
+
+/**
+ * Formats of the task import, chosen by the content type of the request.
+ */
+public enum TaskImportFormat {
+
+    NDJSON ("application/x-ndjson") {
+        @Override
+        public TaskImportReader newReader(InputStream input, ObjectMapper objectMapper) {
+            return new NdjsonTaskImportReader(input, objectMapper);
+        }
+    },
+    CSV    ("text/csv") {
+        @Override
+        public TaskImportReader newReader(InputStream input, ObjectMapper objectMapper) {
+            return new CsvTaskImportReader(input);
+        }
+    };
+
+    private final MediaType mediaType;
+
+    TaskImportFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Creates a reader of the tasks in this format from the given input, which is not closed by the reader.
+     * The input is decoded as UTF-8.
+     */
+    public abstract TaskImportReader newReader(InputStream input, ObjectMapper objectMapper);
+
+    public static TaskImportFormat getByMediaType(MediaType mediaType) throws EnumNotFoundException {
+        for (var format : values()) {
+            if (format.mediaType.isCompatibleWith(mediaType)) {
+                return format;
+            }
+        }
+
+        throw new EnumNotFoundException("Invalid import format: " + mediaType);
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.github.rhafaelcosta.todolist.imports;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progress of a task import, updated by the thread running it and read by the progress endpoint.
+ */
+public class TaskImportProgress {
+
+    public enum Status { READING, VALIDATING, MERGING, COMPLETED, FAILED }
+
+    private final UUID id;
+    private final TaskImportFormat format;
+    private final Path rejectedFile;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    private volatile Status status = Status.READING;
+    private volatile LocalDateTime finishedAt;
+    private volatile long rowsRead;
+    private volatile long rowsImported;
+    private volatile long rowsRejected;
+    private volatile String error;
+
+    TaskImportProgress(UUID id, TaskImportFormat format, Path rejectedFile) {
+        this.id = id;
+        this.format = format;
+        this.rejectedFile = rejectedFile;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public TaskImportFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * The CSV file with the line, the reason and the source text of every rejected row.
+     */
+    public Path getRejectedFile() {
+        return rejectedFile;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    // The counters have a single writer, the thread running the import
+
+    public void rowRead() {
+        rowsRead++;
+    }
+
+    public void rowRejected() {
+        rowsRejected++;
+    }
+
+    public void validating() {
+        status = Status.VALIDATING;
+    }
+
+    public void merging() {
+        status = Status.MERGING;
+    }
+
+    public void complete(long imported) {
+        rowsImported = imported;
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    public void fail(String reason) {
+        rowsImported = 0;
+        error = reason;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.github.rhafaelcosta.todolist.imports;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads the tasks of an import file one at a time, so no more than the current row is kept in memory.
+ * <p>
+ * A row that cannot be parsed is returned with its error instead of failing the whole import.
+ */
+public interface TaskImportReader extends Closeable {
+
+    /**
+     * Reads the next task.
+     *
+     * @return the next row, or null at the end of the file
+     * @throws IOException if the input cannot be read
+     */
+    TaskImportRow next() throws IOException;
+
+}
@@ -0,0 +1,91 @@
+package com.github.rhafaelcosta.todolist.imports;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the progress of the running imports and of the last finished ones, with their rejected rows files.
+ * <p>
+ * The imports are tracked by the instance running them, the progress is not shared with other instances.
+ * When more than {@code todolist.import.history} imports are finished, the oldest ones are forgotten
+ * and their rejected rows files deleted.
+ */
+@Component
+public class TaskImportRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskImportRegistry.class);
+
+    private final Map<UUID, TaskImportProgress> imports = new ConcurrentHashMap<>();
+    private final Path directory;
+    private final int history;
+
+    public TaskImportRegistry(@Value("${todolist.import.directory:${java.io.tmpdir}/todolist-imports}") Path directory,
+                              @Value("${todolist.import.history:20}") int history) {
+        this.directory = directory;
+        this.history = history;
+    }
+
+    /**
+     * Registers a new import.
+     */
+    public TaskImportProgress start(TaskImportFormat format) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        var id = UUID.randomUUID();
+        var progress = new TaskImportProgress(id, format, directory.resolve(id + "-rejected.csv"));
+        imports.put(id, progress);
+        evictFinished();
+
+        return progress;
+    }
+
+    public Optional<TaskImportProgress> find(UUID id) {
+        return Optional.ofNullable(imports.get(id));
+    }
+
+    /**
+     * Returns the running and the last finished imports, the most recent first.
+     */
+    public List<TaskImportProgress> list() {
+        var list = new ArrayList<>(imports.values());
+        list.sort(Comparator.comparing(TaskImportProgress::getStartedAt).reversed());
+        return list;
+    }
+
+    private synchronized void evictFinished() {
+        var finished = imports.values().stream()
+                .filter(TaskImportProgress::isFinished)
+                .sorted(Comparator.comparing(TaskImportProgress::getFinishedAt))
+                .toList();
+
+        for (int i = 0; i < finished.size() - history; i++) {
+            var progress = finished.get(i);
+            imports.remove(progress.getId());
+
+            try {
+                Files.deleteIfExists(progress.getRejectedFile());
+            } catch (IOException e) {
+                LOGGER.warn("Could not delete the rejected rows of the import {}", progress.getId(), e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.github.rhafaelcosta.todolist.imports;
+
+import java.time.LocalDateTime;
+
+import com.github.rhafaelcosta.todolist.requests.TaskRequest;
+
+/**
+ * A task read from an import file.
+ *
+ * @param line     the line of the file where the task starts
+ * @param source   the text of the task in the file, written as is to the rejected rows
+ * @param task     the task, or null if it could not be parsed
+ * @param createAt the creation date of the task, or null to use the date of the import
+ * @param updateAt the last update date of the task, if any
+ * @param error    the reason why the task could not be parsed, or null
+ */
+public record TaskImportRow(long line, String source, TaskRequest task, LocalDateTime createAt, LocalDateTime updateAt, String error) {
+
+    public static TaskImportRow parsed(long line, String source, TaskRequest task, LocalDateTime createAt, LocalDateTime updateAt) {
+        return new TaskImportRow(line, source, task, createAt, updateAt, null);
+    }
+
+    public static TaskImportRow rejected(long line, String source, String error) {
+        return new TaskImportRow(line, source, null, null, null, error);
+    }
+
+}
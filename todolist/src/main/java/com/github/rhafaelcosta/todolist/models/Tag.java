@@ -1,7 +1,13 @@
 package com.github.rhafaelcosta.todolist.models;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -12,6 +18,8 @@ import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tag")
 @Table(name = "TAG")
 public class Tag {
 
@@ -22,6 +30,10 @@ public class Tag {
     @Column(unique = true, nullable = false)
     private String name;
 
+    @UpdateTimestamp
+    @Column(name = "update_at")
+    private LocalDateTime updateAt;
+
     @ManyToMany(mappedBy = "tags", fetch = FetchType.LAZY)
     private List<Task> tasks;
 
@@ -51,6 +63,14 @@ public class Tag {
         this.name = name;
     }
 
+    public LocalDateTime getUpdateAt() {
+        return updateAt;
+    }
+
+    public void setUpdateAt(LocalDateTime updateAt) {
+        this.updateAt = updateAt;
+    }
+
     public List<Task> getTasks() {
         return tasks;
     }
@@ -3,6 +3,8 @@ package com.github.rhafaelcosta.todolist.models;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -22,6 +24,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
@@ -29,7 +32,8 @@ import jakarta.persistence.Table;
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_id_seq")
+    @SequenceGenerator(name = "task_id_seq", sequenceName = "task_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -62,6 +66,7 @@ public class Task {
     private User owner;
 
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "task-tags")
     @JoinTable(
         name = "TASK_TAG",
         joinColumns = @JoinColumn(name = "task_id"),
@@ -69,6 +74,13 @@ public class Task {
     )
     private List<Tag> tags;
 
+    /**
+     * Full-text search vector of the title and the description, generated by the database.
+     * It is mapped only to be referenced by the search queries.
+     */
+    @Column(name = "search_vector", columnDefinition = "tsvector", insertable = false, updatable = false)
+    private String searchVector;
+
     public Long getId() {
         return id;
     }
@@ -0,0 +1,86 @@
+package com.github.rhafaelcosta.todolist.repositories;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import com.github.rhafaelcosta.todolist.repositories.projections.ChangeStamp;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+
+/**
+ * Computes the {@link ChangeStamp} of the entities matching a specification with a single aggregate query,
+ * without loading them.
+ * <p>
+ * The entities, and the ones they reference, must map their last update to an {@code updateAt} attribute.
+ */
+@Repository
+public class ChangeStampRepository {
+
+    private final EntityManager entityManager;
+
+    public ChangeStampRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Returns the stamp of the entities matching the specification.
+     *
+     * @param type the type of the entities
+     * @param specification the specification of the entities, or null for all of them
+     * @param references the associations whose last update is part of the stamp, joined to the entities
+     * @return the number of rows matched, the entities being repeated once per element of a joined collection,
+     *         the latest update among the entities and the referenced ones and the checksum of all their updates
+     */
+    public <T> ChangeStamp find(Class<T> type, Specification<T> specification, String... references) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createTupleQuery();
+        var root = query.from(type);
+
+        var selections = new ArrayList<Expression<?>>();
+        selections.add(criteriaBuilder.count(root));
+        addUpdates(criteriaBuilder, root.get("updateAt"), selections);
+        for (var reference : references) {
+            addUpdates(criteriaBuilder, root.join(reference, JoinType.LEFT).get("updateAt"), selections);
+        }
+        query.multiselect(selections.toArray(Expression[]::new));
+
+        if (specification != null) {
+            var predicate = specification.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+
+        Tuple result = entityManager.createQuery(query).getSingleResult();
+
+        LocalDateTime lastModified = null;
+        var checksum = 0L;
+        for (var i = 1; i < selections.size(); i += 2) {
+            lastModified = ChangeStamp.latest(lastModified, (LocalDateTime) result.get(i));
+            var micros = (Number) result.get(i + 1);
+            checksum += micros == null ? 0L : micros.longValue();
+        }
+
+        return new ChangeStamp(result.get(0, Long.class), lastModified, checksum);
+    }
+
+    /**
+     * Selects the latest update and the sum of the sub-minute part of the updates, in microseconds. Summed as a
+     * double, it stays exact up to tens of millions of rows.
+     */
+    private static void addUpdates(CriteriaBuilder criteriaBuilder, Path<LocalDateTime> updateAt, List<Expression<?>> selections) {
+        selections.add(criteriaBuilder.greatest(updateAt));
+        selections.add(criteriaBuilder.sum(criteriaBuilder.function("date_part", Double.class,
+                criteriaBuilder.literal("microseconds"), updateAt)));
+    }
+
+}
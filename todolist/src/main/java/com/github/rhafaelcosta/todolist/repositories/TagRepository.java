@@ -24,6 +24,14 @@ public interface TagRepository extends JpaRepository<Tag, Long>, JpaSpecificatio
     */
     Optional<Tag> findByNameIgnoreCase(String name);
 
+    /**
+     * Checks whether a {@link Tag} with the specified name exists, ignoring case.
+     *
+     * @param name the name of the tag to search for
+     * @return true if at least one tag has this name
+    */
+    boolean existsByNameIgnoreCase(String name);
+
     /**
      * Retrieves a {@link Page} of {@link Tag} objects whose names contain the specified string.
      * The search is case-insensitive.
@@ -0,0 +1,27 @@
+package com.github.rhafaelcosta.todolist.repositories;
+
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.github.rhafaelcosta.todolist.models.Task;
+
+/**
+ * Fragment of the {@link TaskRepository} reading every task matching a specification in a single pass.
+ */
+public interface TaskExportRepository {
+
+    /**
+     * Streams the tasks matching the given specification, with their owners, ordered by ID.
+     * <p>
+     * The rows are read from a forward-only cursor, {@code fetchSize} rows at a time, so the result set is never
+     * held in memory. The entities are loaded read-only and the stream must be consumed and closed inside
+     * the transaction that opened it.
+     *
+     * @param specification the criteria of the tasks
+     * @param fetchSize     the number of rows read from the database at a time
+     * @return a {@link Stream} of {@link Task} to be closed by the caller
+     */
+    Stream<Task> streamAll(Specification<Task> specification, int fetchSize);
+
+}
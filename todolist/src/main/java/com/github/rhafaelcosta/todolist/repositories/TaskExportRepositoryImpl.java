@@ -0,0 +1,43 @@
+package com.github.rhafaelcosta.todolist.repositories;
+
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.github.rhafaelcosta.todolist.models.Task;
+import com.github.rhafaelcosta.todolist.repositories.specifications.TaskSpecification;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Implementation of {@link TaskExportRepository}, picked up by Spring Data as a fragment of the {@link TaskRepository}.
+ */
+class TaskExportRepositoryImpl implements TaskExportRepository {
+
+    private final EntityManager entityManager;
+
+    TaskExportRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Stream<Task> streamAll(Specification<Task> specification, int fetchSize) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(Task.class);
+        var root = query.from(Task.class);
+
+        var predicate = specification.and(TaskSpecification.fetchOwner()).toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(criteriaBuilder.asc(root.get("id")));
+
+        // Hibernate streams from a forward-only scroll, the driver only uses a cursor when a fetch size is set
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+}
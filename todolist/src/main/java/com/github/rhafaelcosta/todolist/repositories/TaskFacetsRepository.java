@@ -0,0 +1,111 @@
+package com.github.rhafaelcosta.todolist.repositories;
+
+import java.util.TreeMap;
+
+import org.hibernate.query.criteria.JpaRoot;
+import org.hibernate.query.sqm.tree.SqmJoinType;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import com.github.rhafaelcosta.todolist.enums.SeverityType;
+import com.github.rhafaelcosta.todolist.enums.TaskStatusType;
+import com.github.rhafaelcosta.todolist.models.Task;
+import com.github.rhafaelcosta.todolist.models.TaskTag;
+import com.github.rhafaelcosta.todolist.repositories.projections.TaskFacetCounts;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Counts the tasks matching a specification in total and per status, severity, priority and tag, with a single
+ * tuple query grouped by the grouping sets of {@code GroupingSetsFunctionContributor}.
+ * <p>
+ * The tags are left joined, so the tasks without tags are also counted, and every task is counted once per
+ * grouping set with {@code count(DISTINCT id)}, as the join repeats it for each of its tags.
+ */
+@Repository
+public class TaskFacetsRepository {
+
+    private static final int BY_STATUS = 0b0111;
+    private static final int BY_SEVERITY = 0b1011;
+    private static final int BY_PRIORITY = 0b1101;
+    private static final int BY_TAG = 0b1110;
+    private static final int TOTAL = 0b1111;
+
+    private final EntityManager entityManager;
+
+    public TaskFacetsRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Counts the tasks matching the specification, in total and per value of every dimension.
+     *
+     * @param specification the criteria of the tasks
+     * @return the {@link TaskFacetCounts} of the tasks, ordered by code or ID
+     */
+    public TaskFacetCounts count(Specification<Task> specification) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createTupleQuery();
+        var root = query.from(Task.class);
+        // The association rows are joined as an entity, so the tag IDs come from TASK_TAG in every clause
+        var tag = ((JpaRoot<Task>) root).join(TaskTag.class, SqmJoinType.LEFT);
+        tag.on(criteriaBuilder.equal(tag.get("id").get("taskId"), root.get("id")));
+
+        var status = root.get("taskStatusType");
+        var severity = root.get("severityType");
+        var priority = root.get("priority");
+        var tagId = tag.get("id").get("tagId");
+
+        query.multiselect(criteriaBuilder.function("grouping_bits", Integer.class, status, severity, priority, tagId),
+                status, severity, priority, tagId, criteriaBuilder.countDistinct(root));
+        query.groupBy(criteriaBuilder.function("grouping_sets_each", Integer.class, status, severity, priority, tagId));
+
+        var predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        var total = 0L;
+        var statuses = new TreeMap<Integer, Long>();
+        var severities = new TreeMap<Integer, Long>();
+        var priorities = new TreeMap<Integer, Long>();
+        var tags = new TreeMap<Long, Long>();
+
+        for (var row : entityManager.createQuery(query).getResultList()) {
+            var count = row.get(5, Long.class);
+
+            // The null values of each dimension are not counted, as no filter matches them
+            switch (row.get(0, Integer.class)) {
+                case BY_STATUS -> {
+                    var value = row.get(1, TaskStatusType.class);
+                    if (value != null) {
+                        statuses.put(value.getCode(), count);
+                    }
+                }
+                case BY_SEVERITY -> {
+                    var value = row.get(2, SeverityType.class);
+                    if (value != null) {
+                        severities.put(value.getCode(), count);
+                    }
+                }
+                case BY_PRIORITY -> {
+                    var value = row.get(3, Integer.class);
+                    if (value != null) {
+                        priorities.put(value, count);
+                    }
+                }
+                case BY_TAG -> {
+                    var value = row.get(4, Long.class);
+                    if (value != null) {
+                        tags.put(value, count);
+                    }
+                }
+                case TOTAL -> total = count;
+                default -> throw new IllegalStateException("Unexpected grouping set: " + row.get(0));
+            }
+        }
+
+        return new TaskFacetCounts(total, statuses, severities, priorities, tags);
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.github.rhafaelcosta.todolist.repositories;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+
+import com.github.rhafaelcosta.todolist.enums.SeverityType;
+import com.github.rhafaelcosta.todolist.enums.TaskStatusType;
+import com.github.rhafaelcosta.todolist.filters.TaskField;
+import com.github.rhafaelcosta.todolist.filters.TaskFieldSet;
+import com.github.rhafaelcosta.todolist.models.Task;
+import com.github.rhafaelcosta.todolist.repositories.projections.TaskFieldsProjection;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Reads a page of tasks selecting only the columns of a {@link TaskFieldSet}, with a single tuple query.
+ * <p>
+ * The USERS table is only joined when the owner is expanded, the tasks are not loaded as entities.
+ */
+@Repository
+public class TaskFieldsRepository {
+
+    private static final String USER_ID = "userId";
+    private static final String USER_NAME = "userName";
+    private static final String USER_EMAIL = "userEmail";
+    private static final String USER_ACTIVE = "userActive";
+
+    private final EntityManager entityManager;
+
+    public TaskFieldsRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Returns the selected columns of a page of the tasks matching the specification.
+     *
+     * @param specification the criteria of the tasks
+     * @param fieldSet      the columns and associations to select
+     * @param pageable      the page and the sort of the tasks
+     * @return a list of {@link TaskFieldsProjection} in the order of the page
+     */
+    public List<TaskFieldsProjection> findAll(Specification<Task> specification, TaskFieldSet fieldSet, Pageable pageable) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createTupleQuery();
+        var root = query.from(Task.class);
+
+        var selections = new ArrayList<Selection<?>>();
+        for (var field : fieldSet.fields()) {
+            selections.add(root.get(field.getProperty()).alias(field.getProperty()));
+        }
+        if (fieldSet.user()) {
+            var owner = root.join("owner");
+            selections.add(owner.get("id").alias(USER_ID));
+            selections.add(owner.get("name").alias(USER_NAME));
+            selections.add(owner.get("email").alias(USER_EMAIL));
+            selections.add(owner.get("active").alias(USER_ACTIVE));
+        }
+        query.multiselect(selections);
+
+        var predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+        var typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+
+        return typedQuery.getResultList().stream().map(tuple -> toProjection(tuple, fieldSet)).toList();
+    }
+
+    private static TaskFieldsProjection toProjection(Tuple tuple, TaskFieldSet fieldSet) {
+        return new TaskFieldsProjection(
+                tuple.get(TaskField.ID.getProperty(), Long.class),
+                fieldSet.has(TaskField.TITLE) ? tuple.get(TaskField.TITLE.getProperty(), String.class) : null,
+                fieldSet.has(TaskField.DESCRIPTION) ? tuple.get(TaskField.DESCRIPTION.getProperty(), String.class) : null,
+                fieldSet.has(TaskField.PRIORITY) ? tuple.get(TaskField.PRIORITY.getProperty(), Integer.class) : null,
+                fieldSet.has(TaskField.SEVERITY_TYPE) ? tuple.get(TaskField.SEVERITY_TYPE.getProperty(), SeverityType.class) : null,
+                fieldSet.has(TaskField.TASK_STATUS_TYPE) ? tuple.get(TaskField.TASK_STATUS_TYPE.getProperty(), TaskStatusType.class) : null,
+                fieldSet.user() ? tuple.get(USER_ID, Long.class) : null,
+                fieldSet.user() ? tuple.get(USER_NAME, String.class) : null,
+                fieldSet.user() ? tuple.get(USER_EMAIL, String.class) : null,
+                fieldSet.user() ? tuple.get(USER_ACTIVE, Boolean.class) : null);
+    }
+
+}
@@ -0,0 +1,270 @@
+package com.github.rhafaelcosta.todolist.repositories;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import com.github.rhafaelcosta.todolist.enums.SeverityType;
+import com.github.rhafaelcosta.todolist.enums.TaskStatusType;
+import com.github.rhafaelcosta.todolist.imports.TaskImportRow;
+import com.github.rhafaelcosta.todolist.repositories.projections.TaskGroupCount;
+import com.github.rhafaelcosta.todolist.responses.TagResponse;
+
+/**
+ * Bulk load of tasks through a staging table, in the transaction of the caller.
+ * <p>
+ * The rows are streamed into a temporary table with the COPY protocol, the rows referencing unknown owners or tags
+ * are removed from it with one statement, and the remaining ones are merged into TASK and TASK_TAG with another.
+ * The staging table is dropped when the transaction ends.
+ */
+@Repository
+public class TaskImportRepository {
+
+    /**
+     * Increment of the task sequence, see V4__ALTER_TASK_ID_SEQUENCE_INCREMENT: each nextval reserves the block of
+     * IDs ending at the returned value, as the pooled optimizer of Hibernate does.
+     */
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMPORARY TABLE task_import (
+                position BIGINT NOT NULL,
+                line BIGINT NOT NULL,
+                source TEXT NOT NULL,
+                title TEXT NOT NULL,
+                description TEXT,
+                user_id BIGINT NOT NULL,
+                priority INT NOT NULL,
+                severity_type INT NOT NULL,
+                status_type INT NOT NULL,
+                create_at TIMESTAMP,
+                update_at TIMESTAMP,
+                tag_ids BIGINT[] NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_STAGING = """
+            COPY task_import (position, line, source, title, description, user_id, priority, severity_type, status_type, create_at, update_at, tag_ids)
+            FROM STDIN (FORMAT csv)
+            """;
+
+    private static final String REJECT_UNKNOWN_REFERENCES = """
+            DELETE FROM task_import s
+            WHERE NOT EXISTS (SELECT 1 FROM users u WHERE u.id = s.user_id)
+               OR EXISTS (SELECT 1 FROM unnest(s.tag_ids) t(id) WHERE NOT EXISTS (SELECT 1 FROM tag WHERE tag.id = t.id))
+            RETURNING s.line, s.source,
+                CASE WHEN NOT EXISTS (SELECT 1 FROM users u WHERE u.id = s.user_id)
+                     THEN 'User not found with id: ' || s.user_id
+                     ELSE 'Tag not found with id: ' || (SELECT min(t.id) FROM unnest(s.tag_ids) t(id) WHERE NOT EXISTS (SELECT 1 FROM tag WHERE tag.id = t.id))
+                END AS reason
+            """;
+
+    /**
+     * Reserves one block of IDs per {@value #ID_BLOCK_SIZE} staged rows, assigns them in the order of the rows and
+     * inserts the tasks and their tags in a single statement, which also adds the tasks to the counts of their
+     * owners in USER_TASK_STATS. The foreign keys of TASK_TAG are checked at the end of the statement, once the
+     * tasks are inserted. The positions of the rows removed from the staging table are
+     * left unused, as well as the end of the last block.
+     */
+    private static final String MERGE = """
+            WITH blocks AS (
+                SELECT b.block, nextval('task_id_seq') AS last_id
+                FROM generate_series(0, (SELECT max(position) / ? FROM task_import)) b(block)
+            ), staged AS (
+                SELECT s.*, blocks.last_id - ? + 1 + s.position % ? AS id
+                FROM task_import s JOIN blocks ON blocks.block = s.position / ?
+            ), tasks AS (
+                INSERT INTO task (id, user_id, title, description, priority, severity_type, status_type, create_at, update_at)
+                SELECT id, user_id, title, description, priority, severity_type, status_type, coalesce(create_at, now()), coalesce(update_at, now())
+                FROM staged
+                RETURNING id
+            ), tags AS (
+                INSERT INTO task_tag (task_id, tag_id)
+                SELECT s.id, t.id FROM staged s CROSS JOIN LATERAL unnest(s.tag_ids) t(id)
+            ), stats AS (
+                INSERT INTO user_task_stats (user_id, status_type, severity_type, task_count)
+                SELECT user_id, status_type, severity_type, count(*) FROM staged
+                GROUP BY user_id, status_type, severity_type
+                ORDER BY user_id, status_type, severity_type
+                ON CONFLICT (user_id, status_type, severity_type) DO UPDATE SET task_count = user_task_stats.task_count + EXCLUDED.task_count
+            )
+            SELECT count(*) FROM tasks
+            """;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskImportRepository(DataSource dataSource, JdbcTemplate jdbcTemplate) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Creates the staging table and starts copying rows into it.
+     *
+     * @return the writer of the rows, which ends the copy when closed
+     */
+    public StagingWriter openStaging() throws SQLException {
+        jdbcTemplate.execute(CREATE_STAGING);
+
+        // The connection bound to the current transaction
+        var connection = DataSourceUtils.getConnection(dataSource);
+        var copy = new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY_STAGING, 1 << 16);
+
+        return new StagingWriter(copy);
+    }
+
+    /**
+     * Refreshes the statistics of the staging table, which are not collected automatically for temporary tables.
+     */
+    public void analyzeStaging() {
+        jdbcTemplate.execute("ANALYZE task_import");
+    }
+
+    /**
+     * Removes the staged rows whose owner or one of whose tags does not exist.
+     *
+     * @param rejected receives the {@code line}, {@code source} and {@code reason} of each removed row
+     */
+    public void rejectUnknownReferences(RowCallbackHandler rejected) {
+        jdbcTemplate.query(REJECT_UNKNOWN_REFERENCES, rejected);
+    }
+
+    /**
+     * Returns the distinct owners of the staged rows.
+     */
+    public List<Long> findStagedOwnerIds() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT user_id FROM task_import", Long.class);
+    }
+
+    /**
+     * Counts the staged rows per status, severity and priority.
+     */
+    public List<TaskGroupCount> countStaged() {
+        return jdbcTemplate.query("SELECT status_type, severity_type, priority, count(*) FROM task_import GROUP BY status_type, severity_type, priority",
+                (rs, row) -> new TaskGroupCount(TaskStatusType.fromCode(rs.getInt(1)), SeverityType.fromCode(rs.getInt(2)), rs.getInt(3), rs.getLong(4)));
+    }
+
+    /**
+     * Inserts the staged rows into TASK and TASK_TAG.
+     *
+     * @return the number of inserted tasks
+     */
+    public long merge() {
+        return jdbcTemplate.queryForObject(MERGE, Long.class, ID_BLOCK_SIZE, ID_BLOCK_SIZE, ID_BLOCK_SIZE, ID_BLOCK_SIZE);
+    }
+
+    /**
+     * Writes the rows to the staging table in the CSV format of COPY, where an unquoted empty field is null.
+     */
+    public static class StagingWriter implements Closeable {
+
+        private final PGCopyOutputStream copy;
+        private final Writer writer;
+        private long position;
+
+        private StagingWriter(PGCopyOutputStream copy) {
+            this.copy = copy;
+            this.writer = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8), 1 << 16);
+        }
+
+        /**
+         * Writes a parsed and validated row.
+         */
+        public void write(TaskImportRow row) throws IOException {
+            var task = row.task();
+
+            writer.write(Long.toString(position++));
+            writer.write(',');
+            writer.write(Long.toString(row.line()));
+            writer.write(',');
+            writeText(row.source());
+            writer.write(',');
+            writeText(task.title());
+            writer.write(',');
+            writeText(task.description());
+            writer.write(',');
+            writer.write(task.userId().toString());
+            writer.write(',');
+            writer.write(task.priority().toString());
+            writer.write(',');
+            writer.write(task.severityType().toString());
+            writer.write(',');
+            writer.write(task.taskStatusType().toString());
+            writer.write(',');
+            if (row.createAt() != null) {
+                writer.write(row.createAt().toString());
+            }
+            writer.write(',');
+            if (row.updateAt() != null) {
+                writer.write(row.updateAt().toString());
+            }
+            writer.write(",\"{");
+            if (task.tags() != null) {
+                // Each tag once, so the merge does not have to remove the duplicates
+                var first = true;
+                for (var tagId : task.tags().stream().map(TagResponse::id).distinct().toList()) {
+                    if (!first) {
+                        writer.write(',');
+                    }
+                    writer.write(tagId.toString());
+                    first = false;
+                }
+            }
+            writer.write("}\"\n");
+        }
+
+        /**
+         * Ends the copy, the rows are only visible in the staging table afterwards.
+         */
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+            try {
+                copy.endCopy();
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+        }
+
+        /**
+         * Cancels the copy, so the connection can be used again to roll back the transaction.
+         */
+        public void abort() throws IOException {
+            try {
+                copy.cancelCopy();
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+        }
+
+        /**
+         * Text is always quoted, so an empty text is not read as null.
+         */
+        private void writeText(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+    }
+
+}
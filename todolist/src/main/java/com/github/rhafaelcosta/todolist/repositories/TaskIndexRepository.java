@@ -0,0 +1,77 @@
+package com.github.rhafaelcosta.todolist.repositories;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import com.github.rhafaelcosta.todolist.repositories.projections.TaskIndexCount;
+
+/**
+ * Reads of the task attributes held by the in-memory bitmap index, in the transaction of the caller.
+ * <p>
+ * The tasks and their tags are read from forward-only cursors, so the index is built without holding all the rows
+ * in memory; the transaction keeps the cursors open between the fetches.
+ */
+@Repository
+public class TaskIndexRepository {
+
+    private static final String FIND_TASKS = "SELECT id, user_id, status_type, severity_type, priority FROM task";
+
+    private static final String FIND_TASK_TAGS = "SELECT task_id, tag_id FROM task_tag";
+
+    /**
+     * Counts the tasks per value of every dimension, and all of them, in a single scan of TASK.
+     */
+    private static final String COUNT_DIMENSIONS = """
+            SELECT CASE WHEN GROUPING(user_id) = 0 THEN 'user'
+                        WHEN GROUPING(status_type) = 0 THEN 'status'
+                        WHEN GROUPING(severity_type) = 0 THEN 'severity'
+                        WHEN GROUPING(priority) = 0 THEN 'priority'
+                        ELSE 'total' END AS dimension,
+                   coalesce(user_id, status_type, severity_type, priority) AS value, count(*) AS task_count
+            FROM task
+            GROUP BY GROUPING SETS ((user_id), (status_type), (severity_type), (priority), ())
+            HAVING GROUPING(user_id, status_type, severity_type, priority) = 15 OR coalesce(user_id, status_type, severity_type, priority) IS NOT NULL
+            UNION ALL
+            SELECT 'tag', tag_id, count(*) FROM task_tag GROUP BY tag_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskIndexRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reads every task, passing its ID, owner, status, severity and priority to the handler.
+     */
+    public void forEachTask(int fetchSize, RowCallbackHandler handler) {
+        query(FIND_TASKS, fetchSize, handler);
+    }
+
+    /**
+     * Reads every tag of the tasks, passing the task and tag IDs to the handler.
+     */
+    public void forEachTaskTag(int fetchSize, RowCallbackHandler handler) {
+        query(FIND_TASK_TAGS, fetchSize, handler);
+    }
+
+    /**
+     * Counts the tasks per owner, status, severity, priority and tag, leaving out the null values.
+     */
+    public List<TaskIndexCount> countDimensions() {
+        return jdbcTemplate.query(COUNT_DIMENSIONS,
+                (rs, rowNum) -> new TaskIndexCount(rs.getString(1), rs.getObject(2, Long.class), rs.getLong(3)));
+    }
+
+    private void query(String sql, int fetchSize, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(sql);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, handler);
+    }
+
+}
@@ -1,10 +1,57 @@
 package com.github.rhafaelcosta.todolist.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
 import com.github.rhafaelcosta.todolist.models.Task;
+import com.github.rhafaelcosta.todolist.repositories.projections.TaskTagProjection;
+
+/**
+ * Repository interface for {@link Task} instances.
+ * <p>
+ * The paginated finders fetch the owner of the tasks in the same query, so rendering a page
+ * never triggers one extra query per row.
+ */
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, TaskExportRepository {
+
+    @Override
+    @EntityGraph(attributePaths = "owner")
+    Page<Task> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "owner")
+    Page<Task> findAll(Specification<Task> specification, Pageable pageable);
+
+    /**
+     * Retrieves a task with its owner and tags loaded in a single query.
+     *
+     * @param id the ID of the task
+     * @return an {@link Optional} containing the found {@link Task}, or {@link Optional#empty()} if no task was found
+     */
+    @EntityGraph(attributePaths = { "owner", "tags" })
+    Optional<Task> findWithOwnerAndTagsById(Long id);
 
-public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+    /**
+     * Retrieves the tags of all the given tasks in a single query.
+     *
+     * @param taskIds the IDs of the tasks
+     * @return a list of {@link TaskTagProjection} with one element per task/tag association
+     */
+    @Query("""
+           select new com.github.rhafaelcosta.todolist.repositories.projections.TaskTagProjection(tt.id.taskId, tag.id, tag.name)
+           from TaskTag tt join tt.tag tag
+           where tt.id.taskId in :taskIds
+           order by tag.name
+           """)
+    List<TaskTagProjection> findTagsByTaskIdIn(Collection<Long> taskIds);
 
 }
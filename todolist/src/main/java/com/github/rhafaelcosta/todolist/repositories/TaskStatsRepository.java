@@ -0,0 +1,209 @@
+package com.github.rhafaelcosta.todolist.repositories;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+
+import com.github.rhafaelcosta.todolist.enums.SeverityType;
+import com.github.rhafaelcosta.todolist.enums.TaskStatusType;
+import com.github.rhafaelcosta.todolist.models.Task;
+import com.github.rhafaelcosta.todolist.repositories.projections.TaskGroupCount;
+import com.github.rhafaelcosta.todolist.repositories.projections.TaskStatsCount;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+/**
+ * Number of tasks of each user per status and severity, kept in USER_TASK_STATS with native queries.
+ * <p>
+ * The task writes apply their changes to the counts as deltas, in their own transaction, so reading the counts of
+ * a user does not depend on the number of its tasks. A count that drifted from TASK, because of a write that
+ * bypassed the deltas, is repaired by {@link #reconcile(Long)}.
+ * <p>
+ * Both lock the rows in the same order: the owner, which inserting a task or a new count locks through its foreign
+ * key, then the counts of the owner. The writes must flush their tasks before applying their deltas.
+ */
+@Repository
+public class TaskStatsRepository {
+
+    /**
+     * Adds the deltas to the counts, creating the missing ones, in the order of the keys.
+     */
+    private static final String APPLY_DELTAS = """
+            INSERT INTO user_task_stats (user_id, status_type, severity_type, task_count)
+            SELECT * FROM unnest(?::bigint[], ?::int[], ?::int[], ?::bigint[])
+            ON CONFLICT (user_id, status_type, severity_type) DO UPDATE SET task_count = user_task_stats.task_count + EXCLUDED.task_count
+            """;
+
+    private static final String FIND_BY_USER = """
+            SELECT status_type, severity_type, task_count FROM user_task_stats
+            WHERE user_id = ? AND task_count <> 0
+            ORDER BY status_type, severity_type
+            """;
+
+    /**
+     * Compares the counts of every user with the ones of TASK in a single scan.
+     */
+    private static final String FIND_DRIFTING_USERS = """
+            SELECT DISTINCT coalesce(t.user_id, s.user_id)
+            FROM (
+                SELECT user_id, status_type, severity_type, count(*) AS task_count FROM task
+                WHERE status_type IS NOT NULL AND severity_type IS NOT NULL
+                GROUP BY user_id, status_type, severity_type
+            ) t
+            FULL JOIN user_task_stats s ON s.user_id = t.user_id AND s.status_type = t.status_type AND s.severity_type = t.severity_type
+            WHERE coalesce(t.task_count, 0) <> coalesce(s.task_count, 0)
+            """;
+
+    private static final String RECOUNT = """
+            INSERT INTO user_task_stats (user_id, status_type, severity_type, task_count)
+            SELECT user_id, status_type, severity_type, count(*) FROM task
+            WHERE user_id = ? AND status_type IS NOT NULL AND severity_type IS NOT NULL
+            GROUP BY user_id, status_type, severity_type
+            """;
+
+    private static final String COUNT_ALL = """
+            SELECT status_type, severity_type, priority, count(*) FROM task
+            GROUP BY status_type, severity_type, priority
+            """;
+
+    private final EntityManager entityManager;
+
+    public TaskStatsRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Returns the non-zero counts of the user, ordered by status and severity.
+     */
+    @SuppressWarnings("unchecked")
+    public List<TaskStatsCount> findByUserId(Long userId) {
+        List<Object[]> rows = entityManager.createNativeQuery(FIND_BY_USER, Object[].class)
+                .setParameter(1, userId)
+                .getResultList();
+
+        return rows.stream().map(row -> new TaskStatsCount(
+                TaskStatusType.fromCode(((Number) row[0]).intValue()),
+                SeverityType.fromCode(((Number) row[1]).intValue()),
+                ((Number) row[2]).longValue())).toList();
+    }
+
+    /**
+     * Adds the deltas to the counts with a single statement, in the transaction of the caller.
+     * No statement is executed if every delta is zero.
+     */
+    public void apply(Deltas deltas) {
+        var changes = deltas.counts.entrySet().stream().filter(entry -> entry.getValue() != 0).toList();
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        var userIds = new Long[changes.size()];
+        var statuses = new Integer[changes.size()];
+        var severities = new Integer[changes.size()];
+        var counts = new Long[changes.size()];
+        for (var i = 0; i < changes.size(); i++) {
+            var key = changes.get(i).getKey();
+            userIds[i] = key.userId();
+            statuses[i] = key.status();
+            severities[i] = key.severity();
+            counts[i] = changes.get(i).getValue();
+        }
+
+        update(APPLY_DELTAS)
+                .setParameter(1, userIds)
+                .setParameter(2, statuses)
+                .setParameter(3, severities)
+                .setParameter(4, counts)
+                .executeUpdate();
+    }
+
+    /**
+     * Returns the users whose counts differ from their tasks. The comparison does not lock anything, so a user
+     * written meanwhile can be returned without having drifted.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> findDriftingUserIds() {
+        return entityManager.createNativeQuery(FIND_DRIFTING_USERS, Long.class).getResultList();
+    }
+
+    /**
+     * Counts all the tasks per status, severity and priority, with a scan of TASK.
+     */
+    @SuppressWarnings("unchecked")
+    public List<TaskGroupCount> countAll() {
+        List<Object[]> rows = entityManager.createNativeQuery(COUNT_ALL, Object[].class).getResultList();
+
+        return rows.stream().map(row -> new TaskGroupCount(
+                row[0] == null ? null : TaskStatusType.fromCode(((Number) row[0]).intValue()),
+                row[1] == null ? null : SeverityType.fromCode(((Number) row[1]).intValue()),
+                row[2] == null ? null : ((Number) row[2]).intValue(),
+                ((Number) row[3]).longValue())).toList();
+    }
+
+    /**
+     * Recounts the tasks of the user, in the transaction of the caller, which must not be read-only.
+     * <p>
+     * The user is locked first, which waits for the writes inserting its tasks or its counts, then its counts are
+     * deleted, which waits for the writes updating them. Once they are done, the tasks are counted again.
+     *
+     * @return the number of counts of the user
+     */
+    public int reconcile(Long userId) {
+        entityManager.createNativeQuery("SELECT id FROM users WHERE id = ? FOR UPDATE", Long.class).setParameter(1, userId).getResultList();
+        update("DELETE FROM user_task_stats WHERE user_id = ?").setParameter(1, userId).executeUpdate();
+
+        return update(RECOUNT).setParameter(1, userId).executeUpdate();
+    }
+
+    /**
+     * Creates a native update of USER_TASK_STATS. No entity is mapped to the table, so declaring it keeps Hibernate
+     * from evicting the whole second-level cache after the update.
+     */
+    private Query update(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("user_task_stats");
+    }
+
+    /**
+     * Changes to the counts of the tasks, accumulated by a write and applied once.
+     */
+    public static class Deltas {
+
+        private final Map<Key, Long> counts = new TreeMap<>(Comparator.comparing(Key::userId)
+                .thenComparing(Key::status)
+                .thenComparing(Key::severity));
+
+        /**
+         * Counts the task with its current owner, status and severity.
+         */
+        public Deltas add(Task task) {
+            return change(task, 1);
+        }
+
+        /**
+         * Stops counting the task with its current owner, status and severity.
+         */
+        public Deltas remove(Task task) {
+            return change(task, -1);
+        }
+
+        private Deltas change(Task task, long delta) {
+            if (task.getTaskStatusType() != null && task.getSeverityType() != null) {
+                var key = new Key(task.getOwner().getId(), task.getTaskStatusType().getCode(), task.getSeverityType().getCode());
+                counts.merge(key, delta, Long::sum);
+            }
+
+            return this;
+        }
+
+        private record Key(Long userId, Integer status, Integer severity) { }
+
+    }
+
+}
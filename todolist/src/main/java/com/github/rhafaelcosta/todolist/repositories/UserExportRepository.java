@@ -0,0 +1,27 @@
+package com.github.rhafaelcosta.todolist.repositories;
+
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.github.rhafaelcosta.todolist.models.User;
+
+/**
+ * Fragment of the {@link UserRepository} reading every user matching a specification in a single pass.
+ */
+public interface UserExportRepository {
+
+    /**
+     * Streams the users matching the given specification, ordered by ID.
+     * <p>
+     * The rows are read from a forward-only cursor, {@code fetchSize} rows at a time, so the result set is never
+     * held in memory. The entities are loaded read-only and the stream must be consumed and closed inside
+     * the transaction that opened it.
+     *
+     * @param specification the criteria of the users
+     * @param fetchSize     the number of rows read from the database at a time
+     * @return a {@link Stream} of {@link User} to be closed by the caller
+     */
+    Stream<User> streamAll(Specification<User> specification, int fetchSize);
+
+}
@@ -0,0 +1,45 @@
+package com.github.rhafaelcosta.todolist.repositories;
+
+import java.util.stream.Stream;
+
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.github.rhafaelcosta.todolist.models.User;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Implementation of {@link UserExportRepository}, picked up by Spring Data as a fragment of the {@link UserRepository}.
+ */
+class UserExportRepositoryImpl implements UserExportRepository {
+
+    private final EntityManager entityManager;
+
+    UserExportRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Stream<User> streamAll(Specification<User> specification, int fetchSize) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(User.class);
+        var root = query.from(User.class);
+
+        var predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(criteriaBuilder.asc(root.get("id")));
+
+        // Hibernate streams from a forward-only scroll, the driver only uses a cursor when a fetch size is set.
+        // The users are not put in the second-level cache, a full export would evict the users in use
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultStream();
+    }
+
+}
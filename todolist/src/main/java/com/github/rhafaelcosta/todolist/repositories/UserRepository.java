@@ -3,10 +3,11 @@ package com.github.rhafaelcosta.todolist.repositories;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import com.github.rhafaelcosta.todolist.models.User;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>, UserExportRepository {
 
     /**
      * This functionality is used to find the user by email (case insensitive) and
@@ -0,0 +1,27 @@
+package com.github.rhafaelcosta.todolist.repositories.functions;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the PostgreSQL full-text search functions used by the criteria queries.
+ * <p>
+ * The text is parsed with {@code websearch_to_tsquery}, so any user input is a valid query: quoted phrases,
+ * {@code or} and {@code -} are supported and the other punctuation is ignored. The configuration must be the
+ * same one used to build the {@code search_vector} column.
+ */
+public class FullTextSearchFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        var registry = functionContributions.getFunctionRegistry();
+        var types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        registry.registerPattern("fts_match", "(?1 @@ websearch_to_tsquery('simple', ?2))",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+        registry.registerPattern("fts_rank", "ts_rank(?1, websearch_to_tsquery('simple', ?2))",
+                types.resolve(StandardBasicTypes.DOUBLE));
+    }
+
+}
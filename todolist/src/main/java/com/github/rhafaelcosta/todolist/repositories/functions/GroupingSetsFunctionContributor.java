@@ -0,0 +1,29 @@
+package com.github.rhafaelcosta.todolist.repositories.functions;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the grouping sets of the criteria queries counting several dimensions at once, which the criteria API
+ * does not express.
+ * <p>
+ * {@code grouping_sets_each} is passed to {@code groupBy} and groups by each of its four expressions on its own and
+ * by none of them, so one scan returns the counts per value of every expression and the total. {@code grouping_bits}
+ * tells the grouping set of each row apart: the bit of an expression, from 8 for the first one down to 1 for the
+ * last one, is set when the row is not grouped by it.
+ */
+public class GroupingSetsFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        var registry = functionContributions.getFunctionRegistry();
+        var types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        registry.registerPattern("grouping_sets_each", "grouping sets ((?1), (?2), (?3), (?4), ())",
+                types.resolve(StandardBasicTypes.INTEGER));
+        registry.registerPattern("grouping_bits", "grouping(?1, ?2, ?3, ?4)",
+                types.resolve(StandardBasicTypes.INTEGER));
+    }
+
+}
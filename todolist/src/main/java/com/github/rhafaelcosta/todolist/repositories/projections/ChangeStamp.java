@@ -0,0 +1,53 @@
+package com.github.rhafaelcosta.todolist.repositories.projections;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Number of rows of a set, the latest update among them and a checksum of all their updates, used as the validators
+ * of the HTTP conditional requests.
+ * <p>
+ * Every insert and update writes the current time, so it moves the latest update forward, and every delete lowers
+ * the count. An update committed after a later one, by a transaction that flushed first, does not move the latest
+ * update but does change the checksum: the stamp changes whenever a row of the set does.
+ *
+ * @param count the number of rows
+ * @param lastModified the latest update of the rows, or null if there are none
+ * @param checksum the sum of the sub-minute part, in microseconds, of the updates of the rows
+ */
+public record ChangeStamp(long count, LocalDateTime lastModified, long checksum) {
+
+    /**
+     * Combines this stamp with the one of the rows the set refers to, like the owners or the tags of the tasks.
+     */
+    public ChangeStamp and(ChangeStamp other) {
+        return new ChangeStamp(count + other.count(), latest(lastModified, other.lastModified()), checksum + other.checksum());
+    }
+
+    /**
+     * Returns the strong entity tag of a representation of the set, without the quotes.
+     *
+     * @param variant the name of the representation, telling it apart from the other representations of the set
+     */
+    public String eTag(String variant) {
+        var micros = lastModified == null ? 0L : ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), lastModified);
+        return Long.toHexString(count) + "-" + Long.toHexString(micros) + "-" + Long.toHexString(checksum) + "-" + variant;
+    }
+
+    /**
+     * Returns the latest update in milliseconds since the epoch, or -1 if there are no rows.
+     */
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1L : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public static LocalDateTime latest(LocalDateTime first, LocalDateTime second) {
+        if (first == null) {
+            return second;
+        }
+
+        return second == null || first.isAfter(second) ? first : second;
+    }
+
+}
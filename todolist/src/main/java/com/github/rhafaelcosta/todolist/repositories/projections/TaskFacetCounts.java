@@ -0,0 +1,12 @@
+package com.github.rhafaelcosta.todolist.repositories.projections;
+
+import java.util.Map;
+
+/**
+ * Number of tasks matching a filter, and per status, severity, priority and tag, by code or ID. The values with no
+ * task are left out.
+ */
+public record TaskFacetCounts(long total, Map<Integer, Long> statuses, Map<Integer, Long> severities, Map<Integer, Long> priorities,
+                              Map<Long, Long> tags) {
+
+}
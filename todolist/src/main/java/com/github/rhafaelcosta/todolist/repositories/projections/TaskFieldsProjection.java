@@ -0,0 +1,12 @@
+package com.github.rhafaelcosta.todolist.repositories.projections;
+
+import com.github.rhafaelcosta.todolist.enums.SeverityType;
+import com.github.rhafaelcosta.todolist.enums.TaskStatusType;
+
+/**
+ * Projection of the selected columns of a task and, when expanded, of its owner. The columns not selected are null.
+ */
+public record TaskFieldsProjection(Long id, String title, String description, Integer priority, SeverityType severityType,
+                                   TaskStatusType taskStatusType, Long userId, String userName, String userEmail, Boolean userActive) {
+
+}
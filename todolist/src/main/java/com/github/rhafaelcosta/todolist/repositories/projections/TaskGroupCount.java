@@ -0,0 +1,11 @@
+package com.github.rhafaelcosta.todolist.repositories.projections;
+
+import com.github.rhafaelcosta.todolist.enums.SeverityType;
+import com.github.rhafaelcosta.todolist.enums.TaskStatusType;
+
+/**
+ * Number of tasks with a status, a severity and a priority, any of them possibly null.
+ */
+public record TaskGroupCount(TaskStatusType status, SeverityType severity, Integer priority, long count) {
+
+}
@@ -0,0 +1,9 @@
+package com.github.rhafaelcosta.todolist.repositories.projections;
+
+/**
+ * Number of tasks with a value of a dimension: {@code user}, {@code status}, {@code severity}, {@code priority} or
+ * {@code tag}, or of all the tasks for the {@code total} dimension, whose value is null.
+ */
+public record TaskIndexCount(String dimension, Long value, long count) {
+
+}
@@ -0,0 +1,11 @@
+package com.github.rhafaelcosta.todolist.repositories.projections;
+
+import com.github.rhafaelcosta.todolist.enums.SeverityType;
+import com.github.rhafaelcosta.todolist.enums.TaskStatusType;
+
+/**
+ * Projection of a row of USER_TASK_STATS: the number of tasks of a user with a status and a severity.
+ */
+public record TaskStatsCount(TaskStatusType status, SeverityType severity, long count) {
+
+}
@@ -0,0 +1,8 @@
+package com.github.rhafaelcosta.todolist.repositories.projections;
+
+/**
+ * Projection of a row of the TASK_TAG association joined with its tag.
+ */
+public record TaskTagProjection(Long taskId, Long tagId, String tagName) {
+
+}
@@ -1,21 +1,117 @@
 package com.github.rhafaelcosta.todolist.repositories.specifications;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
+import com.github.rhafaelcosta.todolist.filters.TaskCursor;
+import com.github.rhafaelcosta.todolist.filters.TaskFilter;
+import com.github.rhafaelcosta.todolist.filters.TaskTagMode;
 import com.github.rhafaelcosta.todolist.models.Task;
+import com.github.rhafaelcosta.todolist.models.TaskTag;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
 
 public class TaskSpecification {
 
+    /**
+     * Combines the specifications of every criteria of the given filter.
+     */
+    public static Specification<Task> matches(TaskFilter filter) {
+        if (filter == null) {
+            return Specification.where(null);
+        }
+
+        return Specification.where(hasUserId(filter.userId()))
+                .and(hasSeverityTypeCode(filter.severityTypeCode()))
+                .and(hasTaskStatusTypeCode(filter.taskStatusTypeCode()))
+                .and(hasTitle(filter.title()))
+                .and(hasPriority(filter.priority()))
+                .and(wasCreatedBetween(filter.createdFrom(), filter.createdTo()))
+                .and(wasUpdatedBetween(filter.updatedFrom(), filter.updatedTo()))
+                .and(hasTags(filter.tagIds(), filter.tagMode()));
+    }
+
     public static Specification<Task> hasUserId(Long userId) {
         return (root, query, criteriaBuilder) -> userId == null ? null
                 : criteriaBuilder.equal(root.get("owner").get("id"), userId);
     }
 
+    /**
+     * Semi-join of the tasks with the given tags, served by the primary key of TASK_TAG, which starts with the tag.
+     * <p>
+     * With {@link TaskTagMode#ANY} (the default) the tasks with at least one of the tags are matched by an EXISTS,
+     * with {@link TaskTagMode#ALL} the tasks having every tag are found by grouping the association rows of the tags
+     * per task, without joining the tasks to the association.
+     */
+    public static Specification<Task> hasTags(List<Long> tagIds, TaskTagMode mode) {
+        return (root, query, criteriaBuilder) -> {
+            var ids = tagIds == null ? Set.<Long>of() : tagIds.stream().filter(Objects::nonNull).collect(Collectors.toCollection(TreeSet::new));
+            if (ids.isEmpty()) {
+                return null;
+            }
+
+            var subquery = query.subquery(Long.class);
+            var taskTag = subquery.from(TaskTag.class);
+            var taskId = taskTag.get("id").<Long>get("taskId");
+            var tagId = taskTag.get("id").<Long>get("tagId");
+
+            if (mode == TaskTagMode.ALL && ids.size() > 1) {
+                subquery.select(taskId)
+                        .where(tagId.in(ids))
+                        .groupBy(taskId)
+                        .having(criteriaBuilder.equal(criteriaBuilder.count(taskId), (long) ids.size()));
+
+                return root.get("id").in(subquery);
+            }
+
+            subquery.select(taskId).where(criteriaBuilder.equal(taskId, root.get("id")), tagId.in(ids));
+
+            return criteriaBuilder.exists(subquery);
+        };
+    }
+
     public static Specification<Task> hasTitle(String title) {
         return (root, query, criteriaBuilder) -> title == null ? null
                 : criteriaBuilder.like(criteriaBuilder.lower(root.get("title")), "%" + title.toLowerCase() + "%");
     }
 
+    /**
+     * Full-text search over the title and the description of the tasks, served by the search vector index.
+     * <p>
+     * The rows of the page are ordered by relevance and then by id. The order is not applied to count queries.
+     */
+    public static Specification<Task> matchesText(String text) {
+        return (root, query, criteriaBuilder) -> {
+            if (text == null) {
+                return null;
+            }
+
+            var vector = root.get("searchVector");
+            // Bound as a parameter instead of rendered as a literal in the SQL
+            var parameter = ((HibernateCriteriaBuilder) criteriaBuilder).value(text);
+
+            if (!isCountQuery(query)) {
+                query.orderBy(
+                        criteriaBuilder.desc(criteriaBuilder.function("fts_rank", Double.class, vector, parameter)),
+                        criteriaBuilder.asc(root.get("id")));
+            }
+
+            return criteriaBuilder.isTrue(criteriaBuilder.function("fts_match", Boolean.class, vector, parameter));
+        };
+    }
+
     public static Specification<Task> hasPriority(Integer priority) {
         return (root, query, criteriaBuilder) -> priority == null ? null
                 : criteriaBuilder.equal(root.get("priority"), priority);
@@ -31,4 +127,68 @@ public class TaskSpecification {
                 : criteriaBuilder.equal(root.get("taskStatusType"), taskStatusTypeCode);
     }
 
+    public static Specification<Task> wasCreatedBetween(LocalDateTime from, LocalDateTime to) {
+        return (root, query, criteriaBuilder) -> between(criteriaBuilder, root.get("createAt"), from, to);
+    }
+
+    public static Specification<Task> wasUpdatedBetween(LocalDateTime from, LocalDateTime to) {
+        return (root, query, criteriaBuilder) -> between(criteriaBuilder, root.get("updateAt"), from, to);
+    }
+
+    /**
+     * Keyset predicate selecting the tasks positioned after the given cursor, using the task id as tie-breaker.
+     */
+    public static Specification<Task> isAfter(TaskCursor cursor) {
+        return (root, query, criteriaBuilder) -> {
+            if (cursor == null) {
+                return null;
+            }
+
+            var ascending = cursor.direction() == Sort.Direction.ASC;
+            var idAfter = compare(criteriaBuilder, root.get("id"), cursor.id(), ascending);
+
+            if ("id".equals(cursor.property())) {
+                return idAfter;
+            }
+
+            return criteriaBuilder.or(
+                    compare(criteriaBuilder, root.get(cursor.property()), cursor.value(), ascending),
+                    criteriaBuilder.and(criteriaBuilder.equal(root.get(cursor.property()), cursor.value()), idAfter));
+        };
+    }
+
+    /**
+     * Fetches the owner of the tasks in the same query, for the finders that do not apply a fetch graph.
+     */
+    public static Specification<Task> fetchOwner() {
+        return (root, query, criteriaBuilder) -> {
+            if (!isCountQuery(query)) {
+                root.fetch("owner", JoinType.INNER);
+            }
+
+            return null;
+        };
+    }
+
+    private static boolean isCountQuery(CriteriaQuery<?> query) {
+        return Long.class.equals(query.getResultType());
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Predicate compare(CriteriaBuilder criteriaBuilder, Expression path, Comparable value, boolean ascending) {
+        return ascending ? criteriaBuilder.greaterThan(path, value) : criteriaBuilder.lessThan(path, value);
+    }
+
+    private static Predicate between(CriteriaBuilder criteriaBuilder, Expression<LocalDateTime> path, LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null) {
+            return criteriaBuilder.between(path, from, to);
+        }
+
+        if (from != null) {
+            return criteriaBuilder.greaterThanOrEqualTo(path, from);
+        }
+
+        return to == null ? null : criteriaBuilder.lessThanOrEqualTo(path, to);
+    }
+
 }
@@ -0,0 +1,91 @@
+package com.github.rhafaelcosta.todolist.repositories.specifications;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.github.rhafaelcosta.todolist.filters.UserCursor;
+import com.github.rhafaelcosta.todolist.filters.UserFilter;
+import com.github.rhafaelcosta.todolist.models.User;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+public class UserSpecification {
+
+    private static final char ESCAPE = '\\';
+
+    /**
+     * Combines the specifications of every criteria of the given filter.
+     */
+    public static Specification<User> matches(UserFilter filter) {
+        if (filter == null) {
+            return Specification.where(null);
+        }
+
+        return Specification.where(isActive(filter.active()))
+                .and(hasNamePrefix(filter.name()))
+                .and(hasEmailPrefix(filter.email()));
+    }
+
+    public static Specification<User> isActive(Boolean active) {
+        return (root, query, criteriaBuilder) -> active == null ? null
+                : criteriaBuilder.equal(root.get("active"), active);
+    }
+
+    /**
+     * Prefix search on the name, served by the index on {@code lower(name)}.
+     */
+    public static Specification<User> hasNamePrefix(String prefix) {
+        return (root, query, criteriaBuilder) -> startsWith(criteriaBuilder, root.get("name"), prefix);
+    }
+
+    /**
+     * Prefix search on the email, served by the index on {@code lower(email)}.
+     */
+    public static Specification<User> hasEmailPrefix(String prefix) {
+        return (root, query, criteriaBuilder) -> startsWith(criteriaBuilder, root.get("email"), prefix);
+    }
+
+    /**
+     * Keyset predicate selecting the users positioned after the given cursor, using the user id as tie-breaker.
+     */
+    public static Specification<User> isAfter(UserCursor cursor) {
+        return (root, query, criteriaBuilder) -> {
+            if (cursor == null) {
+                return null;
+            }
+
+            var ascending = cursor.direction() == Sort.Direction.ASC;
+            var idAfter = compare(criteriaBuilder, root.get("id"), cursor.id(), ascending);
+
+            if ("id".equals(cursor.property())) {
+                return idAfter;
+            }
+
+            return criteriaBuilder.or(
+                    compare(criteriaBuilder, root.get(cursor.property()), cursor.value(), ascending),
+                    criteriaBuilder.and(criteriaBuilder.equal(root.get(cursor.property()), cursor.value()), idAfter));
+        };
+    }
+
+    private static Predicate startsWith(CriteriaBuilder criteriaBuilder, Expression<String> path, String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return null;
+        }
+
+        // The wildcards of the prefix are escaped, so the pattern keeps a fixed prefix the index can seek to
+        var escaped = prefix.toLowerCase()
+                .replace(String.valueOf(ESCAPE), "" + ESCAPE + ESCAPE)
+                .replace("%", ESCAPE + "%")
+                .replace("_", ESCAPE + "_");
+
+        return criteriaBuilder.like(criteriaBuilder.lower(path), escaped + "%", ESCAPE);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Predicate compare(CriteriaBuilder criteriaBuilder, Expression path, Comparable value, boolean ascending) {
+        return ascending ? criteriaBuilder.greaterThan(path, value) : criteriaBuilder.lessThan(path, value);
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.github.rhafaelcosta.todolist.requests;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Request to create several tasks at once.
+ * <p>
+ * The tasks are not validated as a whole: each invalid task is rejected individually in the response.
+ */
+public record TaskBatchRequest(@NotEmpty @Size(max = 1000) List<TaskRequest> tasks) {
+
+}
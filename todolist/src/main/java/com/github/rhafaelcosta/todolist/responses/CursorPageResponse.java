@@ -0,0 +1,13 @@
+package com.github.rhafaelcosta.todolist.responses;
+
+import java.util.List;
+
+/**
+ * Page of results returned by the keyset (cursor) pagination mode.
+ * <p>
+ * {@code nextCursor} is an opaque token that must be sent back to fetch the following page,
+ * and is {@code null} when there are no more results.
+ */
+public record CursorPageResponse<T>(List<T> content, String nextCursor, int size) {
+
+}
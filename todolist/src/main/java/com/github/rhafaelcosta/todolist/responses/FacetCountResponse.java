@@ -0,0 +1,8 @@
+package com.github.rhafaelcosta.todolist.responses;
+
+/**
+ * Number of the filtered tasks with a value of a facet.
+ */
+public record FacetCountResponse<T>(T value, long count) {
+
+}
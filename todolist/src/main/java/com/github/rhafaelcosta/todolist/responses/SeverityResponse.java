@@ -1,9 +1,30 @@
 package com.github.rhafaelcosta.todolist.responses;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 import com.github.rhafaelcosta.todolist.enums.SeverityType;
 
 public record SeverityResponse(Integer id, String name) {
 
+    /**
+     * The responses are immutable, so a single instance per constant is shared by every task.
+     */
+    private static final Map<SeverityType, SeverityResponse> CONSTANTS = new EnumMap<>(SeverityType.class);
+
+    static {
+        for (var type : SeverityType.values()) {
+            CONSTANTS.put(type, new SeverityResponse(type));
+        }
+    }
+
+    /**
+     * Returns the shared response of the given constant.
+     */
+    public static SeverityResponse of(SeverityType severity) {
+        return CONSTANTS.get(severity);
+    }
+
     public SeverityResponse(SeverityType severity) {
         this(severity.getCode(), severity.getDescription());
     }
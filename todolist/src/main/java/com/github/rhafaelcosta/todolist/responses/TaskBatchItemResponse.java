@@ -0,0 +1,16 @@
+package com.github.rhafaelcosta.todolist.responses;
+
+/**
+ * Result of one task of a batch: the ID of the created task, or the reason why it was rejected.
+ */
+public record TaskBatchItemResponse(int index, Long id, String error) {
+
+    public static TaskBatchItemResponse created(int index, Long id) {
+        return new TaskBatchItemResponse(index, id, null);
+    }
+
+    public static TaskBatchItemResponse rejected(int index, String error) {
+        return new TaskBatchItemResponse(index, null, error);
+    }
+
+}
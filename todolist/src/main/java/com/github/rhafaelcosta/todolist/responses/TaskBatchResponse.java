@@ -0,0 +1,11 @@
+package com.github.rhafaelcosta.todolist.responses;
+
+import java.util.List;
+
+public record TaskBatchResponse(int created, int rejected, List<TaskBatchItemResponse> items) {
+
+    public TaskBatchResponse(List<TaskBatchItemResponse> items) {
+        this((int) items.stream().filter(i -> i.id() != null).count(), (int) items.stream().filter(i -> i.id() == null).count(), items);
+    }
+
+}
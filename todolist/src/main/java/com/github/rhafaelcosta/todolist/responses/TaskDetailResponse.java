@@ -19,7 +19,7 @@ public record TaskDetailResponse(
 
     public TaskDetailResponse(Task task) {
         this(task.getId(), task.getTitle(), task.getDescription(), new UserResponse(task.getOwner()),
-        task.getPriority(), new SeverityResponse(task.getSeverityType()), new TaskStatusResponse(task.getTaskStatusType()), new ArrayList<>());
+        task.getPriority(), SeverityResponse.of(task.getSeverityType()), TaskStatusResponse.of(task.getTaskStatusType()), new ArrayList<>());
 
         var list = task.getTags().stream().map(TagResponse::new).collect(Collectors.toList());
         this.tags.addAll(list);
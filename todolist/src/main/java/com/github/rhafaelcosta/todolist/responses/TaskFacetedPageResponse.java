@@ -0,0 +1,16 @@
+package com.github.rhafaelcosta.todolist.responses;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+
+/**
+ * Page of the task listing with the facet counts of all the filtered tasks.
+ */
+public record TaskFacetedPageResponse(List<TaskResponse> content, TaskFacetsResponse facets, long totalElements, int totalPages, int number, int size) {
+
+    public static TaskFacetedPageResponse of(Page<TaskResponse> page, TaskFacetsResponse facets) {
+        return new TaskFacetedPageResponse(page.getContent(), facets, page.getTotalElements(), page.getTotalPages(), page.getNumber(), page.getSize());
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.github.rhafaelcosta.todolist.responses;
+
+import java.util.List;
+
+/**
+ * Number of the filtered tasks per status, severity, priority and tag, the values with no task left out.
+ */
+public record TaskFacetsResponse(List<FacetCountResponse<TaskStatusResponse>> taskStatusTypes,
+                                 List<FacetCountResponse<SeverityResponse>> severityTypes,
+                                 List<FacetCountResponse<Integer>> priorities,
+                                 List<FacetCountResponse<TagResponse>> tags) {
+
+}
@@ -0,0 +1,21 @@
+package com.github.rhafaelcosta.todolist.responses;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Page of a sparse task listing. When normalized, the owners of the tasks in the page are returned once, by id,
+ * in {@code users}.
+ */
+public record TaskFieldsPageResponse(List<TaskFieldsResponse> content, @JsonInclude(JsonInclude.Include.NON_NULL) Map<Long, UserResponse> users,
+                                     long totalElements, int totalPages, int number, int size) {
+
+    public static TaskFieldsPageResponse of(Page<TaskFieldsResponse> page, Map<Long, UserResponse> users) {
+        return new TaskFieldsPageResponse(page.getContent(), users, page.getTotalElements(), page.getTotalPages(), page.getNumber(), page.getSize());
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.github.rhafaelcosta.todolist.responses;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Task of a sparse listing, with only the selected fields. The fields not selected, and the null ones, are omitted.
+ * <p>
+ * The owner is either embedded in {@code user} or, when normalized, referenced by {@code userId}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TaskFieldsResponse(Long id, String title, String description, Integer priority, SeverityResponse severityType,
+                                 TaskStatusResponse taskStatusType, Long userId, UserResponse user, List<TagResponse> tags) {
+
+}
@@ -0,0 +1,20 @@
+package com.github.rhafaelcosta.todolist.responses;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.github.rhafaelcosta.todolist.imports.TaskImportProgress;
+
+/**
+ * Progress of a task import. The rows read include the rejected ones, the rows imported are only known at the end.
+ */
+public record TaskImportResponse(UUID id, String format, String status, LocalDateTime startedAt, LocalDateTime finishedAt,
+        long rowsRead, long rowsImported, long rowsRejected, @JsonInclude(JsonInclude.Include.NON_NULL) String error) {
+
+    public TaskImportResponse(TaskImportProgress progress) {
+        this(progress.getId(), progress.getFormat().getMediaType().toString(), progress.getStatus().name(), progress.getStartedAt(),
+                progress.getFinishedAt(), progress.getRowsRead(), progress.getRowsImported(), progress.getRowsRejected(), progress.getError());
+    }
+
+}
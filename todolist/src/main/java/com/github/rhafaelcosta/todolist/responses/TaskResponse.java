@@ -1,13 +1,28 @@
 package com.github.rhafaelcosta.todolist.responses;
 
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.github.rhafaelcosta.todolist.models.Task;
 
 public record TaskResponse(Long id, String title, String description, UserResponse user, Integer priority,
-        SeverityResponse severityType, TaskStatusResponse taskStatusType) {
+        SeverityResponse severityType, TaskStatusResponse taskStatusType,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<TagResponse> tags) {
 
     public TaskResponse(Task task) {
-        this(task.getId(), task.getTitle(), task.getDescription(), new UserResponse(task.getOwner()),
-                task.getPriority(), new SeverityResponse(task.getSeverityType()), new TaskStatusResponse(task.getTaskStatusType()));
+        this(task, null);
+    }
+
+    public TaskResponse(Task task, List<TagResponse> tags) {
+        this(task, new UserResponse(task.getOwner()), tags);
+    }
+
+    /**
+     * Builds the response with an owner response that may be shared with other tasks of the same owner.
+     */
+    public TaskResponse(Task task, UserResponse user, List<TagResponse> tags) {
+        this(task.getId(), task.getTitle(), task.getDescription(), user, task.getPriority(),
+                SeverityResponse.of(task.getSeverityType()), TaskStatusResponse.of(task.getTaskStatusType()), tags);
     }
 
 }
@@ -0,0 +1,25 @@
+package com.github.rhafaelcosta.todolist.responses;
+
+import java.util.List;
+
+import com.github.rhafaelcosta.todolist.repositories.projections.TaskGroupCount;
+
+/**
+ * Number of tasks of every user, in total and per status, severity and priority. Only the combinations with tasks
+ * are listed, the tasks without a status or a severity are listed with a null one.
+ */
+public record TaskStatsResponse(long total, List<Count> counts) {
+
+    public record Count(TaskStatusResponse status, SeverityResponse severity, Integer priority, long count) { }
+
+    public static TaskStatsResponse of(List<TaskGroupCount> counts) {
+        var cells = counts.stream()
+                .map(count -> new Count(count.status() == null ? null : TaskStatusResponse.of(count.status()),
+                        count.severity() == null ? null : SeverityResponse.of(count.severity()),
+                        count.priority(), count.count()))
+                .toList();
+
+        return new TaskStatsResponse(counts.stream().mapToLong(TaskGroupCount::count).sum(), cells);
+    }
+
+}
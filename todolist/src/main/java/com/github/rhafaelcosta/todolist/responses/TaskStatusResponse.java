@@ -1,9 +1,30 @@
 package com.github.rhafaelcosta.todolist.responses;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 import com.github.rhafaelcosta.todolist.enums.TaskStatusType;
 
 public record TaskStatusResponse(Integer id, String name) {
 
+    /**
+     * The responses are immutable, so a single instance per constant is shared by every task.
+     */
+    private static final Map<TaskStatusType, TaskStatusResponse> CONSTANTS = new EnumMap<>(TaskStatusType.class);
+
+    static {
+        for (var type : TaskStatusType.values()) {
+            CONSTANTS.put(type, new TaskStatusResponse(type));
+        }
+    }
+
+    /**
+     * Returns the shared response of the given constant.
+     */
+    public static TaskStatusResponse of(TaskStatusType taskStatus) {
+        return CONSTANTS.get(taskStatus);
+    }
+
     public TaskStatusResponse(TaskStatusType taskStatus) {
         this(taskStatus.getCode(), taskStatus.getDescription());
     }
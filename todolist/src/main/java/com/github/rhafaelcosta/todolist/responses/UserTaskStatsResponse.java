@@ -0,0 +1,51 @@
+package com.github.rhafaelcosta.todolist.responses;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+
+import com.github.rhafaelcosta.todolist.enums.SeverityType;
+import com.github.rhafaelcosta.todolist.enums.TaskStatusType;
+import com.github.rhafaelcosta.todolist.repositories.projections.TaskStatsCount;
+
+/**
+ * Number of tasks of a user, in total, per status, per severity and per status and severity.
+ * <p>
+ * Every status and severity is listed, with zero tasks if there are none, while the counts per status and
+ * severity only list the combinations the user has tasks in.
+ */
+public record UserTaskStatsResponse(Long userId, long total, List<StatusCount> byStatus, List<SeverityCount> bySeverity, List<Count> counts) {
+
+    public record StatusCount(TaskStatusResponse status, long count) { }
+
+    public record SeverityCount(SeverityResponse severity, long count) { }
+
+    public record Count(TaskStatusResponse status, SeverityResponse severity, long count) { }
+
+    public static UserTaskStatsResponse of(Long userId, List<TaskStatsCount> counts) {
+        var total = 0L;
+        var byStatus = new EnumMap<TaskStatusType, Long>(TaskStatusType.class);
+        var bySeverity = new EnumMap<SeverityType, Long>(SeverityType.class);
+        var cells = new ArrayList<Count>(counts.size());
+
+        for (var count : counts) {
+            total += count.count();
+            byStatus.merge(count.status(), count.count(), Long::sum);
+            bySeverity.merge(count.severity(), count.count(), Long::sum);
+            cells.add(new Count(TaskStatusResponse.of(count.status()), SeverityResponse.of(count.severity()), count.count()));
+        }
+
+        var statuses = new ArrayList<StatusCount>();
+        for (var status : TaskStatusType.values()) {
+            statuses.add(new StatusCount(TaskStatusResponse.of(status), byStatus.getOrDefault(status, 0L)));
+        }
+
+        var severities = new ArrayList<SeverityCount>();
+        for (var severity : SeverityType.values()) {
+            severities.add(new SeverityCount(SeverityResponse.of(severity), bySeverity.getOrDefault(severity, 0L)));
+        }
+
+        return new UserTaskStatsResponse(userId, total, statuses, severities, cells);
+    }
+
+}
@@ -1,5 +1,8 @@
 package com.github.rhafaelcosta.todolist.services;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
@@ -8,22 +11,38 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import com.github.rhafaelcosta.todolist.caches.ListCacheKey;
+import com.github.rhafaelcosta.todolist.caches.ListResultCache;
+import com.github.rhafaelcosta.todolist.caches.ListResultCache.Scope;
+import com.github.rhafaelcosta.todolist.caches.TagCatalog;
+import com.github.rhafaelcosta.todolist.datasources.ReadOnlyTransactional;
 import com.github.rhafaelcosta.todolist.exceptions.EntityAlreadyExistsException;
 import com.github.rhafaelcosta.todolist.models.Tag;
+import com.github.rhafaelcosta.todolist.repositories.ChangeStampRepository;
 import com.github.rhafaelcosta.todolist.repositories.TagRepository;
+import com.github.rhafaelcosta.todolist.repositories.projections.ChangeStamp;
 import com.github.rhafaelcosta.todolist.repositories.specifications.TagSpecification;
 import com.github.rhafaelcosta.todolist.requests.TagRequest;
 import com.github.rhafaelcosta.todolist.responses.TagResponse;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
 
 @Service
+@Timed(value = "todolist.service", histogram = true)
 public class TagService {
 
     private final TagRepository tagRepository;
+    private final ChangeStampRepository changeStampRepository;
+    private final ListResultCache listCache;
+    private final TagCatalog tagCatalog;
 
-    TagService(TagRepository tagRepository) {
+    TagService(TagRepository tagRepository, ChangeStampRepository changeStampRepository, ListResultCache listCache, TagCatalog tagCatalog) {
         this.tagRepository = tagRepository;
+        this.changeStampRepository = changeStampRepository;
+        this.listCache = listCache;
+        this.tagCatalog = tagCatalog;
     }
 
     /**
@@ -31,22 +50,28 @@ public class TagService {
      * <p>
      * This method uses the {@link Pageable} interface to enable pagination of the result set.
      * The {@link Pageable} object should contain information about the page number, page size, and sorting options.
+     * Pages are cached until a tag is written.
      *
      * @param pageable a {@link Pageable} object containing pagination information
      * @return a {@link Page} of {@link Tag} objects representing the requested page of tags
      */
+    @ReadOnlyTransactional
     public Page<TagResponse> getPaginatedTagsByFilter(String name, Pageable pageable) {
-        Page<Tag> tagPagination;
-        if (name != null && !name.isEmpty()) {
-            tagPagination = tagRepository.findByNameContaining(name, pageable);
-        } else {
-            tagPagination = tagRepository.findAll(pageable);
-        }
+        var key = ListCacheKey.of("tags.page", name, pageable, listCache.generation(Scope.TAGS));
+
+        return listCache.get(key, () -> {
+            Page<Tag> tagPagination;
+            if (name != null && !name.isEmpty()) {
+                tagPagination = tagRepository.findByNameContaining(name, pageable);
+            } else {
+                tagPagination = tagRepository.findAll(pageable);
+            }
 
-        var tags = tagPagination.stream().map(TagResponse::new).collect(Collectors.toList());
-        var totalOfTags = countTagsByFilter(name);
+            // The total is counted by the same call that fetched the page
+            var tags = tagPagination.stream().map(TagResponse::new).collect(Collectors.toList());
 
-        return new PageImpl<>(tags, pageable, totalOfTags);
+            return new PageImpl<>(tags, pageable, tagPagination.getTotalElements());
+        });
     }
 
     /**
@@ -58,13 +83,49 @@ public class TagService {
      * @param name the name of the tag to filter by. If null or empty, no filters are applied.
      * @return the total number of tags that match the given name filter, or the total count of all tags if no filter is applied.
      */
+    @ReadOnlyTransactional
     public Long countTagsByFilter(String name) {
-        if (name == null || name.isEmpty()) {
-            return tagRepository.count();
+        var key = ListCacheKey.of("tags.count", name, listCache.generation(Scope.TAGS));
+
+        return listCache.get(key, () -> {
+            if (name == null || name.isEmpty()) {
+                return tagRepository.count();
+            }
+
+            Specification<Tag> specification = Specification.where(TagSpecification.hasName(name));
+            return tagRepository.count(specification);
+        });
+    }
+
+    /**
+     * Returns the change stamp of all the tags, used to validate the cached pages of the clients whatever their filter.
+     * The stamp is cached until a tag is written.
+     *
+     * @return the {@link ChangeStamp} of the tags
+     */
+    @ReadOnlyTransactional
+    public ChangeStamp getChangeStamp() {
+        var key = ListCacheKey.of("tags.stamp", listCache.generation(Scope.TAGS));
+
+        return listCache.get(key, () -> changeStampRepository.find(Tag.class, null));
+    }
+
+    /**
+     * Returns the change stamp of a tag, without loading it.
+     *
+     * @param id the ID of the tag
+     * @return the {@link ChangeStamp} of the tag
+     * @throws EntityNotFoundException if no tag is found with the given ID
+     */
+    @ReadOnlyTransactional
+    public ChangeStamp getChangeStamp(Long id) throws EntityNotFoundException {
+        var stamp = changeStampRepository.find(Tag.class, (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("id"), id));
+
+        if (stamp.count() == 0) {
+            throw new EntityNotFoundException(String.format("Tag not found with id: %d", id));
         }
 
-        Specification<Tag> specification = Specification.where(TagSpecification.hasName(name));
-        return tagRepository.count(specification);
+        return stamp;
     }
 
     /**
@@ -74,6 +135,7 @@ public class TagService {
      * @return the found {@link Tag} object
      * @throws EntityNotFoundException if no tag is found with the given ID
      */
+    @ReadOnlyTransactional
     public Tag findById(Long id) throws EntityNotFoundException {
         return tagRepository.findById(id)
                             .orElseThrow( () ->
@@ -81,6 +143,52 @@ public class TagService {
                             );
     }
 
+    /**
+     * Returns a reference to the tag with the given ID, to be associated with other entities.
+     * <p>
+     * The existence of the tag is checked in the {@link TagCatalog} and the returned reference is not loaded,
+     * so no query is executed when the tag is already known.
+     *
+     * @param id the ID of the tag
+     * @return a reference to the {@link Tag}
+     * @throws EntityNotFoundException if no tag is found with the given ID
+     */
+    public Tag getReferenceById(Long id) throws EntityNotFoundException {
+        tagCatalog.findById(id)
+                  .orElseThrow( () ->
+                      new EntityNotFoundException(String.format("Tag not found with id: %d", id))
+                  );
+
+        return tagRepository.getReferenceById(id);
+    }
+
+    /**
+     * Returns references to all the existing tags with the given IDs, checked in the {@link TagCatalog}.
+     * <p>
+     * IDs that do not exist are ignored, so the result may be smaller than the given collection. The tags missing
+     * from the catalog are loaded with a single query.
+     *
+     * @param ids the IDs of the tags
+     * @return the references to the {@link Tag} objects, by ID
+     */
+    public Map<Long, Tag> getReferencesById(Collection<Long> ids) {
+        return tagCatalog.findAllById(ids).keySet().stream()
+                  .collect(Collectors.toMap(Function.identity(), tagRepository::getReferenceById));
+    }
+
+    /**
+     * Returns the tags with the given IDs from the {@link TagCatalog}, in the order of the IDs.
+     * <p>
+     * IDs that do not exist are ignored, so the result may be smaller than the given collection. The tags missing
+     * from the catalog are loaded with a single query.
+     *
+     * @param ids the IDs of the tags
+     * @return the {@link TagResponse} objects, by ID
+     */
+    public Map<Long, TagResponse> getResponsesById(Collection<Long> ids) {
+        return tagCatalog.findAllById(ids);
+    }
+
     /**
      * Saves a new tag.
      *
@@ -92,7 +200,11 @@ public class TagService {
         // Call the method to verify the existence of a tag with this name
         this.verifyTagNameAlreadyExists(request);
 
-        return tagRepository.save(new Tag(request.name()));
+        var tag = tagRepository.save(new Tag(request.name()));
+        tagCatalog.put(tag);
+        listCache.invalidate(Scope.TAGS);
+
+        return tag;
     }
 
     /**
@@ -104,6 +216,7 @@ public class TagService {
      * @throws EntityNotFoundException if no tag is found with the given ID
      * @throws EntityAlreadyExistsException if a tag with the new name already exists
     */
+    @Transactional
     public Tag save(Long id, TagRequest request) throws EntityNotFoundException, EntityAlreadyExistsException {
         // Call the method to verify the existence of a tag
         var tag = findById(id);
@@ -112,6 +225,8 @@ public class TagService {
 
         tag.setName(request.name());
         tagRepository.save(tag);
+        tagCatalog.put(tag);
+        listCache.invalidate(Scope.TAGS);
 
         return tag;
     }
@@ -122,21 +237,28 @@ public class TagService {
      * @param id the ID of the tag to be deleted
      * @throws EntityNotFoundException if no tag is found with the given ID
     */
+    @Transactional
     public void delete(Long id) throws EntityNotFoundException {
         var tag = findById(id);
         this.tagRepository.deleteById(tag.getId());
+        tagCatalog.remove(tag.getId());
+        listCache.invalidate(Scope.TAGS);
     }
 
     /**
-     * Verifies if a tag with the same name already exists.
+     * Verifies if a tag with the same name, ignoring case, already exists.
+     * <p>
+     * The name is looked up in the {@link TagCatalog}, then in the database when the catalog does not know it, as it
+     * only sees the tags written by other instances when it is reloaded.
      *
      * @param request the request object containing the name to be checked
      * @throws EntityAlreadyExistsException if a tag with the same name already exists
     */
     private void verifyTagNameAlreadyExists(TagRequest request) throws EntityAlreadyExistsException {
-        var tag = this.tagRepository.findByNameIgnoreCase(request.name());
+        var exists = this.tagCatalog.findByName(request.name()).isPresent()
+                || this.tagRepository.existsByNameIgnoreCase(request.name());
 
-        if (tag.isPresent()) {
+        if (exists) {
             throw new EntityAlreadyExistsException(String.format("This tag name '%s' is already in use!", request.name()));
         }
     }
@@ -0,0 +1,210 @@
+package com.github.rhafaelcosta.todolist.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.rhafaelcosta.todolist.caches.ListResultCache;
+import com.github.rhafaelcosta.todolist.caches.TaskStatsCounters;
+import com.github.rhafaelcosta.todolist.enums.SeverityType;
+import com.github.rhafaelcosta.todolist.enums.TaskStatusType;
+import com.github.rhafaelcosta.todolist.imports.RejectedRowWriter;
+import com.github.rhafaelcosta.todolist.imports.TaskImportFormat;
+import com.github.rhafaelcosta.todolist.imports.TaskImportProgress;
+import com.github.rhafaelcosta.todolist.imports.TaskImportRegistry;
+import com.github.rhafaelcosta.todolist.imports.TaskImportRow;
+import com.github.rhafaelcosta.todolist.repositories.TaskImportRepository;
+import com.github.rhafaelcosta.todolist.requests.TaskRequest;
+import com.github.rhafaelcosta.todolist.responses.TagResponse;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import jakarta.validation.Validator;
+
+/**
+ * Service class for the bulk import of tasks.
+ */
+@Service
+@Timed(value = "todolist.service", histogram = true)
+public class TaskImportService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskImportService.class);
+
+    /**
+     * Length of the VARCHAR columns of the TASK table.
+     */
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final TaskImportRepository taskImportRepository;
+    private final TaskImportRegistry importRegistry;
+    private final ListResultCache listCache;
+    private final TaskStatsCounters taskStatsCounters;
+    private final TaskIndexService taskIndexService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final long progressInterval;
+
+    public TaskImportService(TaskImportRepository taskImportRepository, TaskImportRegistry importRegistry, ListResultCache listCache,
+                             TaskStatsCounters taskStatsCounters, TaskIndexService taskIndexService, ObjectMapper objectMapper, Validator validator,
+                             @Value("${todolist.import.progress-interval:100000}") long progressInterval) {
+        this.taskImportRepository = taskImportRepository;
+        this.importRegistry = importRegistry;
+        this.listCache = listCache;
+        this.taskStatsCounters = taskStatsCounters;
+        this.taskIndexService = taskIndexService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.progressInterval = progressInterval;
+    }
+
+    /**
+     * Imports the tasks of a file in a single transaction.
+     * <p>
+     * The file is read as it is received: each row is parsed and validated on its own, and the valid ones are
+     * streamed to a staging table with the COPY protocol. The owners and tags of all the staged rows are then
+     * checked with one statement and the remaining rows are inserted into TASK and TASK_TAG with another, so the
+     * cost per row does not include any round trip to the database. Each invalid row is written to the rejected
+     * rows file of the import and does not prevent the others from being imported.
+     * <p>
+     * The progress of the import is available in the {@link TaskImportRegistry} while it runs.
+     *
+     * @param format the format of the file.
+     * @param input  the content of the file, not closed by this method.
+     * @return the progress of the finished import.
+     * @throws IOException if the file cannot be read, in which case nothing is imported.
+     */
+    @Transactional(rollbackOn = IOException.class)
+    public TaskImportProgress importTasks(TaskImportFormat format, InputStream input) throws IOException {
+        var progress = importRegistry.start(format);
+        var result = new long[1];
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    progress.complete(result[0]);
+                } else if (!progress.isFinished()) {
+                    progress.fail("The import was rolled back");
+                }
+
+                LOGGER.info("Import {} {}: {} rows read, {} imported, {} rejected", progress.getId(), progress.getStatus(),
+                        progress.getRowsRead(), progress.getRowsImported(), progress.getRowsRejected());
+            }
+        });
+
+        try (var rejected = new RejectedRowWriter(progress.getRejectedFile())) {
+            stage(format, input, progress, rejected);
+
+            progress.validating();
+            taskImportRepository.analyzeStaging();
+            taskImportRepository.rejectUnknownReferences(rs -> {
+                try {
+                    rejected.write(rs.getLong("line"), rs.getString("reason"), rs.getString("source"));
+                    progress.rowRejected();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            progress.merging();
+            taskImportRepository.findStagedOwnerIds().forEach(listCache::invalidateOwner);
+            var changes = new TaskStatsCounters.Changes();
+            taskImportRepository.countStaged().forEach(changes::add);
+            result[0] = taskImportRepository.merge();
+            taskStatsCounters.apply(changes);
+            // The merged tasks are not reported one by one, the task index is built again
+            taskIndexService.rebuildAfterCompletion();
+        } catch (IOException | RuntimeException e) {
+            progress.fail(e.getMessage());
+            throw e;
+        }
+
+        return progress;
+    }
+
+    /**
+     * Reads the file and copies its valid rows to the staging table.
+     */
+    private void stage(TaskImportFormat format, InputStream input, TaskImportProgress progress, RejectedRowWriter rejected) throws IOException {
+        TaskImportRepository.StagingWriter staging;
+        try {
+            staging = taskImportRepository.openStaging();
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+
+        try (var reader = format.newReader(input, objectMapper)) {
+            TaskImportRow row;
+            while ((row = reader.next()) != null) {
+                progress.rowRead();
+
+                var error = row.error() != null ? row.error() : validate(row.task());
+                if (error != null) {
+                    rejected.write(row.line(), error, row.source());
+                    progress.rowRejected();
+                } else {
+                    staging.write(row);
+                }
+
+                if (progress.getRowsRead() % progressInterval == 0) {
+                    LOGGER.info("Import {}: {} rows read, {} rejected", progress.getId(), progress.getRowsRead(), progress.getRowsRejected());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // The connection cannot roll back the transaction while the copy is in progress
+            staging.abort();
+            throw e;
+        }
+
+        staging.close();
+    }
+
+    /**
+     * Validates a row with the constraints of the task endpoints and of the TASK table.
+     *
+     * @return the reason why the row is invalid, or null if it is valid
+     */
+    private String validate(TaskRequest task) {
+        var violations = validator.validate(task);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+
+        if (task.title().length() > MAX_TEXT_LENGTH || (task.description() != null && task.description().length() > MAX_TEXT_LENGTH)) {
+            return String.format("title and description must not be longer than %d characters", MAX_TEXT_LENGTH);
+        }
+
+        // PostgreSQL text cannot contain the NUL character
+        if (task.title().indexOf('\0') >= 0 || (task.description() != null && task.description().indexOf('\0') >= 0)) {
+            return "title and description must not contain the NUL character";
+        }
+
+        if (SeverityType.fromCode(task.severityType()) == null) {
+            return "Invalid SeverityType code: " + task.severityType();
+        }
+
+        if (TaskStatusType.fromCode(task.taskStatusType()) == null) {
+            return "Invalid TaskStatusType code: " + task.taskStatusType();
+        }
+
+        if (task.tags() != null && task.tags().stream().map(TagResponse::id).anyMatch(id -> id == null)) {
+            return "tags: the id of every tag is required";
+        }
+
+        return null;
+    }
+
+}
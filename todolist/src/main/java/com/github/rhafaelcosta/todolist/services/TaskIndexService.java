@@ -0,0 +1,137 @@
+package com.github.rhafaelcosta.todolist.services;
+
+import java.util.HashSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.rhafaelcosta.todolist.caches.TaskBitmapIndex;
+import com.github.rhafaelcosta.todolist.repositories.TaskIndexRepository;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Service class for the in-memory {@link TaskBitmapIndex}: builds it at startup, on the primary as it must include
+ * the latest writes, and compares it periodically with the database, rebuilding it when they differ.
+ */
+@Service
+@Timed(value = "todolist.service", histogram = true)
+public class TaskIndexService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskIndexService.class);
+
+    private final TaskBitmapIndex taskBitmapIndex;
+    private final TaskIndexRepository taskIndexRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final int fetchSize;
+
+    public TaskIndexService(TaskBitmapIndex taskBitmapIndex, TaskIndexRepository taskIndexRepository, TransactionTemplate transactionTemplate,
+                            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                            @Value("${todolist.task-index.fetch-size:10000}") int fetchSize) {
+        this.taskBitmapIndex = taskBitmapIndex;
+        this.taskIndexRepository = taskIndexRepository;
+        // The cursors are only read in batches within a transaction of their own, never in the one of a caller
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager(), transactionTemplate);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.taskExecutor = taskExecutor;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Builds the index from all the tasks and their tags, read from cursors. The index does not answer while it is
+     * built, the counts being taken from the database meanwhile.
+     *
+     * @return whether the index was built, false if it is disabled or the build failed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized boolean rebuild() {
+        if (!taskBitmapIndex.isEnabled()) {
+            return false;
+        }
+
+        var builder = taskBitmapIndex.startBuild();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                taskIndexRepository.forEachTask(fetchSize, rs -> builder.addTask(rs.getLong(1), rs.getObject(2, Long.class),
+                        rs.getObject(3, Integer.class), rs.getObject(4, Integer.class), rs.getObject(5, Integer.class)));
+                taskIndexRepository.forEachTaskTag(fetchSize, rs -> builder.addTag(rs.getLong(1), rs.getLong(2)));
+            });
+        } catch (DataAccessException | IllegalArgumentException e) {
+            builder.abort();
+            LOGGER.warn("Task index not built: {}", e.getMessage());
+            return false;
+        }
+
+        var built = builder.finish();
+        if (built) {
+            LOGGER.info("Task index built: {} tasks in {} bytes", taskBitmapIndex.getTaskCount(), taskBitmapIndex.getSizeInBytes());
+        }
+
+        return built;
+    }
+
+    /**
+     * Rebuilds the index once the current transaction ends, for the writes that change the tasks in bulk without
+     * reporting each one. The index stops answering right away, as it will miss the written tasks.
+     * <p>
+     * The rebuild runs on the application task executor, so the request that wrote the tasks does not wait for it.
+     */
+    public void rebuildAfterCompletion() {
+        if (!taskBitmapIndex.isEnabled()) {
+            return;
+        }
+
+        taskBitmapIndex.invalidate();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                taskExecutor.execute(TaskIndexService.this::rebuild);
+            }
+        });
+    }
+
+    /**
+     * Compares the number of tasks per value of every dimension of the index with the database, rebuilding the index
+     * when they differ, like after tasks written by other instances or directly in the database.
+     * <p>
+     * The index is read before and after querying the database: when it changed meanwhile and matches neither, the
+     * difference may come from the writes committed during the query, and the check is left for the next run.
+     *
+     * @return false if the index differed from the database and was rebuilt
+     */
+    @Scheduled(fixedDelayString = "${todolist.task-index.verify-interval:PT15M}", initialDelayString = "${todolist.task-index.verify-interval:PT15M}")
+    public boolean verify() {
+        if (!taskBitmapIndex.isReady()) {
+            return true;
+        }
+
+        var before = new HashSet<>(taskBitmapIndex.counts());
+        var actual = new HashSet<>(transactionTemplate.execute(status -> taskIndexRepository.countDimensions()));
+        var after = new HashSet<>(taskBitmapIndex.counts());
+
+        if (actual.equals(before) || actual.equals(after) || !before.equals(after) || !taskBitmapIndex.isReady()) {
+            return true;
+        }
+
+        var differences = new HashSet<>(actual);
+        differences.removeAll(after);
+        LOGGER.warn("Task index differs from the database in {} counts, rebuilding it", differences.size());
+        rebuild();
+
+        return false;
+    }
+
+}
@@ -1,43 +1,127 @@
 package com.github.rhafaelcosta.todolist.services;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 
+import com.github.rhafaelcosta.todolist.caches.ListCacheKey;
+import com.github.rhafaelcosta.todolist.caches.ListResultCache;
+import com.github.rhafaelcosta.todolist.caches.ListResultCache.Scope;
+import com.github.rhafaelcosta.todolist.caches.TaskBitmapIndex;
+import com.github.rhafaelcosta.todolist.caches.TaskStatsCounters;
+import com.github.rhafaelcosta.todolist.caches.TaskStatsCounters.Changes;
+import com.github.rhafaelcosta.todolist.datasources.ReadOnlyTransactional;
 import com.github.rhafaelcosta.todolist.enums.SeverityType;
 import com.github.rhafaelcosta.todolist.enums.TaskStatusType;
 import com.github.rhafaelcosta.todolist.exceptions.EnumNotFoundException;
+import com.github.rhafaelcosta.todolist.exceptions.InvalidCursorException;
+import com.github.rhafaelcosta.todolist.exports.TaskExportFormat;
+import com.github.rhafaelcosta.todolist.filters.TaskCursor;
+import com.github.rhafaelcosta.todolist.filters.TaskFieldSet;
 import com.github.rhafaelcosta.todolist.filters.TaskFilter;
 import com.github.rhafaelcosta.todolist.models.Tag;
 import com.github.rhafaelcosta.todolist.models.Task;
+import com.github.rhafaelcosta.todolist.models.User;
+import com.github.rhafaelcosta.todolist.repositories.ChangeStampRepository;
+import com.github.rhafaelcosta.todolist.repositories.TaskFacetsRepository;
+import com.github.rhafaelcosta.todolist.repositories.TaskFieldsRepository;
 import com.github.rhafaelcosta.todolist.repositories.TaskRepository;
+import com.github.rhafaelcosta.todolist.repositories.TaskStatsRepository;
+import com.github.rhafaelcosta.todolist.repositories.TaskStatsRepository.Deltas;
+import com.github.rhafaelcosta.todolist.repositories.projections.ChangeStamp;
+import com.github.rhafaelcosta.todolist.repositories.projections.TaskFacetCounts;
+import com.github.rhafaelcosta.todolist.repositories.projections.TaskFieldsProjection;
 import com.github.rhafaelcosta.todolist.repositories.specifications.TaskSpecification;
 import com.github.rhafaelcosta.todolist.requests.TaskRequest;
+import com.github.rhafaelcosta.todolist.responses.CursorPageResponse;
+import com.github.rhafaelcosta.todolist.responses.FacetCountResponse;
+import com.github.rhafaelcosta.todolist.responses.SeverityResponse;
+import com.github.rhafaelcosta.todolist.responses.TagResponse;
+import com.github.rhafaelcosta.todolist.responses.TaskBatchItemResponse;
+import com.github.rhafaelcosta.todolist.responses.TaskFacetedPageResponse;
+import com.github.rhafaelcosta.todolist.responses.TaskFacetsResponse;
+import com.github.rhafaelcosta.todolist.responses.TaskFieldsPageResponse;
+import com.github.rhafaelcosta.todolist.responses.TaskFieldsResponse;
 import com.github.rhafaelcosta.todolist.responses.TaskResponse;
+import com.github.rhafaelcosta.todolist.responses.TaskStatusResponse;
+import com.github.rhafaelcosta.todolist.responses.UserResponse;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
+import jakarta.validation.Validator;
 
 /**
  * Service class for managing tasks.
  */
 @Service
+@Timed(value = "todolist.service", histogram = true)
 public class TaskService {
 
     private final TagService tagService;
     private final UserService userService;
     private final TaskRepository taskRepository;
-
-    public TaskService(TagService tagService, UserService userService, TaskRepository taskRepository) {
+    private final TaskFieldsRepository taskFieldsRepository;
+    private final TaskFacetsRepository taskFacetsRepository;
+    private final ChangeStampRepository changeStampRepository;
+    private final TaskStatsRepository taskStatsRepository;
+    private final TaskStatsCounters taskStatsCounters;
+    private final TaskBitmapIndex taskBitmapIndex;
+    private final ListResultCache listCache;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int exportFetchSize;
+
+    public TaskService(TagService tagService, UserService userService,
+                       TaskRepository taskRepository, TaskFieldsRepository taskFieldsRepository, TaskFacetsRepository taskFacetsRepository,
+                       ChangeStampRepository changeStampRepository, TaskStatsRepository taskStatsRepository,
+                       TaskStatsCounters taskStatsCounters, TaskBitmapIndex taskBitmapIndex, ListResultCache listCache,
+                       EntityManager entityManager, Validator validator, ObjectMapper objectMapper,
+                       @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+                       @Value("${todolist.export.fetch-size:1000}") int exportFetchSize) {
         this.tagService = tagService;
         this.userService = userService;
         this.taskRepository = taskRepository;
+        this.taskFieldsRepository = taskFieldsRepository;
+        this.taskFacetsRepository = taskFacetsRepository;
+        this.changeStampRepository = changeStampRepository;
+        this.taskStatsRepository = taskStatsRepository;
+        this.taskStatsCounters = taskStatsCounters;
+        this.taskBitmapIndex = taskBitmapIndex;
+        this.listCache = listCache;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.exportFetchSize = exportFetchSize;
     }
 
     /**
@@ -50,17 +134,222 @@ public class TaskService {
      * @param pageable a {@link Pageable} object containing pagination information (page number, size, and sorting).
      * @return a {@link Page} of {@link TaskResponse} objects representing the requested page of tasks.
      */
+    @ReadOnlyTransactional
     public Page<TaskResponse> getPaginatedTasksByFilter(TaskFilter filter, Pageable pageable) {
-        // Get the filtered and paginated list of tasks
-        var data =  findTasksByFilter(filter, pageable);
+        return getPaginatedTasksByFilter(filter, pageable, false);
+    }
+
+    /**
+     * Retrieves a paginated list of all tasks based on the provided filter and pagination information.
+     * <p>
+     * The owners are fetched together with the page and, when requested, the tags of every task in the page
+     * are loaded with a single additional query, so the number of statements does not depend on the page size.
+     * Pages are cached until a task of the filtered owner (or any task, if no owner is filtered) is written.
+     *
+     * @param filter      a {@link TaskFilter} object containing filtering criteria. If null, no filters are applied.
+     * @param pageable    a {@link Pageable} object containing pagination information (page number, size, and sorting).
+     * @param includeTags whether the tags of each task should be included in the response.
+     * @return a {@link Page} of {@link TaskResponse} objects representing the requested page of tasks.
+     */
+    @ReadOnlyTransactional
+    public Page<TaskResponse> getPaginatedTasksByFilter(TaskFilter filter, Pageable pageable, boolean includeTags) {
+        var key = ListCacheKey.of("tasks.page", filter, pageable, includeTags, taskGeneration(filter),
+                includeTags ? listCache.generation(Scope.TAGS) : 0L);
+
+        return listCache.get(key, () -> {
+            // Get the filtered and paginated list of tasks, the total is counted by the same call
+            var data = findTasksByFilter(filter, pageable);
+
+            // Convert each task entity to a TaskResponse DTO
+            var tasks = convertTasksToResponses(data.getContent(), includeTags);
+
+            return new PageImpl<>(tasks, pageable, data.getTotalElements());
+        });
+    }
+
+    /**
+     * Retrieves a page of the tasks matching the filter with the number of all of them per status, severity, priority
+     * and tag.
+     * <p>
+     * The facets and the total are counted from the {@link TaskBitmapIndex} when it supports the filter, or by a single
+     * query grouped by grouping sets otherwise, and the page is then read without counting, so a filtered view costs
+     * the same statements as a page of the plain listing. Pages are cached as the plain ones are.
+     *
+     * @param filter      a {@link TaskFilter} object containing filtering criteria. If null, no filters are applied.
+     * @param pageable    a {@link Pageable} object containing pagination information (page number, size, and sorting).
+     * @param includeTags whether the tags of each task should be included in the response.
+     * @return a {@link TaskFacetedPageResponse} with the requested page of tasks and the facets of the filter.
+     */
+    @ReadOnlyTransactional
+    public TaskFacetedPageResponse getFacetedTasksByFilter(TaskFilter filter, Pageable pageable, boolean includeTags) {
+        // The facets always name the tags
+        var key = ListCacheKey.of("tasks.facets", filter, pageable, includeTags, taskGeneration(filter), listCache.generation(Scope.TAGS));
+
+        return listCache.get(key, () -> {
+            var counts = taskBitmapIndex.facets(filter)
+                    .orElseGet(() -> taskFacetsRepository.count(TaskSpecification.matches(filter)));
+
+            var data = findTasksByFilter(filter, pageable, OptionalLong.of(counts.total()));
+            var tasks = convertTasksToResponses(data.getContent(), includeTags);
+
+            return TaskFacetedPageResponse.of(new PageImpl<>(tasks, pageable, data.getTotalElements()), convertFacetsToResponse(counts));
+        });
+    }
 
-        // Convert each task entity to a TaskResponse DTO
-        var tasks = data.stream().map(TaskResponse::new).collect(Collectors.toList());
+    /**
+     * Retrieves a page of the tasks matching the filter with only the fields of the given {@link TaskFieldSet}.
+     * <p>
+     * Only the selected columns are read, with a single tuple query that joins the owners only when they are expanded,
+     * and the tags of the page, when expanded, with one additional query. When normalized, each distinct owner of the
+     * page is returned once instead of on every task. The total is not counted when the first page is not full.
+     * Pages are cached as the full ones are.
+     *
+     * @param filter   a {@link TaskFilter} object containing filtering criteria. If null, no filters are applied.
+     * @param fieldSet the fields and associations of the tasks to return.
+     * @param pageable a {@link Pageable} object containing pagination information (page number, size, and sorting).
+     * @return a {@link TaskFieldsPageResponse} with the requested page of tasks.
+     */
+    @ReadOnlyTransactional
+    public TaskFieldsPageResponse getTaskFieldsByFilter(TaskFilter filter, TaskFieldSet fieldSet, Pageable pageable) {
+        var key = ListCacheKey.of("tasks.fields", filter, pageable, fieldSet, taskGeneration(filter),
+                fieldSet.tags() ? listCache.generation(Scope.TAGS) : 0L);
+
+        return listCache.get(key, () -> {
+            var specification = TaskSpecification.matches(filter);
+            var rows = taskFieldsRepository.findAll(specification, fieldSet, pageable);
+
+            var tagsByTask = fieldSet.tags() && !rows.isEmpty()
+                    ? findTagResponsesByTask(rows.stream().map(TaskFieldsProjection::id).toList())
+                    : Map.<Long, List<TagResponse>>of();
+            var owners = new LinkedHashMap<Long, UserResponse>();
+
+            var tasks = new ArrayList<TaskFieldsResponse>(rows.size());
+            for (var row : rows) {
+                var owner = fieldSet.user()
+                        ? owners.computeIfAbsent(row.userId(), id -> new UserResponse(id, row.userName(), row.userEmail(), row.userActive()))
+                        : null;
+                var tags = fieldSet.tags() ? tagsByTask.getOrDefault(row.id(), List.of()) : null;
+
+                tasks.add(new TaskFieldsResponse(row.id(), row.title(), row.description(), row.priority(),
+                        row.severityType() == null ? null : SeverityResponse.of(row.severityType()),
+                        row.taskStatusType() == null ? null : TaskStatusResponse.of(row.taskStatusType()),
+                        fieldSet.normalized() ? row.userId() : null, fieldSet.normalized() ? null : owner, tags));
+            }
+
+            var page = PageableExecutionUtils.getPage(tasks, pageable,
+                    () -> taskBitmapIndex.count(filter).orElseGet(() -> taskRepository.count(specification)));
+            return TaskFieldsPageResponse.of(page, fieldSet.normalized() ? owners : null);
+        });
+    }
 
-        // Count the total number of tasks matching the filter criteria
-        var totalOfTask = countTasksByFilter(filter);
+    /**
+     * Retrieves a page of tasks using keyset (seek) pagination.
+     * <p>
+     * Instead of skipping rows with an OFFSET, the page starts right after the position encoded in the cursor,
+     * so the cost of a page does not grow with its depth. The total number of tasks is not counted.
+     * When the cursor is empty, the first page is returned sorted by the first supported property of the
+     * {@link Pageable} sort (creation date by default); following pages keep the sort stored in the cursor.
+     *
+     * @param filter      a {@link TaskFilter} object containing filtering criteria. If null, no filters are applied.
+     * @param cursor      the cursor returned by the previous page, or null/empty to fetch the first page.
+     * @param pageable    a {@link Pageable} object containing the page size and, for the first page, the sorting.
+     * @param includeTags whether the tags of each task should be included in the response.
+     * @return a {@link CursorPageResponse} with the tasks of the page and the cursor of the next one.
+     * @throws InvalidCursorException if the cursor is malformed or the requested sort is not supported.
+     */
+    @ReadOnlyTransactional
+    public CursorPageResponse<TaskResponse> getTasksByCursor(TaskFilter filter, String cursor, Pageable pageable, boolean includeTags) throws InvalidCursorException {
+        var position = cursor == null || cursor.isBlank() ? null : TaskCursor.decode(cursor);
+        var order = position != null ? new Sort.Order(position.direction(), position.property()) : resolveCursorOrder(pageable.getSort());
+
+        // The id is always the last sort key so rows sharing the same value keep a stable position
+        var sort = "id".equals(order.getProperty()) ? Sort.by(order) : Sort.by(order, new Sort.Order(order.getDirection(), "id"));
+        var size = pageable.isPaged() ? pageable.getPageSize() : 20;
+        var specification = TaskSpecification.matches(filter).and(TaskSpecification.isAfter(position));
+
+        // Fetch one extra row to know if there is a next page without counting
+        var rows = taskRepository.findBy(specification, query -> query.project("owner").sortBy(sort).limit(size + 1).all());
+
+        var content = rows.subList(0, Math.min(size, rows.size()));
+        var nextCursor = rows.size() > size
+                ? TaskCursor.of(order.getProperty(), order.getDirection(), content.get(content.size() - 1)).encode()
+                : null;
+
+        var tasks = convertTasksToResponses(content, includeTags);
 
-        return new PageImpl<>(tasks, pageable, totalOfTask);
+        return new CursorPageResponse<>(tasks, nextCursor, size);
+    }
+
+    /**
+     * Searches the tasks whose title or description match the given text, ranked by relevance.
+     * <p>
+     * The text is matched against the full-text search vector of the tasks, so the candidates are found by its
+     * index instead of scanning the table, and can be narrowed by any criteria of the {@link TaskFilter}.
+     * The matches are not counted.
+     *
+     * @param text        the text to search, in the web search syntax (quoted phrases, {@code or} and {@code -}).
+     * @param filter      a {@link TaskFilter} object containing filtering criteria. If null, no filters are applied.
+     * @param pageable    a {@link Pageable} object containing the page number and size, the sort is not applied.
+     * @param includeTags whether the tags of each task should be included in the response.
+     * @return a {@link Slice} of {@link TaskResponse} objects, from the most to the least relevant.
+     */
+    @ReadOnlyTransactional
+    public Slice<TaskResponse> searchTasks(String text, TaskFilter filter, Pageable pageable, boolean includeTags) {
+        var page = pageable.isPaged() ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()) : PageRequest.of(0, 20);
+
+        if (text == null || text.isBlank()) {
+            return new SliceImpl<>(List.of(), page, false);
+        }
+
+        var specification = TaskSpecification.matches(filter)
+                .and(TaskSpecification.matchesText(text))
+                .and(TaskSpecification.fetchOwner());
+
+        // The scroll fetches one extra row to know if there is a next page, without counting
+        var position = page.getOffset() == 0 ? ScrollPosition.offset() : ScrollPosition.offset(page.getOffset() - 1);
+        var rows = taskRepository.findBy(specification, query -> query.limit(page.getPageSize()).scroll(position));
+
+        var tasks = convertTasksToResponses(rows.getContent(), includeTags);
+
+        return new SliceImpl<>(tasks, page, rows.hasNext());
+    }
+
+    /**
+     * Writes every task matching the given filter to the output, ordered by ID.
+     * <p>
+     * The tasks are read from a forward-only cursor and written as they arrive, each one detached once written,
+     * so the memory used does not depend on the number of exported tasks. The owners are fetched in the same
+     * query and the persistence context is cleared after each fetch, which also releases them.
+     * The transaction, and its connection, is held until the last task is written.
+     *
+     * @param filter a {@link TaskFilter} object containing filtering criteria. If null, no filters are applied.
+     * @param format the format of the export.
+     * @param output the output the tasks are written to, not closed by this method.
+     * @return the number of exported tasks.
+     * @throws IOException if the tasks cannot be written to the output, for example if the client disconnected.
+     */
+    @ReadOnlyTransactional
+    public long exportTasks(TaskFilter filter, TaskExportFormat format, OutputStream output) throws IOException {
+        var count = 0L;
+
+        try (var writer = format.newWriter(output, objectMapper);
+             var tasks = taskRepository.streamAll(TaskSpecification.matches(filter), exportFetchSize)) {
+            var iterator = tasks.iterator();
+
+            while (iterator.hasNext()) {
+                var task = iterator.next();
+                writer.write(task);
+                entityManager.detach(task);
+
+                // Send each fetch to the client while the next one is read
+                if (++count % exportFetchSize == 0) {
+                    writer.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+
+        return count;
     }
 
     /**
@@ -68,21 +357,66 @@ public class TaskService {
      * <p>
      * If the filter is null, this method returns the total count of all tasks in the repository.
      * Otherwise, it applies the filtering criteria specified in the {@link TaskFilter} object.
+     * The count is taken from the {@link TaskBitmapIndex} when it is enabled and supports the filter.
      *
      * @param filter a {@link TaskFilter} object containing filtering criteria. If null, no filters are applied.
      * @return the total number of tasks that match the filtering criteria.
      */
+    @ReadOnlyTransactional
     public Long countTasksByFilter(TaskFilter filter) {
-
-        if (filter == null) {
-            return taskRepository.count();
+        var indexed = taskBitmapIndex.count(filter);
+        if (indexed.isPresent()) {
+            return indexed.getAsLong();
         }
 
-        Specification<Task> specification = Specification.where(TaskSpecification.hasUserId(filter.userId()))
-                .and(TaskSpecification.hasSeverityTypeCode(filter.severityTypeCode()))
-                .and(TaskSpecification.hasTaskStatusTypeCode(filter.taskStatusTypeCode()));
+        var key = ListCacheKey.of("tasks.count", filter, taskGeneration(filter));
 
-        return taskRepository.count(specification);
+        return listCache.get(key, () -> {
+            if (filter == null) {
+                return taskRepository.count();
+            }
+
+            return taskRepository.count(TaskSpecification.matches(filter));
+        });
+    }
+
+    /**
+     * Returns the change stamp of the tasks that match the given filter, used to validate the cached pages of the clients.
+     * <p>
+     * It covers the owners of the tasks, rendered in every page, and all the tags when they are included. The stamp is
+     * cached until a task of the filtered owner (or any task, if no owner is filtered) is written, as the pages are.
+     *
+     * @param filter      a {@link TaskFilter} object containing filtering criteria. If null, no filters are applied.
+     * @param includeTags whether the tags of each task are included in the pages.
+     * @return the {@link ChangeStamp} of the filtered tasks.
+     */
+    @ReadOnlyTransactional
+    public ChangeStamp getChangeStamp(TaskFilter filter, boolean includeTags) {
+        var key = ListCacheKey.of("tasks.stamp", filter, taskGeneration(filter));
+
+        var stamp = listCache.get(key, () -> changeStampRepository.find(Task.class,
+                filter == null ? null : TaskSpecification.matches(filter), "owner"));
+
+        return includeTags ? stamp.and(tagService.getChangeStamp()) : stamp;
+    }
+
+    /**
+     * Returns the change stamp of a task, its owner and its tags, without loading them.
+     *
+     * @param id the ID of the task.
+     * @return the {@link ChangeStamp} of the task.
+     * @throws EntityNotFoundException if no task is found with the given ID.
+     */
+    @ReadOnlyTransactional
+    public ChangeStamp getChangeStamp(Long id) {
+        var stamp = changeStampRepository.find(Task.class, (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("id"), id),
+                "owner", "tags");
+
+        if (stamp.count() == 0) {
+            throw new EntityNotFoundException(String.format("Task not found with id: %d", id));
+        }
+
+        return stamp;
     }
 
     /**
@@ -92,11 +426,25 @@ public class TaskService {
      * @return the found {@link Task} object.
      * @throws EntityNotFoundException if no task is found with the given ID.
      */
+    @ReadOnlyTransactional
     public Task findById(Long id) {
         return taskRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Task not found with id: %d", id)));
     }
 
+    /**
+     * Finds a task by its ID with its owner and tags loaded in a single query.
+     *
+     * @param id the ID of the task to find.
+     * @return the found {@link Task} object, ready to be rendered.
+     * @throws EntityNotFoundException if no task is found with the given ID.
+     */
+    @ReadOnlyTransactional
+    public Task findDetailById(Long id) {
+        return taskRepository.findWithOwnerAndTagsById(id)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Task not found with id: %d", id)));
+    }
+
     /**
      * Saves a new task to the repository.
      *
@@ -110,9 +458,75 @@ public class TaskService {
         var task = convertTaskRequestToEntityRequest(null, request);
 
         taskRepository.save(task);
+        applyStats(new Deltas().add(task), new Changes().add(task), new TaskBitmapIndex.Changes().add(task));
+        listCache.invalidateOwner(task.getOwner().getId());
+
         return task;
     }
 
+    /**
+     * Saves several new tasks in a single transaction.
+     * <p>
+     * The owners and tags of all the tasks are validated with one query each, the IDs are allocated in blocks
+     * from the task sequence and the TASK and TASK_TAG rows are written in JDBC batches. Each invalid task is
+     * rejected individually and does not prevent the others from being created.
+     *
+     * @param requests the request objects containing the details of the tasks to save.
+     * @return the result of each task, in the same order of the requests.
+     */
+    @Transactional
+    public List<TaskBatchItemResponse> saveAll(List<TaskRequest> requests) {
+        var userIds = requests.stream().map(TaskRequest::userId).filter(Objects::nonNull).collect(Collectors.toSet());
+        var tagIds = requests.stream()
+                .filter(r -> r.tags() != null)
+                .flatMap(r -> r.tags().stream())
+                .map(TagResponse::id)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        // Set-based lookup of every referenced owner, the tags are checked in the in-memory catalog
+        var owners = userService.findAllById(userIds).stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        var tags = tagService.getReferencesById(tagIds);
+
+        var results = new ArrayList<TaskBatchItemResponse>(requests.size());
+        var affectedOwners = new HashSet<Long>();
+        var deltas = new Deltas();
+        var changes = new Changes();
+        var indexChanges = new TaskBitmapIndex.Changes();
+        var pending = 0;
+
+        for (int index = 0; index < requests.size(); index++) {
+            var request = requests.get(index);
+
+            try {
+                var task = convertBatchRequestToEntity(request, owners, tags);
+                // The ID comes from the block already allocated, no statement is executed until the flush
+                taskRepository.save(task);
+
+                results.add(TaskBatchItemResponse.created(index, task.getId()));
+                affectedOwners.add(request.userId());
+                deltas.add(task);
+                changes.add(task);
+                indexChanges.add(task);
+            } catch (EntityNotFoundException | EnumNotFoundException | IllegalArgumentException e) {
+                results.add(TaskBatchItemResponse.rejected(index, e.getMessage()));
+                continue;
+            }
+
+            // Keep the persistence context small, each flush sends one JDBC batch per table
+            if (++pending == batchSize) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+
+        applyStats(deltas, changes, indexChanges);
+        affectedOwners.forEach(listCache::invalidateOwner);
+
+        return results;
+    }
+
     /**
      * Updates an existing task in the repository.
      *
@@ -124,9 +538,19 @@ public class TaskService {
      */
     @Transactional
     public Task save(Long id, TaskRequest request) throws EntityNotFoundException, EnumNotFoundException {
+        var previous = findById(id);
+        var previousOwnerId = previous.getOwner().getId();
+        // Taken before the conversion, which changes the same entity
+        var deltas = new Deltas().remove(previous);
+        var changes = new Changes().remove(previous);
+        var indexChanges = new TaskBitmapIndex.Changes().remove(previous);
         var task = convertTaskRequestToEntityRequest(id, request);
 
         taskRepository.save(task);
+        applyStats(deltas.add(task), changes.add(task), indexChanges.add(task));
+        listCache.invalidateOwner(previousOwnerId);
+        listCache.invalidateOwner(task.getOwner().getId());
+
         return task;
     }
 
@@ -136,9 +560,26 @@ public class TaskService {
      * @param id the ID of the task to delete.
      * @throws EntityNotFoundException if no task is found with the given ID.
      */
+    @Transactional
     public void delete(Long id) throws EntityNotFoundException {
-        var tag = findById(id);
-        this.taskRepository.deleteById(tag.getId());
+        var task = findById(id);
+        var deltas = new Deltas().remove(task);
+        var changes = new Changes().remove(task);
+        var indexChanges = new TaskBitmapIndex.Changes().remove(task);
+        this.taskRepository.deleteById(task.getId());
+        applyStats(deltas, changes, indexChanges);
+        listCache.invalidateOwner(task.getOwner().getId());
+    }
+
+    /**
+     * Applies the changes of the task counts of the owners, after flushing the tasks so the rows are locked in the
+     * order expected by {@link TaskStatsRepository}, and the changes of the in-memory counts and index once committed.
+     */
+    private void applyStats(Deltas deltas, Changes changes, TaskBitmapIndex.Changes indexChanges) {
+        entityManager.flush();
+        taskStatsRepository.apply(deltas);
+        taskStatsCounters.apply(changes);
+        taskBitmapIndex.apply(indexChanges);
     }
 
     /**
@@ -170,12 +611,21 @@ public class TaskService {
 
         var tags = convertAndValidateRequestToTag(request);
 
+        // The TASK_TAG rows are not part of the task row, a change of the tags alone would not move its last update
+        if (id != null && !tagIds(task.getTags()).equals(tagIds(tags))) {
+            task.setUpdateAt(LocalDateTime.now());
+        }
+
         task.getTags().clear();
         task.getTags().addAll(tags);
 
         return task;
     }
 
+    private static Set<Long> tagIds(List<Tag> tags) {
+        return tags.stream().map(Tag::getId).collect(Collectors.toSet());
+    }
+
     /**
      * Converts and validates the tags in the provided TaskRequest to a list of Tag
      * entities.
@@ -188,34 +638,201 @@ public class TaskService {
         var tags = new ArrayList<Tag>();
 
         request.tags().forEach(t -> {
-            var tag = tagService.findById(t.id());
+            var tag = tagService.getReferenceById(t.id());
             tags.add(tag);
         });
 
         return tags;
     }
 
+    /**
+     * Converts a TaskRequest of a batch to a new Task entity, using the owners and tags already loaded.
+     *
+     * @param request the request object containing the task details.
+     * @param owners  the owners referenced by the batch, by ID.
+     * @param tags    the tags referenced by the batch, by ID.
+     * @return the new {@link Task} entity.
+     * @throws IllegalArgumentException if the request violates its validation constraints.
+     * @throws EntityNotFoundException  if the owner or a tag of the task does not exist.
+     * @throws EnumNotFoundException    if an enum value provided in the request is invalid.
+     */
+    private Task convertBatchRequestToEntity(TaskRequest request, Map<Long, User> owners, Map<Long, Tag> tags) throws EnumNotFoundException {
+        var violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+
+        var owner = owners.get(request.userId());
+        if (owner == null) {
+            throw new EntityNotFoundException(String.format("User not found with id: %d", request.userId()));
+        }
+
+        var task = new Task();
+        task.setOwner(owner);
+        task.setTitle(request.title());
+        task.setPriority(request.priority());
+        task.setDescription(request.description());
+        task.setSeverityType(SeverityType.getSeverityTypeByCode(request.severityType()));
+        task.setTaskStatusType(TaskStatusType.getTaskStatusTypeByCode(request.taskStatusType()));
+        task.setTags(new ArrayList<>());
+
+        if (request.tags() != null) {
+            for (var t : request.tags()) {
+                var tag = tags.get(t.id());
+                if (tag == null) {
+                    throw new EntityNotFoundException(String.format("Tag not found with id: %d", t.id()));
+                }
+
+                task.getTags().add(tag);
+            }
+        }
+
+        return task;
+    }
+
     /**
      * Retrieves a paginated list of tasks that match the given filter criteria.
      * <p>
      * If the filter is null, this method returns a paginated list of all tasks.
      * Otherwise, it applies the filtering criteria specified in the {@link TaskFilter} object and returns the matching tasks.
+     * When the {@link TaskBitmapIndex} counts the matching tasks, only the rows of the page are queried.
      *
      * @param filter   a {@link TaskFilter} object containing filtering criteria. If null, no filters are applied.
      * @param pageable a {@link Pageable} object containing pagination information (page number, size, and sorting).
      * @return a {@link Page} of {@link Task} objects representing the filtered and paginated tasks.
      */
     private Page<Task> findTasksByFilter(TaskFilter filter, Pageable pageable) {
+        return findTasksByFilter(filter, pageable, taskBitmapIndex.count(filter));
+    }
+
+    /**
+     * Retrieves a paginated list of tasks that match the given filter criteria, whose number is already known when
+     * the total is present, in which case only the rows of the page are queried, if any.
+     */
+    private Page<Task> findTasksByFilter(TaskFilter filter, Pageable pageable, OptionalLong total) {
+        if (total.isPresent() && pageable.isPaged()) {
+            if (pageable.getOffset() >= total.getAsLong()) {
+                return new PageImpl<>(List.of(), pageable, total.getAsLong());
+            }
+
+            var position = pageable.getOffset() == 0 ? ScrollPosition.offset() : ScrollPosition.offset(pageable.getOffset() - 1);
+            var rows = taskRepository.findBy(TaskSpecification.matches(filter).and(TaskSpecification.fetchOwner()),
+                    query -> query.sortBy(pageable.getSort()).limit(pageable.getPageSize()).scroll(position));
+
+            return new PageImpl<>(rows.getContent(), pageable, total.getAsLong());
+        }
+
         if (filter == null) {
             return taskRepository.findAll(pageable);
         }
 
-        // Create a specification based on the provided filter
-        Specification<Task> specification = Specification.where(TaskSpecification.hasUserId(filter.userId()))
-                .and(TaskSpecification.hasSeverityTypeCode(filter.severityTypeCode()))
-                .and(TaskSpecification.hasTaskStatusTypeCode(filter.taskStatusTypeCode()));
+        return taskRepository.findAll(TaskSpecification.matches(filter), pageable);
+    }
+
+    /**
+     * Converts the facet counts to a {@link TaskFacetsResponse}, naming the tags from the tag catalog.
+     */
+    private TaskFacetsResponse convertFacetsToResponse(TaskFacetCounts counts) {
+        var tags = tagService.getResponsesById(counts.tags().keySet());
+
+        return new TaskFacetsResponse(
+                counts.statuses().entrySet().stream()
+                        .map(e -> new FacetCountResponse<>(TaskStatusResponse.of(TaskStatusType.fromCode(e.getKey())), e.getValue()))
+                        .filter(facet -> facet.value() != null)
+                        .toList(),
+                counts.severities().entrySet().stream()
+                        .map(e -> new FacetCountResponse<>(SeverityResponse.of(SeverityType.fromCode(e.getKey())), e.getValue()))
+                        .filter(facet -> facet.value() != null)
+                        .toList(),
+                counts.priorities().entrySet().stream()
+                        .map(e -> new FacetCountResponse<>(e.getKey(), e.getValue()))
+                        .toList(),
+                counts.tags().entrySet().stream()
+                        .filter(e -> tags.containsKey(e.getKey()))
+                        .map(e -> new FacetCountResponse<>(tags.get(e.getKey()), e.getValue()))
+                        .toList());
+    }
+
+    /**
+     * Converts the given tasks to {@link TaskResponse} objects.
+     * <p>
+     * The tags of all the tasks are loaded with a single query instead of initializing each lazy collection.
+     * The owner and tag responses are immutable, so each distinct owner and tag of the page is converted once
+     * and its response is shared by all the tasks that reference it.
+     *
+     * @param tasks       the tasks to convert, with their owners already loaded.
+     * @param includeTags whether the tags of each task should be included in the response.
+     * @return the list of {@link TaskResponse} objects in the same order of the tasks.
+     */
+    private List<TaskResponse> convertTasksToResponses(List<Task> tasks, boolean includeTags) {
+        var responses = new ArrayList<TaskResponse>(tasks.size());
+        if (tasks.isEmpty()) {
+            return responses;
+        }
+
+        var tagsByTask = includeTags ? findTagResponsesByTask(tasks.stream().map(Task::getId).toList()) : Map.<Long, List<TagResponse>>of();
+        var owners = new HashMap<Long, UserResponse>();
+
+        for (var task : tasks) {
+            var owner = owners.computeIfAbsent(task.getOwner().getId(), id -> new UserResponse(task.getOwner()));
+            var tags = includeTags ? tagsByTask.getOrDefault(task.getId(), List.of()) : null;
+
+            responses.add(new TaskResponse(task, owner, tags));
+        }
+
+        return responses;
+    }
+
+    /**
+     * Loads the tags of the given tasks with a single query.
+     *
+     * @param ids the IDs of the tasks whose tags should be loaded.
+     * @return the tags of each task, by task ID, ordered by name. Tasks without tags are not included.
+     */
+    private Map<Long, List<TagResponse>> findTagResponsesByTask(List<Long> ids) {
+        var tags = new HashMap<Long, TagResponse>();
+        var tagsByTask = new HashMap<Long, List<TagResponse>>();
+
+        for (var row : taskRepository.findTagsByTaskIdIn(ids)) {
+            var tag = tags.computeIfAbsent(row.tagId(), id -> new TagResponse(id, row.tagName()));
+            tagsByTask.computeIfAbsent(row.taskId(), id -> new ArrayList<>()).add(tag);
+        }
+
+        return tagsByTask;
+    }
+
+    /**
+     * Returns the cache generation of the tasks matching the given filter.
+     *
+     * @param filter a {@link TaskFilter} object containing filtering criteria. If null, no filters are applied.
+     * @return the generation of the filtered owner, or the global task generation if no owner is filtered.
+     */
+    private long taskGeneration(TaskFilter filter) {
+        if (filter != null && filter.userId() != null) {
+            return listCache.ownerGeneration(filter.userId());
+        }
+
+        return listCache.generation(Scope.TASKS);
+    }
+
+    /**
+     * Resolves the sort order of the first keyset page from the requested {@link Sort}.
+     *
+     * @param sort the requested sort
+     * @return the first requested order, or the ascending creation date if no sort was requested.
+     * @throws InvalidCursorException if the requested property cannot be used for keyset pagination.
+     */
+    private Sort.Order resolveCursorOrder(Sort sort) throws InvalidCursorException {
+        var order = sort.stream().findFirst().orElse(Sort.Order.asc("createAt"));
+
+        if (!TaskCursor.isSortable(order.getProperty())) {
+            throw new InvalidCursorException(String.format("Unsupported sort property for cursor pagination: %s", order.getProperty()));
+        }
 
-        return taskRepository.findAll(specification, pageable);
+        return order;
     }
 
 }
@@ -0,0 +1,111 @@
+package com.github.rhafaelcosta.todolist.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.rhafaelcosta.todolist.caches.TaskStatsCounters;
+import com.github.rhafaelcosta.todolist.datasources.ReadOnlyTransactional;
+import com.github.rhafaelcosta.todolist.repositories.TaskStatsRepository;
+import com.github.rhafaelcosta.todolist.responses.TaskStatsResponse;
+import com.github.rhafaelcosta.todolist.responses.UserTaskStatsResponse;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Service class for the task counts, of each user in the database and of all the tasks in memory, maintained by
+ * {@link TaskService} and reconciled periodically.
+ */
+@Service
+@Timed(value = "todolist.service", histogram = true)
+public class TaskStatsService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskStatsService.class);
+
+    private final UserService userService;
+    private final TaskStatsRepository taskStatsRepository;
+    private final TaskStatsCounters taskStatsCounters;
+    private final TransactionTemplate transactionTemplate;
+
+    public TaskStatsService(UserService userService, TaskStatsRepository taskStatsRepository, TaskStatsCounters taskStatsCounters,
+                            TransactionTemplate transactionTemplate) {
+        this.userService = userService;
+        this.taskStatsRepository = taskStatsRepository;
+        this.taskStatsCounters = taskStatsCounters;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Retrieves the number of all the tasks per status, severity and priority from the in-memory counts, without
+     * querying the database.
+     *
+     * @return the {@link TaskStatsResponse} of all the tasks
+     */
+    public TaskStatsResponse getTaskStats() {
+        return TaskStatsResponse.of(taskStatsCounters.snapshot());
+    }
+
+    /**
+     * Retrieves the number of tasks of the user per status and severity, without counting them.
+     *
+     * @param userId the ID of the user
+     * @return the {@link UserTaskStatsResponse} of the user
+     * @throws EntityNotFoundException if no user is found with the given ID.
+     */
+    @ReadOnlyTransactional
+    public UserTaskStatsResponse getUserTaskStats(Long userId) throws EntityNotFoundException {
+        userService.findById(userId);
+
+        return UserTaskStatsResponse.of(userId, taskStatsRepository.findByUserId(userId));
+    }
+
+    /**
+     * Repairs the counts that drifted from the tasks, like the ones of tasks written directly in the database.
+     * <p>
+     * The drifting users are found with a single scan of the tasks, then each one is recounted in its own
+     * transaction, so the writes of the other users are not blocked. A user that fails to be recounted, for
+     * instance chosen as the victim of a deadlock, is left for the next run.
+     *
+     * @return the number of users recounted
+     */
+    @Scheduled(fixedDelayString = "${todolist.task-stats.reconcile-interval:PT1H}", initialDelayString = "${todolist.task-stats.reconcile-interval:PT1H}")
+    public int reconcile() {
+        var userIds = transactionTemplate.execute(status -> taskStatsRepository.findDriftingUserIds());
+        var reconciled = 0;
+
+        for (var userId : userIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> taskStatsRepository.reconcile(userId));
+                reconciled++;
+            } catch (DataAccessException e) {
+                LOGGER.warn("Task counts of the user {} not reconciled: {}", userId, e.getMessage());
+            }
+        }
+
+        if (reconciled > 0) {
+            LOGGER.info("Task counts of {} users reconciled", reconciled);
+        }
+
+        return reconciled;
+    }
+
+    /**
+     * Seeds the in-memory counts at startup and reconciles them with the database afterwards, on the primary as
+     * the counts must include the latest writes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${todolist.task-stats.counters.reconcile-interval:PT5M}", initialDelayString = "${todolist.task-stats.counters.reconcile-interval:PT5M}")
+    public void reconcileCounters() {
+        var before = taskStatsCounters.sums();
+        var actual = transactionTemplate.execute(status -> taskStatsRepository.countAll());
+
+        taskStatsCounters.reconcile(before, actual);
+    }
+
+}
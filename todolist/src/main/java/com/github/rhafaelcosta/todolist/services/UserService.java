@@ -1,32 +1,195 @@
 package com.github.rhafaelcosta.todolist.services;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.rhafaelcosta.todolist.caches.ListCacheKey;
+import com.github.rhafaelcosta.todolist.caches.ListResultCache;
+import com.github.rhafaelcosta.todolist.caches.ListResultCache.Scope;
+import com.github.rhafaelcosta.todolist.datasources.ReadOnlyTransactional;
 import com.github.rhafaelcosta.todolist.exceptions.EntityAlreadyExistsException;
+import com.github.rhafaelcosta.todolist.exceptions.InvalidCursorException;
+import com.github.rhafaelcosta.todolist.filters.UserCursor;
+import com.github.rhafaelcosta.todolist.filters.UserFilter;
 import com.github.rhafaelcosta.todolist.models.User;
+import com.github.rhafaelcosta.todolist.repositories.ChangeStampRepository;
 import com.github.rhafaelcosta.todolist.repositories.UserRepository;
+import com.github.rhafaelcosta.todolist.repositories.projections.ChangeStamp;
+import com.github.rhafaelcosta.todolist.repositories.specifications.UserSpecification;
 import com.github.rhafaelcosta.todolist.requests.UserRequest;
+import com.github.rhafaelcosta.todolist.responses.CursorPageResponse;
+import com.github.rhafaelcosta.todolist.responses.UserResponse;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
 
 @Service
+@Timed(value = "todolist.service", histogram = true)
 public class UserService {
 
     private final UserRepository userRepository;
+    private final ChangeStampRepository changeStampRepository;
+    private final ListResultCache listCache;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final int exportFetchSize;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, ChangeStampRepository changeStampRepository, ListResultCache listCache,
+                       EntityManager entityManager, ObjectMapper objectMapper,
+                       @Value("${todolist.export.fetch-size:1000}") int exportFetchSize) {
         this.userRepository = userRepository;
+        this.changeStampRepository = changeStampRepository;
+        this.listCache = listCache;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.exportFetchSize = exportFetchSize;
     }
 
     /**
-     * Retrieves a list of all users currently stored in the database.
+     * Retrieves a page of the users matching the given filter.
+     * <p>
+     * Pages without a sort are ordered by ID, so consecutive pages do not overlap. Pages are cached until a user
+     * is written.
      *
-     * @return a list containing all users
+     * @param filter   a {@link UserFilter} object containing filtering criteria. If null, no filters are applied.
+     * @param pageable a {@link Pageable} object containing pagination information (page number, size, and sorting).
+     * @return a {@link Page} of {@link UserResponse} objects representing the requested page of users.
      */
-    public List<User> listAll() {
-        return this.userRepository.findAll();
+    @ReadOnlyTransactional
+    public Page<UserResponse> getPaginatedUsersByFilter(UserFilter filter, Pageable pageable) {
+        var key = ListCacheKey.of("users.page", filter, pageable, listCache.generation(Scope.USERS));
+
+        return listCache.get(key, () -> {
+            var sorted = pageable.isPaged() && pageable.getSort().isUnsorted()
+                    ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("id"))
+                    : pageable;
+
+            // The total is counted by the same call that fetched the page
+            var data = userRepository.findAll(UserSpecification.matches(filter), sorted);
+            var users = data.stream().map(UserResponse::new).toList();
+
+            return new PageImpl<>(users, pageable, data.getTotalElements());
+        });
+    }
+
+    /**
+     * Retrieves a page of users using keyset (seek) pagination.
+     * <p>
+     * The page starts right after the position encoded in the cursor, so the cost of a page does not grow with
+     * its depth, and the total number of users is not counted. When the cursor is empty, the first page is sorted
+     * by the first property of the {@link Pageable} sort (ID by default); following pages keep the sort stored
+     * in the cursor.
+     *
+     * @param filter   a {@link UserFilter} object containing filtering criteria. If null, no filters are applied.
+     * @param cursor   the cursor returned by the previous page, or null/empty to fetch the first page.
+     * @param pageable a {@link Pageable} object containing the page size and, for the first page, the sorting.
+     * @return a {@link CursorPageResponse} with the users of the page and the cursor of the next one.
+     * @throws InvalidCursorException if the cursor is malformed or the requested sort is not supported.
+     */
+    @ReadOnlyTransactional
+    public CursorPageResponse<UserResponse> getUsersByCursor(UserFilter filter, String cursor, Pageable pageable) throws InvalidCursorException {
+        var position = cursor == null || cursor.isBlank() ? null : UserCursor.decode(cursor);
+        var order = position != null ? new Sort.Order(position.direction(), position.property()) : resolveCursorOrder(pageable.getSort());
+
+        // The id is always the last sort key so rows sharing the same value keep a stable position
+        var sort = "id".equals(order.getProperty()) ? Sort.by(order) : Sort.by(order, new Sort.Order(order.getDirection(), "id"));
+        var size = pageable.isPaged() ? pageable.getPageSize() : 20;
+        var specification = UserSpecification.matches(filter).and(UserSpecification.isAfter(position));
+
+        // Fetch one extra row to know if there is a next page without counting
+        var rows = userRepository.findBy(specification, query -> query.sortBy(sort).limit(size + 1).all());
+
+        var content = rows.subList(0, Math.min(size, rows.size()));
+        var nextCursor = rows.size() > size
+                ? UserCursor.of(order.getProperty(), order.getDirection(), content.get(content.size() - 1)).encode()
+                : null;
+
+        return new CursorPageResponse<>(content.stream().map(UserResponse::new).toList(), nextCursor, size);
+    }
+
+    /**
+     * Writes every user matching the given filter to the output as newline-delimited JSON, ordered by ID.
+     * <p>
+     * The users are read from a forward-only cursor and written as they arrive, each one detached once written and
+     * the persistence context cleared after each fetch, so the memory used does not depend on the number of users.
+     * The transaction, and its connection, is held until the last user is written.
+     *
+     * @param filter a {@link UserFilter} object containing filtering criteria. If null, no filters are applied.
+     * @param output the output the users are written to, not closed by this method.
+     * @return the number of exported users.
+     * @throws IOException if the users cannot be written to the output, for example if the client disconnected.
+     */
+    @ReadOnlyTransactional
+    public long exportUsers(UserFilter filter, OutputStream output) throws IOException {
+        var count = 0L;
+
+        try (var generator = objectMapper.getFactory().createGenerator(output, JsonEncoding.UTF8);
+             var users = userRepository.streamAll(UserSpecification.matches(filter), exportFetchSize)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // The lines are separated by the newline written after each user, not by the default space
+            generator.setRootValueSeparator(null);
+            var iterator = users.iterator();
+
+            while (iterator.hasNext()) {
+                var user = iterator.next();
+                generator.writeObject(new UserResponse(user));
+                generator.writeRaw('\n');
+                entityManager.detach(user);
+
+                // Send each fetch to the client while the next one is read
+                if (++count % exportFetchSize == 0) {
+                    generator.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the change stamp of all the users, cached until a user is written.
+     *
+     * @return the {@link ChangeStamp} of the users
+     */
+    @ReadOnlyTransactional
+    public ChangeStamp getChangeStamp() {
+        var key = ListCacheKey.of("users.stamp", listCache.generation(Scope.USERS));
+
+        return listCache.get(key, () -> changeStampRepository.find(User.class, null));
+    }
+
+    /**
+     * Returns the change stamp of a user, without loading it.
+     *
+     * @param id the ID of the user
+     * @return the {@link ChangeStamp} of the user
+     * @throws EntityNotFoundException if no user with the given ID exists
+     */
+    @ReadOnlyTransactional
+    public ChangeStamp getChangeStamp(Long id) throws EntityNotFoundException {
+        var stamp = changeStampRepository.find(User.class, (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("id"), id));
+
+        if (stamp.count() == 0) {
+            throw new EntityNotFoundException(String.format("User not found with id: %d", id));
+        }
+
+        return stamp;
     }
 
     /**
@@ -36,12 +199,25 @@ public class UserService {
      * @return the found user
      * @throws EntityNotFoundException if no user with the given ID exists
      */
+    @ReadOnlyTransactional
     public User findById(Long id) throws EntityNotFoundException {
         return this.userRepository
                    .findById(id)
                    .orElseThrow(() -> new EntityNotFoundException(String.format("User not found with id: %d", id)));
     }
 
+    /**
+     * Retrieves all the users with the given IDs in a single query.
+     * <p>
+     * IDs that do not exist are ignored, so the result may be smaller than the given collection.
+     *
+     * @param ids the IDs of the users to retrieve
+     * @return the list of found users
+     */
+    public List<User> findAllById(Collection<Long> ids) {
+        return this.userRepository.findAllById(ids);
+    }
+
     /**
      * Creates a new user based on the provided data.
      *
@@ -49,6 +225,7 @@ public class UserService {
      * @return the created user
      * @throws EntityAlreadyExistsException if the provided email is already in use by another user
      */
+    @Transactional
     public User save(UserRequest request) throws EntityAlreadyExistsException {
         verifyUserEmailAlreadyExists(null, request);
 
@@ -58,6 +235,7 @@ public class UserService {
         user.setActive(request.active());
 
         this.userRepository.save(user);
+        listCache.invalidate(Scope.USERS);
 
         return user;
     }
@@ -71,6 +249,7 @@ public class UserService {
      * @throws EntityNotFoundException if no user with the given ID exists
      * @throws EntityAlreadyExistsException if the provided email is already in use by another user
      */
+    @Transactional
     public User save(Long id, UserRequest request) throws EntityNotFoundException, EntityAlreadyExistsException {
         var user = findById(id);
 
@@ -81,6 +260,9 @@ public class UserService {
         user.setActive(request.active());
 
         this.userRepository.save(user);
+        // The owner is rendered in every task response
+        listCache.invalidate(Scope.USERS);
+        listCache.invalidateOwner(id);
 
         return user;
     }
@@ -91,10 +273,13 @@ public class UserService {
      * @param id the ID of the user to deactivate
      * @throws EntityNotFoundException if no user with the given ID exists
      */
+    @Transactional
     public void delete(Long id) throws EntityNotFoundException {
         var user = findById(id);
         user.setActive(false);
         this.userRepository.save(user);
+        listCache.invalidate(Scope.USERS);
+        listCache.invalidateOwner(id);
     }
 
     /**
@@ -113,4 +298,14 @@ public class UserService {
         }
     }
 
+    private Sort.Order resolveCursorOrder(Sort sort) throws InvalidCursorException {
+        var order = sort.stream().findFirst().orElse(Sort.Order.asc("id"));
+
+        if (!UserCursor.isSortable(order.getProperty())) {
+            throw new InvalidCursorException(String.format("Unsupported sort property for cursor pagination: %s", order.getProperty()));
+        }
+
+        return order;
+    }
+
 }
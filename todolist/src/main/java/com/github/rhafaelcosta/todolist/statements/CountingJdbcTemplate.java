@@ -0,0 +1,32 @@
+package com.github.rhafaelcosta.todolist.statements;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * {@link JdbcTemplate} counting the statements it creates in the current request, as the
+ * {@link CountingStatementInspector} does for the ones of Hibernate.
+ * <p>
+ * Every statement is counted once when it is created, so a batch counts once however many rows it writes. The SQL is
+ * not known at that point, the error refusing a statement over the budget locates it by its stack trace.
+ */
+public class CountingJdbcTemplate extends JdbcTemplate {
+
+    private final boolean failOnExceed;
+
+    public CountingJdbcTemplate(DataSource dataSource, boolean failOnExceed) {
+        super(dataSource);
+        this.failOnExceed = failOnExceed;
+    }
+
+    @Override
+    protected void applyStatementSettings(Statement stmt) throws SQLException {
+        StatementCounter.count("a JdbcTemplate statement", failOnExceed);
+        super.applyStatementSettings(stmt);
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.github.rhafaelcosta.todolist.statements;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate {@link StatementInspector} counting the statements prepared by the current request.
+ * <p>
+ * Hibernate inspects every SQL string before preparing it, so a JDBC batch counts once however many rows it writes.
+ * When {@code failOnExceed} is set, the statement going over the budget is refused, which makes an N+1 regression
+ * fail the request instead of only being logged.
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+    private final boolean failOnExceed;
+
+    public CountingStatementInspector(boolean failOnExceed) {
+        this.failOnExceed = failOnExceed;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        StatementCounter.count(sql, failOnExceed);
+        return sql;
+    }
+
+}
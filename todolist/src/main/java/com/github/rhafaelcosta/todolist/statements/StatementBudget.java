@@ -0,0 +1,23 @@
+package com.github.rhafaelcosta.todolist.statements;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Overrides the default statement budget ({@code todolist.statements.budget}) of an endpoint,
+ * for the ones whose number of statements legitimately grows with the size of the request.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+
+    /**
+     * The maximum number of SQL statements the endpoint may prepare.
+     */
+    int value();
+
+}
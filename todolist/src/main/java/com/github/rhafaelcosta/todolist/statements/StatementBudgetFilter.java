@@ -0,0 +1,113 @@
+package com.github.rhafaelcosta.todolist.statements;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Counts the SQL statements of every request, reports the count in the {@value #HEADER} response header
+ * and logs a warning when the request goes over its statement budget.
+ * <p>
+ * The header is added right before the body starts being written, after the controller has run its queries.
+ */
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Statement-Count";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatementBudgetFilter.class);
+
+    private final int defaultBudget;
+
+    public StatementBudgetFilter(int defaultBudget) {
+        this.defaultBudget = defaultBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        var counter = StatementCounter.start(defaultBudget);
+        var wrapper = new CountReportingResponse(response, counter);
+
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            StatementCounter.stop();
+            wrapper.reportCount();
+
+            // The statements of the asynchronous part are checked by the StatementCountingCallableInterceptor
+            if (!request.isAsyncStarted() && counter.isOverBudget()) {
+                LOGGER.warn("{} {} executed {} SQL statements, over its budget of {}",
+                        request.getMethod(), request.getRequestURI(), counter.getCount(), counter.getBudget());
+            }
+        }
+    }
+
+    /**
+     * Adds the header with the statement count once, before the response is committed.
+     */
+    private static class CountReportingResponse extends HttpServletResponseWrapper {
+
+        private final StatementCounter counter;
+        private boolean reported;
+
+        CountReportingResponse(HttpServletResponse response, StatementCounter counter) {
+            super(response);
+            this.counter = counter;
+        }
+
+        void reportCount() {
+            if (!reported && !isCommitted()) {
+                setIntHeader(HEADER, counter.getCount());
+            }
+            reported = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            reportCount();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            reportCount();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            reportCount();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            reportCount();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            reportCount();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            reportCount();
+            super.sendRedirect(location);
+        }
+
+    }
+
+}
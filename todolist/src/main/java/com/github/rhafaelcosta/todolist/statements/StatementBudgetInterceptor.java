@@ -0,0 +1,25 @@
+package com.github.rhafaelcosta.todolist.statements;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Applies the {@link StatementBudget} of the handler method to the counter of the request.
+ */
+public class StatementBudgetInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        var counter = StatementCounter.current();
+
+        if (counter != null && handler instanceof HandlerMethod method && method.hasMethodAnnotation(StatementBudget.class)) {
+            counter.setBudget(method.getMethodAnnotation(StatementBudget.class).value());
+        }
+
+        return true;
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.github.rhafaelcosta.todolist.statements;
+
+import com.github.rhafaelcosta.todolist.exceptions.StatementBudgetExceededException;
+
+/**
+ * Number of SQL statements prepared by the current request, and the budget it is allowed to use.
+ * <p>
+ * The counter is bound to the thread handling the request by the {@link StatementBudgetFilter}, and to the thread
+ * writing a streamed body by the {@link StatementCountingCallableInterceptor}. The statements prepared outside of a
+ * request are not counted, nor the COPY operations run through the API of the driver.
+ */
+public final class StatementCounter {
+
+    private static final ThreadLocal<StatementCounter> CURRENT = new ThreadLocal<>();
+
+    // Written by one thread at a time, the request thread hands the counter over to the one streaming the body
+    private volatile int count;
+    private int budget;
+
+    private StatementCounter(int budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Starts counting the statements of the current thread.
+     */
+    static StatementCounter start(int budget) {
+        var counter = new StatementCounter(budget);
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    /**
+     * Counts the statements of the current thread with a counter started by another thread of the same request.
+     */
+    static void resume(StatementCounter counter) {
+        CURRENT.set(counter);
+    }
+
+    /**
+     * Stops counting the statements of the current thread.
+     */
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Returns the counter of the current thread, or {@code null} if it is not handling a request.
+     */
+    public static StatementCounter current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Counts a statement of the current request, if any.
+     *
+     * @param statement    the SQL of the statement, or a description of it, for the error message
+     * @param failOnExceed whether to refuse the statement going over the budget
+     * @throws StatementBudgetExceededException if the statement goes over the budget and {@code failOnExceed} is set
+     */
+    static void count(String statement, boolean failOnExceed) {
+        var counter = current();
+        if (counter == null) {
+            return;
+        }
+
+        var count = ++counter.count;
+        if (failOnExceed && count > counter.getBudget()) {
+            throw new StatementBudgetExceededException(String.format(
+                    "Statement budget of %d exceeded by: %s", counter.getBudget(), statement));
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    void setBudget(int budget) {
+        this.budget = budget;
+    }
+
+    public boolean isOverBudget() {
+        return count > budget;
+    }
+
+}
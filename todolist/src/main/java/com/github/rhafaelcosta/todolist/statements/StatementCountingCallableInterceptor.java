@@ -0,0 +1,56 @@
+package com.github.rhafaelcosta.todolist.statements;
+
+import java.util.concurrent.Callable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Hands the statement counter of the request over to the thread running its asynchronous part, like the streamed
+ * exports, so their statements count against the budget of the request.
+ * <p>
+ * The {@link StatementBudgetFilter} is done with the request once the asynchronous part starts, the budget is then
+ * checked here when the request completes. The count header of a streamed body is sent before the body, it only
+ * reports the statements run before it started.
+ */
+public class StatementCountingCallableInterceptor implements CallableProcessingInterceptor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatementCountingCallableInterceptor.class);
+
+    private static final String COUNTER = StatementCounter.class.getName();
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        var counter = StatementCounter.current();
+        if (counter != null) {
+            request.setAttribute(COUNTER, counter, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        if (request.getAttribute(COUNTER, RequestAttributes.SCOPE_REQUEST) instanceof StatementCounter counter) {
+            StatementCounter.resume(counter);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        StatementCounter.stop();
+    }
+
+    @Override
+    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+        if (request.getAttribute(COUNTER, RequestAttributes.SCOPE_REQUEST) instanceof StatementCounter counter && counter.isOverBudget()) {
+            var servletRequest = request.getNativeRequest(HttpServletRequest.class);
+            LOGGER.warn("{} {} executed {} SQL statements, over its budget of {}",
+                    servletRequest.getMethod(), servletRequest.getRequestURI(), counter.getCount(), counter.getBudget());
+        }
+    }
+
+}
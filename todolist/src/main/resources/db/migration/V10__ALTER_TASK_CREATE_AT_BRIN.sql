@@ -0,0 +1,5 @@
+-- A block range of 128 pages holds about 12000 tasks, all read by a filter on a single day of them. Smaller ranges
+-- keep the index tiny while reading a few pages, and the ranges filled by the new tasks are summarized by the
+-- autovacuum, as the unsummarized ones match every filter until the next vacuum of the table
+DROP INDEX IX_TASK_CREATE_AT_BRIN;
+CREATE INDEX IX_TASK_CREATE_AT_BRIN ON TASK USING BRIN (create_at) WITH (pages_per_range = 16, autosummarize = on);
@@ -0,0 +1,6 @@
+-- Since V6 the update date of a task is the one of its last write, its creation when it was never updated since, as
+-- Hibernate already wrote it on insert. The filter by update date so also matches the tasks created in the range and
+-- almost no row is left without it, the partial index of V3 is replaced by a full one
+DROP INDEX IX_TASK_UPDATE_AT;
+
+CREATE INDEX IX_TASK_UPDATE_AT ON TASK (update_at);
@@ -0,0 +1,22 @@
+-- Trigram operators used by the case-insensitive "contains" filter on the task title
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Filter by owner, also ordered by creation date for the keyset pagination
+CREATE INDEX IX_TASK_USER_CREATE_AT ON TASK (user_id, create_at, id);
+
+-- Filters by status, severity and priority
+CREATE INDEX IX_TASK_STATUS_SEVERITY ON TASK (status_type, severity_type, priority);
+CREATE INDEX IX_TASK_SEVERITY_PRIORITY ON TASK (severity_type, priority);
+CREATE INDEX IX_TASK_PRIORITY ON TASK (priority, id);
+
+-- Filter by title: lower(title) LIKE '%term%'
+CREATE INDEX IX_TASK_TITLE_TRGM ON TASK USING GIN (lower(title) gin_trgm_ops);
+
+-- Filter by creation date: rows are inserted in creation order, so a BRIN index is enough
+CREATE INDEX IX_TASK_CREATE_AT_BRIN ON TASK USING BRIN (create_at);
+
+-- Filter by update date: tasks that were never updated are left out of the index
+CREATE INDEX IX_TASK_UPDATE_AT ON TASK (update_at) WHERE update_at IS NOT NULL;
+
+-- Lookup of the tags of a task (the primary key starts with tag_id)
+CREATE INDEX IX_TASK_TAG_TASK ON TASK_TAG (task_id, tag_id);
@@ -0,0 +1,3 @@
+-- Task IDs are allocated by Hibernate in blocks of 50 (pooled optimizer), which allows JDBC insert batching.
+-- Inserts relying on the column default keep working, every nextval just reserves a whole block.
+ALTER SEQUENCE task_id_seq INCREMENT BY 50;
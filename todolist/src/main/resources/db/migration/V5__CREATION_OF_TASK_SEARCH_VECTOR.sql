@@ -0,0 +1,9 @@
+-- Full-text search over the title and the description of the tasks.
+-- The vector is a stored generated column, so PostgreSQL keeps it up to date on every insert and update.
+-- The 'simple' configuration does not stem, the tasks are written in more than one language.
+ALTER TABLE TASK ADD COLUMN search_vector TSVECTOR GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+) STORED;
+
+CREATE INDEX IX_TASK_SEARCH_VECTOR ON TASK USING GIN (search_vector);
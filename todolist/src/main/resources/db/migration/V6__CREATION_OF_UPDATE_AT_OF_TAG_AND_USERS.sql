@@ -0,0 +1,6 @@
+-- Last update of the tags and users, used with the one of the tasks as the validators of the HTTP conditional requests.
+-- Every insert and update writes the current time, so the latest update of a set of rows changes with any of them.
+ALTER TABLE TAG ADD COLUMN update_at TIMESTAMP NOT NULL DEFAULT now();
+ALTER TABLE USERS ADD COLUMN update_at TIMESTAMP NOT NULL DEFAULT now();
+
+UPDATE TASK SET update_at = create_at WHERE update_at IS NULL;
@@ -0,0 +1,4 @@
+-- Prefix search of the users by name and by email, ignoring case: lower(name) LIKE 'prefix%'.
+-- The pattern operator class lets the B-tree serve LIKE whatever the collation of the database
+CREATE INDEX IX_USERS_NAME_PREFIX ON USERS (lower(name) text_pattern_ops);
+CREATE INDEX IX_USERS_EMAIL_PREFIX ON USERS (lower(email) text_pattern_ops);
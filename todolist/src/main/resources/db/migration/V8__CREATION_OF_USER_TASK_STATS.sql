@@ -0,0 +1,16 @@
+-- Number of tasks of each user per status and severity, kept up to date by the task writes as deltas and
+-- repaired periodically from TASK. The tasks without a status or a severity are not counted
+CREATE TABLE USER_TASK_STATS (
+    user_id BIGINT NOT NULL,
+    status_type INT NOT NULL,
+    severity_type INT NOT NULL,
+    task_count BIGINT NOT NULL,
+    CONSTRAINT PK_USER_TASK_STATS PRIMARY KEY (user_id, status_type, severity_type),
+    CONSTRAINT FK_USER_TASK_STATS_USER FOREIGN KEY (user_id) REFERENCES USERS (id)
+);
+
+INSERT INTO USER_TASK_STATS (user_id, status_type, severity_type, task_count)
+SELECT user_id, status_type, severity_type, count(*)
+FROM TASK
+WHERE status_type IS NOT NULL AND severity_type IS NOT NULL
+GROUP BY user_id, status_type, severity_type;
@@ -0,0 +1,5 @@
+-- The priority drives the keyset pagination, which cannot page over null values, and every write path already
+-- requires it. The tasks written before that are given the priority 0
+UPDATE TASK SET priority = 0 WHERE priority IS NULL;
+
+ALTER TABLE TASK ALTER COLUMN priority SET NOT NULL;
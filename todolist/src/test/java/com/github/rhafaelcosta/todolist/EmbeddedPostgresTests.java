@@ -0,0 +1,85 @@
+package com.github.rhafaelcosta.todolist;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Base of the tests running the application against an embedded PostgreSQL, migrated by Flyway when the application
+ * starts.
+ * <p>
+ * A single server is started for the whole run and stopped with the JVM. Each test class gets a database of its own
+ * on it, created the first time the class asks for it, so the classes may fill or change their data without seeing
+ * each other's. The context of the class is closed after it, with its connections, so the next class starts on a
+ * new database.
+ */
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public abstract class EmbeddedPostgresTests {
+
+    private static EmbeddedPostgres server;
+    private static int databases;
+    private static String database;
+
+    @DynamicPropertySource
+    static void embeddedDataSource(DynamicPropertyRegistry registry) {
+        var url = databaseUrl();
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static synchronized void releaseDatabase() {
+        database = null;
+    }
+
+    /**
+     * Returns the JDBC URL of the database of the running test class.
+     */
+    protected static String databaseUrl() {
+        return server().getJdbcUrl("postgres", databaseName());
+    }
+
+    /**
+     * Returns the database of the running test class, to prepare it before the application starts.
+     */
+    protected static DataSource database() {
+        return server().getDatabase("postgres", databaseName());
+    }
+
+    private static synchronized String databaseName() {
+        if (database == null) {
+            var name = "todolist_" + ++databases;
+            try (var connection = server().getPostgresDatabase().getConnection(); var statement = connection.createStatement()) {
+                statement.execute("CREATE DATABASE " + name);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Database not created: " + name, e);
+            }
+            database = name;
+        }
+
+        return database;
+    }
+
+    private static synchronized EmbeddedPostgres server() {
+        if (server == null) {
+            try {
+                server = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return server;
+    }
+
+}
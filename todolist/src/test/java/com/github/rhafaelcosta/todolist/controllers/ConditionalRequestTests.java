@@ -0,0 +1,273 @@
+package com.github.rhafaelcosta.todolist.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.github.rhafaelcosta.todolist.EmbeddedPostgresTests;
+import com.github.rhafaelcosta.todolist.caches.ListResultCache;
+
+/**
+ * Revalidates the tasks, tags and users with their entity tags and dates, against an embedded PostgreSQL migrated
+ * by Flyway. The list cache is enabled, so the stamps of the lists must follow the writes as the pages do.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ConditionalRequestTests extends EmbeddedPostgresTests {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private ListResultCache listCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void revalidatesTaskUntilItsOwnerOrTagsChange() {
+        var userId = create("/users", """
+                {"name": "Owner", "email": "owner@email.com", "active": true}
+                """);
+        var tagId = create("/tags", """
+                {"name": "Revalidated"}
+                """);
+        var taskId = create("/tasks", """
+                {"title": "Task", "priority": 1, "severityType": 1, "taskStatusType": 1, "userId": %d, "tags": [{"id": %d}]}
+                """.formatted(userId, tagId));
+
+        var first = get("/tasks/" + taskId, null);
+        var eTag = first.getHeaders().getETag();
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertNotNull(eTag);
+        assertNotEquals(-1, first.getHeaders().getLastModified());
+        assertNotModified(get("/tasks/" + taskId, Map.of(HttpHeaders.IF_NONE_MATCH, eTag)), eTag);
+        assertNotModified(get("/tasks/" + taskId, Map.of(HttpHeaders.IF_MODIFIED_SINCE, first.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED))), eTag);
+
+        put("/tags/" + tagId, """
+                {"name": "Renamed"}
+                """);
+        var afterTag = get("/tasks/" + taskId, Map.of(HttpHeaders.IF_NONE_MATCH, eTag));
+
+        assertEquals(HttpStatus.OK, afterTag.getStatusCode());
+        assertNotEquals(eTag, afterTag.getHeaders().getETag());
+
+        put("/users/" + userId, """
+                {"name": "Renamed owner", "email": "owner@email.com", "active": true}
+                """);
+        var afterOwner = get("/tasks/" + taskId, Map.of(HttpHeaders.IF_NONE_MATCH, afterTag.getHeaders().getETag()));
+
+        assertEquals(HttpStatus.OK, afterOwner.getStatusCode());
+        assertNotEquals(afterTag.getHeaders().getETag(), afterOwner.getHeaders().getETag());
+    }
+
+    @Test
+    void revalidatesTaskWhenOneOfItsTagsIsSwapped() {
+        var userId = create("/users", """
+                {"name": "Swapper", "email": "swapper@email.com", "active": true}
+                """);
+        var p1 = create("/tags", """
+                {"name": "P1"}
+                """);
+        var p2 = create("/tags", """
+                {"name": "P2"}
+                """);
+        var p3 = create("/tags", """
+                {"name": "P3"}
+                """);
+        var task = """
+                {"title": "Swapped", "priority": 1, "severityType": 1, "taskStatusType": 1, "userId": %d, "tags": [{"id": %d}, {"id": %d}]}
+                """;
+        var taskId = create("/tasks", task.formatted(userId, p1, p3));
+        var page = "/tasks?userId=" + userId + "&includeTags=true";
+
+        var eTag = get("/tasks/" + taskId, null).getHeaders().getETag();
+        var pageETag = get(page, null).getHeaders().getETag();
+
+        put("/tasks/" + taskId, task.formatted(userId, p2, p3));
+        var afterSwap = get("/tasks/" + taskId, Map.of(HttpHeaders.IF_NONE_MATCH, eTag));
+
+        assertEquals(HttpStatus.OK, afterSwap.getStatusCode());
+        assertTrue(afterSwap.getBody().contains("\"P2\""), afterSwap.getBody());
+        assertEquals(HttpStatus.OK, get(page, Map.of(HttpHeaders.IF_NONE_MATCH, pageETag)).getStatusCode());
+
+        // An update of the task committed after a later one of its owner leaves the latest update as it was
+        jdbcTemplate.update("UPDATE USERS SET update_at = now() + interval '1 hour' WHERE id = ?", userId);
+        eTag = get("/tasks/" + taskId, null).getHeaders().getETag();
+        jdbcTemplate.update("UPDATE TASK SET update_at = now() WHERE id = ?", taskId);
+        var lateCommit = get("/tasks/" + taskId, Map.of(HttpHeaders.IF_NONE_MATCH, eTag));
+
+        assertEquals(HttpStatus.OK, lateCommit.getStatusCode());
+        assertNotEquals(eTag, lateCommit.getHeaders().getETag());
+    }
+
+    @Test
+    void revalidatesTaskPagesPerFilter() {
+        var userId = create("/users", """
+                {"name": "Paged", "email": "paged@email.com", "active": true}
+                """);
+        var ownPage = "/tasks?userId=" + userId;
+        var otherPage = "/tasks?userId=1";
+
+        var ownETag = get(ownPage, null).getHeaders().getETag();
+        var otherETag = get(otherPage, null).getHeaders().getETag();
+        var taggedETag = get(otherPage + "&includeTags=true", null).getHeaders().getETag();
+
+        assertNotModified(get(ownPage, Map.of(HttpHeaders.IF_NONE_MATCH, ownETag)), ownETag);
+
+        create("/tasks", """
+                {"title": "Paged task", "priority": 1, "severityType": 1, "taskStatusType": 1, "userId": %d, "tags": []}
+                """.formatted(userId));
+
+        assertEquals(HttpStatus.OK, get(ownPage, Map.of(HttpHeaders.IF_NONE_MATCH, ownETag)).getStatusCode());
+        assertNotModified(get(otherPage, Map.of(HttpHeaders.IF_NONE_MATCH, otherETag)), otherETag);
+
+        // Any tag change invalidates the pages including the tags
+        create("/tags", """
+                {"name": "Paged tag"}
+                """);
+
+        assertNotModified(get(otherPage, Map.of(HttpHeaders.IF_NONE_MATCH, otherETag)), otherETag);
+        assertEquals(HttpStatus.OK, get(otherPage + "&includeTags=true", Map.of(HttpHeaders.IF_NONE_MATCH, taggedETag)).getStatusCode());
+    }
+
+    @Test
+    void revalidatesUsersAndTags() {
+        var users = get("/users", null).getHeaders().getETag();
+        var tags = get("/tags", null).getHeaders().getETag();
+
+        assertNotModified(get("/users", Map.of(HttpHeaders.IF_NONE_MATCH, users)), users);
+        assertNotModified(get("/tags?name=a", Map.of(HttpHeaders.IF_NONE_MATCH, tags)), tags);
+
+        var userId = create("/users", """
+                {"name": "Listed", "email": "listed@email.com", "active": true}
+                """);
+
+        assertEquals(HttpStatus.OK, get("/users", Map.of(HttpHeaders.IF_NONE_MATCH, users)).getStatusCode());
+
+        var user = get("/users/" + userId, null).getHeaders().getETag();
+        assertNotModified(get("/users/" + userId, Map.of(HttpHeaders.IF_NONE_MATCH, user)), user);
+
+        rest.delete("/users/" + userId);
+        assertEquals(HttpStatus.OK, get("/users/" + userId, Map.of(HttpHeaders.IF_NONE_MATCH, user)).getStatusCode());
+    }
+
+    @Test
+    void revalidatesEachRepresentationApart() {
+        var json = get("/users/1", null);
+        var cbor = get("/users/1", Map.of(HttpHeaders.ACCEPT, "application/cbor"));
+        var protobuf = get("/users/1", Map.of(HttpHeaders.ACCEPT, "application/x-protobuf"));
+        var negotiated = get("/users/1", Map.of(HttpHeaders.ACCEPT, "application/json;q=0.5, application/x-protobuf, application/*;q=0.1"));
+        var page = get("/users", Map.of(HttpHeaders.ACCEPT, "application/x-protobuf"));
+
+        assertTrue(json.getHeaders().getVary().contains(HttpHeaders.ACCEPT));
+        assertNotEquals(json.getHeaders().getETag(), cbor.getHeaders().getETag());
+        assertNotEquals(cbor.getHeaders().getETag(), protobuf.getHeaders().getETag());
+        // The entity tag names the format the body is written in
+        for (var response : List.of(json, cbor, protobuf, negotiated, page)) {
+            assertTrue(response.getHeaders().getETag().endsWith("-" + response.getHeaders().getContentType().getSubtype() + "\""),
+                    response.getHeaders().getETag());
+        }
+        assertEquals(HttpStatus.OK, get("/users/1", Map.of(HttpHeaders.ACCEPT, "application/cbor",
+                HttpHeaders.IF_NONE_MATCH, json.getHeaders().getETag())).getStatusCode());
+
+        var notModified = get("/users/1", Map.of(HttpHeaders.ACCEPT, "application/cbor", HttpHeaders.IF_NONE_MATCH, cbor.getHeaders().getETag()));
+        assertNotModified(notModified, cbor.getHeaders().getETag());
+        assertTrue(notModified.getHeaders().getVary().contains(HttpHeaders.ACCEPT));
+
+        // The same fields listed in any order are the same representation, another selection is not
+        var fields = get("/tasks?fields=title,id&expand=user", null).getHeaders().getETag();
+
+        assertNotModified(get("/tasks?fields=id,title&expand=user", Map.of(HttpHeaders.IF_NONE_MATCH, fields)), fields);
+        assertEquals(HttpStatus.OK, get("/tasks?fields=id,title&expand=user&normalize=true", Map.of(HttpHeaders.IF_NONE_MATCH, fields)).getStatusCode());
+        assertEquals(HttpStatus.OK, get("/tasks?fields=id,title", Map.of(HttpHeaders.IF_NONE_MATCH, fields)).getStatusCode());
+    }
+
+    @Test
+    void doesNotRevalidateMissingEntities() {
+        assertEquals(HttpStatus.NOT_FOUND, get("/tasks/-1", Map.of(HttpHeaders.IF_NONE_MATCH, "\"0-0\"")).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, get("/tags/-1", Map.of(HttpHeaders.IF_NONE_MATCH, "\"0-0\"")).getStatusCode());
+    }
+
+    @Test
+    void doesNotKeepAGenerationPerQueriedOwner() {
+        var owners = listCache.getOwnerCount();
+
+        for (var userId = 1000; userId < 1100; userId++) {
+            assertEquals(HttpStatus.OK, get("/tasks?userId=" + userId, null).getStatusCode());
+        }
+
+        assertEquals(owners, listCache.getOwnerCount());
+    }
+
+    @Test
+    void raisesTheOwnerGenerationsPastTheLimit() {
+        var cache = new ListResultCache(true, 100, Duration.ZERO, 2);
+
+        cache.invalidateOwner(1L);
+        cache.invalidateOwner(2L);
+        var first = cache.ownerGeneration(1L);
+        var unknown = cache.ownerGeneration(3L);
+
+        cache.invalidateOwner(3L);
+
+        assertEquals(1, cache.getOwnerCount());
+        // The dropped owners fall back to the raised floor, never to a generation they already had
+        assertTrue(cache.ownerGeneration(1L) > first);
+        assertTrue(cache.ownerGeneration(3L) > cache.ownerGeneration(1L));
+        assertTrue(cache.ownerGeneration(4L) > unknown);
+    }
+
+    private static void assertNotModified(ResponseEntity<String> response, String eTag) {
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(eTag, response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    private ResponseEntity<String> get(String url, Map<String, String> conditions) {
+        var headers = new HttpHeaders();
+        if (conditions != null) {
+            conditions.forEach(headers::add);
+        }
+
+        return rest.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private void put(String url, String body) {
+        var response = rest.exchange(url, HttpMethod.PUT, json(body), String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode(), response.getBody());
+    }
+
+    private long create(String url, String body) {
+        var response = rest.exchange(url, HttpMethod.POST, json(body), Map.class);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+
+        return ((Number) response.getBody().get("id")).longValue();
+    }
+
+    private static HttpEntity<String> json(String body) {
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        return new HttpEntity<>(body, headers);
+    }
+
+}
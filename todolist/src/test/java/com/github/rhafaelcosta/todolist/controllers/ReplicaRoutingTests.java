@@ -0,0 +1,163 @@
+package com.github.rhafaelcosta.todolist.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.github.rhafaelcosta.todolist.EmbeddedPostgresTests;
+import com.github.rhafaelcosta.todolist.datasources.ReplicaHealthMonitor;
+import com.github.rhafaelcosta.todolist.datasources.ReplicaRoutingDataSource;
+import com.github.rhafaelcosta.todolist.responses.UserResponse;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Routes the reads to a second embedded PostgreSQL standing for the replica, a server of its own as the tests stop
+ * it. It does not replicate the primary: both are migrated by Flyway and the replica holds a user of its own, so each
+ * response shows where it was read.
+ * <p>
+ * The lag of the replica is read from a table of its own, set by the tests before running the health check.
+ * Every request sends its own client header, as all of them come from the same address.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "todolist.cache.list.enabled=false",
+        "todolist.cache.entities.enabled=false",
+        "todolist.datasource.replica.lag-query=SELECT seconds FROM replica_lag",
+        "todolist.datasource.replica.health-check-interval=PT1H",
+        "todolist.datasource.replica.max-lag=PT5S",
+        "todolist.datasource.replica.connection-timeout=PT1S"
+})
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReplicaRoutingTests extends EmbeddedPostgresTests {
+
+    private static final String REPLICA_USER = "Replica only";
+
+    private static EmbeddedPostgres replica;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReplicaHealthMonitor monitor;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @DynamicPropertySource
+    static void dataSources(DynamicPropertyRegistry registry) throws IOException {
+        replica = EmbeddedPostgres.start();
+
+        Flyway.configure().dataSource(replica.getPostgresDatabase()).load().migrate();
+        var replicaJdbc = new JdbcTemplate(replica.getPostgresDatabase());
+        replicaJdbc.update("INSERT INTO users (name, email, active) VALUES (?, 'replica@email.com.br', TRUE)", REPLICA_USER);
+        replicaJdbc.execute("CREATE TABLE replica_lag (seconds DOUBLE PRECISION)");
+        replicaJdbc.update("INSERT INTO replica_lag VALUES (0)");
+
+        registry.add("todolist.datasource.replicas[0].url", () -> replica.getJdbcUrl("postgres", "postgres"));
+    }
+
+    @AfterAll
+    static void stopReplica() throws IOException {
+        replica.close();
+    }
+
+    @Test
+    @Order(1)
+    void readsFromTheReplica() {
+        assertTrue(listUserNames("reader").contains(REPLICA_USER));
+        assertEquals(HttpStatus.OK, rest.exchange("/users/4", HttpMethod.GET, withClient("reader", null), UserResponse.class).getStatusCode());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE name = ?", Integer.class, REPLICA_USER));
+    }
+
+    @Test
+    @Order(2)
+    void writesToThePrimaryAndReadsItsOwnWrites() {
+        var user = """
+                {"name": "Writer", "email": "writer@email.com.br", "active": true}
+                """;
+
+        var response = rest.exchange("/users", HttpMethod.POST, withClient("writer", user), UserResponse.class);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE name = 'Writer'", Integer.class));
+
+        // The writer reads from the primary until the replica has caught up, the other clients from the replica
+        var writerReads = listUserNames("writer");
+        assertTrue(writerReads.contains("Writer"));
+        assertFalse(writerReads.contains(REPLICA_USER));
+        assertTrue(listUserNames("reader").contains(REPLICA_USER));
+    }
+
+    @Test
+    @Order(3)
+    void readsFromThePrimaryWhileTheReplicaLags() {
+        new JdbcTemplate(replica.getPostgresDatabase()).update("UPDATE replica_lag SET seconds = 60");
+        monitor.check();
+
+        assertFalse(listUserNames("reader").contains(REPLICA_USER));
+
+        new JdbcTemplate(replica.getPostgresDatabase()).update("UPDATE replica_lag SET seconds = 1");
+        monitor.check();
+
+        assertTrue(listUserNames("reader").contains(REPLICA_USER));
+    }
+
+    @Test
+    @Order(4)
+    void readsFromThePrimaryWhenTheReplicaIsDown() throws IOException, InterruptedException, SQLException {
+        replica.close();
+        // Hikari does not validate a connection used within the last 500 ms before lending it again
+        Thread.sleep(600);
+
+        var names = listUserNames("reader");
+
+        assertFalse(names.contains(REPLICA_USER));
+        assertEquals(List.of("Anna", "Jose", "Jo\u00e3o", "Writer"), names);
+        assertFalse(dataSource.unwrap(ReplicaRoutingDataSource.class).getReplicas().get(0).isUp());
+    }
+
+    private List<String> listUserNames(String client) {
+        var response = rest.exchange("/users", HttpMethod.GET, withClient(client, null), UserPage.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody().content().stream().map(UserResponse::name).sorted().toList();
+    }
+
+    private static HttpEntity<String> withClient(String client, String body) {
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.add("X-Client-Id", client);
+
+        return new HttpEntity<>(body, headers);
+    }
+
+    private record UserPage(List<UserResponse> content) { }
+
+}
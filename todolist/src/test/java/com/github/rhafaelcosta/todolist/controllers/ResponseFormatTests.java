@@ -0,0 +1,122 @@
+package com.github.rhafaelcosta.todolist.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.github.rhafaelcosta.todolist.EmbeddedPostgresTests;
+import com.github.rhafaelcosta.todolist.formats.ProtobufJacksonHttpMessageConverter;
+import com.github.rhafaelcosta.todolist.responses.ErrorResponse;
+import com.github.rhafaelcosta.todolist.responses.TaskResponse;
+import com.github.rhafaelcosta.todolist.responses.UserResponse;
+
+/**
+ * Reads the same responses as JSON, CBOR, Smile and protobuf, chosen by the Accept header, against an embedded
+ * PostgreSQL migrated by Flyway.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ResponseFormatTests extends EmbeddedPostgresTests {
+
+    private static final String TASKS = "/tasks?size=5&includeTags=true";
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final ProtobufJacksonHttpMessageConverter protobuf = new ProtobufJacksonHttpMessageConverter(new ProtobufMapper());
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void servesJsonByDefault() {
+        var response = rest.exchange(TASKS, HttpMethod.GET, null, String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+    }
+
+    @Test
+    void servesTheSameTreeAsCborAndSmile() throws IOException {
+        var json = objectMapper.readTree(get(TASKS, MediaType.APPLICATION_JSON).getBody());
+
+        var cbor = get(TASKS, MediaType.APPLICATION_CBOR);
+        assertEquals(MediaType.APPLICATION_CBOR, cbor.getHeaders().getContentType());
+        assertEquals(json, new CBORMapper().readTree(cbor.getBody()));
+
+        var smile = get(TASKS, SMILE);
+        assertEquals(SMILE, smile.getHeaders().getContentType());
+        assertEquals(json, new SmileMapper().readTree(smile.getBody()));
+    }
+
+    @Test
+    void servesTaskPagesAsProtobuf() throws IOException {
+        var json = objectMapper.readTree(get(TASKS, MediaType.APPLICATION_JSON).getBody());
+        var response = get(TASKS, ProtobufJacksonHttpMessageConverter.PROTOBUF);
+
+        assertEquals(ProtobufJacksonHttpMessageConverter.PROTOBUF, response.getHeaders().getContentType());
+
+        var page = readProtobuf(response.getBody(), ResolvableType.forClassWithGenerics(Page.class, TaskResponse.class), TaskPage.class);
+        var tasks = objectMapper.convertValue(json.get("content"), TaskResponse[].class);
+
+        assertEquals(json.get("totalElements").asLong(), page.totalElements());
+        assertEquals(List.of(tasks), page.content());
+    }
+
+    @Test
+    void servesUsersAndErrorsAsProtobuf() throws IOException {
+        var user = get("/users/1", ProtobufJacksonHttpMessageConverter.PROTOBUF);
+
+        assertEquals(HttpStatus.OK, user.getStatusCode());
+        assertEquals(rest.getForObject("/users/1", UserResponse.class),
+                readProtobuf(user.getBody(), ResolvableType.forClass(UserResponse.class), UserResponse.class));
+
+        var error = get("/tasks/-1", ProtobufJacksonHttpMessageConverter.PROTOBUF);
+
+        assertEquals(HttpStatus.NOT_FOUND, error.getStatusCode());
+        assertEquals("Task not found with id: -1",
+                readProtobuf(error.getBody(), ResolvableType.forClass(ErrorResponse.class), ProtobufError.class).message());
+    }
+
+    @Test
+    void refusesProtobufForResponsesWithoutMessage() {
+        assertEquals(HttpStatus.NOT_ACCEPTABLE, get("/tasks/stats", ProtobufJacksonHttpMessageConverter.PROTOBUF).getStatusCode());
+    }
+
+    private ResponseEntity<byte[]> get(String url, MediaType accept) {
+        var headers = new HttpHeaders();
+        headers.setAccept(List.of(accept));
+
+        return rest.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+    }
+
+    private <T> T readProtobuf(byte[] body, ResolvableType type, Class<T> target) throws IOException {
+        var schema = protobuf.findSchema(type.getType(), type.toClass());
+        return new ProtobufMapper().readerFor(target).with(schema).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).readValue(body);
+    }
+
+    private record TaskPage(List<TaskResponse> content, long totalElements) { }
+
+    private record ProtobufError(String timestamp, String message, String details) { }
+
+}
@@ -0,0 +1,142 @@
+package com.github.rhafaelcosta.todolist.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.github.rhafaelcosta.todolist.EmbeddedPostgresTests;
+import com.github.rhafaelcosta.todolist.responses.UserResponse;
+import com.github.rhafaelcosta.todolist.statements.StatementBudgetFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Counts the SQL statements of the task writes and of the user and tag reads with the second-level cache cold,
+ * right after it is cleared, and warm, against an embedded PostgreSQL migrated by Flyway.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "todolist.cache.list.enabled=false")
+class SecondLevelCacheTests extends EmbeddedPostgresTests {
+
+    private static final String TASK = """
+            {"title": "Task", "priority": 1, "severityType": 1, "taskStatusType": 1, "userId": 1, "tags": [{"id": 1}, {"id": 2}]}
+            """;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void createsTasksWithoutLoadingTheOwner() {
+        evictAll();
+
+        assertEquals(4, statements(HttpMethod.POST, "/tasks", TASK));
+        assertEquals(3, statements(HttpMethod.POST, "/tasks", TASK));
+    }
+
+    @Test
+    void updatesTasksWithoutLoadingTheOwner() {
+        var id = exchange(HttpMethod.POST, "/tasks", TASK).getBody().get("id");
+        evictAll();
+
+        // The tags of the task are loaded by both, as every update of the collection evicts it
+        assertEquals(5, statements(HttpMethod.PUT, "/tasks/" + id, TASK));
+        assertEquals(4, statements(HttpMethod.PUT, "/tasks/" + id, TASK));
+    }
+
+    @Test
+    void readsUsersAndTagsWithoutLoadingThem() {
+        evictAll();
+
+        assertEquals(2, statements(HttpMethod.GET, "/users/1", null));
+        assertEquals(1, statements(HttpMethod.GET, "/users/1", null));
+        assertEquals(2, statements(HttpMethod.GET, "/tags/1", null));
+        assertEquals(1, statements(HttpMethod.GET, "/tags/1", null));
+    }
+
+    @Test
+    void readsTheWrittenUsers() {
+        var id = exchange(HttpMethod.POST, "/users", """
+                {"name": "Cached", "email": "cached@email.com", "active": true}
+                """).getBody().get("id");
+        assertEquals("Cached", exchange(HttpMethod.GET, "/users/" + id, null).getBody().get("name"));
+        assertTrue(listUserNames().contains("Cached"));
+
+        exchange(HttpMethod.PUT, "/users/" + id, """
+                {"name": "Renamed", "email": "cached@email.com", "active": true}
+                """);
+
+        assertEquals("Renamed", exchange(HttpMethod.GET, "/users/" + id, null).getBody().get("name"));
+        assertTrue(listUserNames().contains("Renamed"));
+
+        // Deactivates the user
+        rest.delete("/users/" + id);
+
+        assertEquals(false, exchange(HttpMethod.GET, "/users/" + id, null).getBody().get("active"));
+        assertTrue(listUsers().stream().anyMatch(user -> user.name().equals("Renamed") && !user.active()));
+    }
+
+    @Test
+    void publishesTheStatisticsOfEachRegion() {
+        exchange(HttpMethod.GET, "/tags/1", null);
+        exchange(HttpMethod.GET, "/tags/1", null);
+
+        for (var region : List.of("tag", "user", "task-tags")) {
+            assertNotNull(registry.find("hibernate.second.level.cache.requests").tags("region", region, "result", "hit").functionCounter(), region);
+        }
+        assertTrue(registry.get("hibernate.second.level.cache.requests").tags("region", "tag", "result", "hit").functionCounter().count() > 0);
+    }
+
+    private void evictAll() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    private List<String> listUserNames() {
+        return listUsers().stream().map(UserResponse::name).toList();
+    }
+
+    private List<UserResponse> listUsers() {
+        return rest.getForObject("/users", UserPage.class).content();
+    }
+
+    private int statements(HttpMethod method, String url, String body) {
+        var response = rest.exchange(url, method, json(body), String.class);
+        assertTrue(response.getStatusCode().is2xxSuccessful(), () -> url + " returned " + response.getStatusCode());
+
+        return Integer.parseInt(response.getHeaders().getFirst(StatementBudgetFilter.HEADER));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private ResponseEntity<Map> exchange(HttpMethod method, String url, String body) {
+        return rest.exchange(url, method, json(body), Map.class);
+    }
+
+    private static HttpEntity<String> json(String body) {
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        return new HttpEntity<>(body, headers);
+    }
+
+    private record UserPage(List<UserResponse> content) { }
+
+}
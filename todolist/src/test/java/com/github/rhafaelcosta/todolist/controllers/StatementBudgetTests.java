@@ -0,0 +1,63 @@
+package com.github.rhafaelcosta.todolist.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestClientException;
+
+import com.github.rhafaelcosta.todolist.EmbeddedPostgresTests;
+
+/**
+ * Refuses every SQL statement of the requests, against an embedded PostgreSQL migrated by Flyway, to check that the
+ * statements run outside of Hibernate and the ones of the streamed bodies, whose counts the response header cannot
+ * show, are counted too.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "todolist.statements.budget=0")
+class StatementBudgetTests extends EmbeddedPostgresTests {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void allowsTheRequestsWithoutStatements() {
+        assertEquals(HttpStatus.OK, rest.getForEntity("/tasks/stats", String.class).getStatusCode());
+    }
+
+    @Test
+    void countsTheStatementsOfTheStreamedBodies() {
+        // The response is committed with the body, the refused statement aborts it
+        assertThrows(RestClientException.class, () -> rest.getForEntity("/tasks/export", String.class));
+        assertThrows(RestClientException.class, () -> rest.getForEntity("/tasks/export?format=csv", String.class));
+        assertThrows(RestClientException.class, () -> rest.getForEntity("/users/export", String.class));
+    }
+
+    @Test
+    void countsTheStatementsOutsideOfHibernate() {
+        var tasks = jdbcTemplate.queryForObject("SELECT count(*) FROM task", Long.class);
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+
+        var response = rest.postForEntity("/tasks/imports", new HttpEntity<>("""
+                title,user_id,priority,severity_type,task_status_type
+                Refused,1,1,1,1
+                """, headers), String.class);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals(tasks, jdbcTemplate.queryForObject("SELECT count(*) FROM task", Long.class));
+    }
+
+}
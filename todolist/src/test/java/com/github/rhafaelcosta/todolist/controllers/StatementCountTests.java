@@ -0,0 +1,272 @@
+package com.github.rhafaelcosta.todolist.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.github.rhafaelcosta.todolist.EmbeddedPostgresTests;
+import com.github.rhafaelcosta.todolist.statements.StatementBudgetFilter;
+
+/**
+ * Asserts the number of SQL statements executed by every endpoint, against an embedded PostgreSQL migrated by Flyway.
+ * <p>
+ * The counts do not depend on the number of rows, so a lazy association loaded once per row fails these tests.
+ * The list cache is disabled and the list pages are smaller than the data, so their totals are always counted.
+ * The second-level cache is disabled too, so the counts do not depend on the tests run before.
+ * The reads also count the change stamp used for their entity tag.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "todolist.cache.list.enabled=false",
+        "todolist.cache.entities.enabled=false",
+        "spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=true"
+})
+class StatementCountTests extends EmbeddedPostgresTests {
+
+    private static final String TASK = """
+            {"title": "Task", "priority": 1, "severityType": 1, "taskStatusType": 1, "userId": 1, "tags": [{"id": 1}, {"id": 2}]}
+            """;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Test
+    void listTasks() {
+        assertStatements(3, HttpMethod.GET, "/tasks?size=2", null);
+        assertStatements(5, HttpMethod.GET, "/tasks?size=2&includeTags=true", null);
+    }
+
+    @Test
+    void listTasksWithFacets() {
+        // The change stamps of the tasks and tags, the facets with the total, and the page
+        assertStatements(4, HttpMethod.GET, "/tasks?size=2&facets=true", null);
+        assertStatements(5, HttpMethod.GET, "/tasks?size=2&facets=true&includeTags=true&userId=1", null);
+    }
+
+    @Test
+    void listTaskFields() {
+        assertStatements(3, HttpMethod.GET, "/tasks?size=2&fields=title&expand=user", null);
+        assertStatements(5, HttpMethod.GET, "/tasks?size=2&fields=title&expand=user,tags&normalize=true", null);
+    }
+
+    @Test
+    void listTasksByCursor() {
+        assertStatements(1, HttpMethod.GET, "/tasks?cursor=&size=2", null);
+        assertStatements(2, HttpMethod.GET, "/tasks?cursor=&size=2&includeTags=true", null);
+    }
+
+    @Test
+    void searchTasks() {
+        assertStatements(1, HttpMethod.GET, "/tasks/search?q=task&size=2", null);
+        assertStatements(2, HttpMethod.GET, "/tasks/search?q=task&size=2&includeTags=true", null);
+    }
+
+    @Test
+    void taskStats() {
+        assertStatements(0, HttpMethod.GET, "/tasks/stats", null);
+    }
+
+    @Test
+    void findTask() {
+        assertStatements(2, HttpMethod.GET, "/tasks/1", null);
+    }
+
+    @Test
+    void revalidateTask() {
+        var headers = jsonHeaders();
+        headers.setIfNoneMatch(exchange(HttpMethod.GET, "/tasks/1", null).getHeaders().getETag());
+
+        var response = rest.exchange("/tasks/1", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(StatementBudgetFilter.HEADER));
+    }
+
+    @Test
+    void createTask() {
+        assertStatementsAllocatingIds(4, HttpMethod.POST, "/tasks", TASK);
+    }
+
+    @Test
+    void createTasks() {
+        assertStatementsAllocatingIds(4, HttpMethod.POST, "/tasks/batch", batch(3));
+        // One insert of the tasks and one of their tags per JDBC batch of 50, plus a block of 50 IDs for each batch
+        assertStatementsAllocatingIds(62, HttpMethod.POST, "/tasks/batch", batch(1000));
+    }
+
+    @Test
+    void updateTask() {
+        var id = create("/tasks", TASK);
+        assertStatements(5, HttpMethod.PUT, "/tasks/" + id, TASK);
+        // Moving the task to another status changes the task counts of the owner
+        assertStatements(7, HttpMethod.PUT, "/tasks/" + id, TASK.replace("\"taskStatusType\": 1", "\"taskStatusType\": 2"));
+    }
+
+    @Test
+    void deleteTask() {
+        var id = create("/tasks", TASK);
+        assertStatements(4, HttpMethod.DELETE, "/tasks/" + id, null);
+    }
+
+    @Test
+    void listTags() {
+        assertStatements(3, HttpMethod.GET, "/tags?size=2", null);
+        assertStatements(3, HttpMethod.GET, "/tags?size=2&name=a", null);
+    }
+
+    @Test
+    void findTag() {
+        assertStatements(2, HttpMethod.GET, "/tags/1", null);
+    }
+
+    @Test
+    void createTag() {
+        // The name missing from the tag catalog is looked up in the database too
+        assertStatements(2, HttpMethod.POST, "/tags", """
+                {"name": "Created tag"}
+                """);
+    }
+
+    @Test
+    void updateTag() {
+        var id = create("/tags", """
+                {"name": "Tag to update"}
+                """);
+        assertStatements(3, HttpMethod.PUT, "/tags/" + id, """
+                {"name": "Updated tag"}
+                """);
+    }
+
+    @Test
+    void deleteTag() {
+        var id = create("/tags", """
+                {"name": "Tag to delete"}
+                """);
+        assertStatements(2, HttpMethod.DELETE, "/tags/" + id, null);
+    }
+
+    @Test
+    void listUsers() {
+        assertStatements(3, HttpMethod.GET, "/users?size=2", null);
+        assertStatements(3, HttpMethod.GET, "/users?size=1&active=true&name=j", null);
+        assertStatements(1, HttpMethod.GET, "/users?cursor=&size=2", null);
+    }
+
+    @Test
+    void findUser() {
+        assertStatements(2, HttpMethod.GET, "/users/1", null);
+    }
+
+    @Test
+    void findUserTaskStats() {
+        assertStatements(2, HttpMethod.GET, "/users/1/task-stats", null);
+    }
+
+    @Test
+    void createUser() {
+        assertStatements(2, HttpMethod.POST, "/users", """
+                {"name": "Created", "email": "created@email.com", "active": true}
+                """);
+    }
+
+    @Test
+    void updateUser() {
+        var id = create("/users", """
+                {"name": "To update", "email": "to.update@email.com", "active": true}
+                """);
+        assertStatements(3, HttpMethod.PUT, "/users/" + id, """
+                {"name": "Updated", "email": "updated@email.com", "active": true}
+                """);
+    }
+
+    @Test
+    void deleteUser() {
+        var id = create("/users", """
+                {"name": "To delete", "email": "to.delete@email.com", "active": true}
+                """);
+        assertStatements(2, HttpMethod.DELETE, "/users/" + id, null);
+    }
+
+    @Test
+    void exportTasksAndUsers() {
+        // The count is sent before the streamed body, whose statements are checked against the budget when it ends
+        assertStatements(0, HttpMethod.GET, "/tasks/export", null);
+        assertStatements(0, HttpMethod.GET, "/tasks/export?format=csv", null);
+        assertStatements(0, HttpMethod.GET, "/users/export", null);
+    }
+
+    @Test
+    void importTasks() {
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        var csv = """
+                title,user_id,priority,severity_type,task_status_type,tag_ids
+                Imported,1,1,1,1,1|2
+                Unknown owner,-1,1,1,1,
+                """;
+
+        var response = rest.exchange("/tasks/imports", HttpMethod.POST, new HttpEntity<>(csv, headers), Map.class);
+        var id = response.getBody().get("id");
+
+        // The staging table, its analysis, the rejection of the unknown references, the owners and counts of the
+        // staged rows and the merge, run with the JdbcTemplate; the COPY of the rows is not counted
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("6", response.getHeaders().getFirst(StatementBudgetFilter.HEADER));
+        assertStatements(0, HttpMethod.GET, "/tasks/imports/" + id, null);
+        assertStatements(0, HttpMethod.GET, "/tasks/imports/" + id + "/rejected", null);
+    }
+
+    private void assertStatements(int expected, HttpMethod method, String url, String body) {
+        var response = exchange(method, url, body);
+
+        assertTrue(response.getStatusCode().is2xxSuccessful(), () -> method + " " + url + " failed: " + response.getBody());
+        assertEquals(String.valueOf(expected), response.getHeaders().getFirst(StatementBudgetFilter.HEADER),
+                () -> "SQL statements of " + method + " " + url);
+    }
+
+    /**
+     * The task IDs are allocated in blocks of 50, so an insert runs one more statement when the current block is exhausted.
+     */
+    private void assertStatementsAllocatingIds(int expected, HttpMethod method, String url, String body) {
+        var response = exchange(method, url, body);
+        var count = Integer.parseInt(response.getHeaders().getFirst(StatementBudgetFilter.HEADER));
+
+        assertTrue(response.getStatusCode().is2xxSuccessful(), () -> method + " " + url + " failed: " + response.getBody());
+        assertTrue(count == expected || count == expected + 1,
+                () -> "SQL statements of " + method + " " + url + " ==> expected: <" + expected + "> but was: <" + count + ">");
+    }
+
+    private long create(String url, String body) {
+        var response = rest.exchange(url, HttpMethod.POST, new HttpEntity<>(body, jsonHeaders()), Map.class);
+        return ((Number) response.getBody().get("id")).longValue();
+    }
+
+    private ResponseEntity<String> exchange(HttpMethod method, String url, String body) {
+        return rest.exchange(url, method, new HttpEntity<>(body, jsonHeaders()), String.class);
+    }
+
+    private static HttpHeaders jsonHeaders() {
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+
+    private static String batch(int size) {
+        return "{\"tasks\": [" + String.join(",", Collections.nCopies(size, TASK)) + "]}";
+    }
+
+}
@@ -0,0 +1,142 @@
+package com.github.rhafaelcosta.todolist.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.github.rhafaelcosta.todolist.EmbeddedPostgresTests;
+import com.github.rhafaelcosta.todolist.caches.TagCatalog;
+import com.github.rhafaelcosta.todolist.models.Tag;
+import com.github.rhafaelcosta.todolist.repositories.TagRepository;
+
+/**
+ * Writes the tags through the endpoints, against an embedded PostgreSQL migrated by Flyway, checking that the
+ * {@link TagCatalog} only follows the writes that commit. The reload of the catalog racing with a write is checked
+ * on a catalog of its own.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TagCatalogTests extends EmbeddedPostgresTests {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private TagCatalog tagCatalog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void keepsTheTagsOfRolledBackDeletes() {
+        // Tag 1 is on task 1, so its delete fails on the foreign key of TASK_TAG when the transaction commits
+        assertFalse(exchange(HttpMethod.DELETE, "/tags/1", null).getStatusCode().is2xxSuccessful());
+
+        assertTrue(tagCatalog.findByName("Urgente").isPresent());
+        assertEquals(HttpStatus.CONFLICT, exchange(HttpMethod.POST, "/tags", "{\"name\": \"Urgente\"}").getStatusCode());
+    }
+
+    @Test
+    void keepsTheNamesOfRolledBackRenames() {
+        // The name does not fit the column, so the update fails when the transaction commits
+        var name = "x".repeat(300);
+        assertFalse(exchange(HttpMethod.PUT, "/tags/3", "{\"name\": \"" + name + "\"}").getStatusCode().is2xxSuccessful());
+
+        assertEquals("Opcional", tagCatalog.findById(3L).orElseThrow().name());
+        assertTrue(tagCatalog.findByName(name).isEmpty());
+    }
+
+    @Test
+    void followsTheCommittedWrites() {
+        var id = ((Number) exchange(HttpMethod.POST, "/tags", "{\"name\": \"Committed\"}").getBody().get("id")).longValue();
+        assertEquals(id, tagCatalog.findByName("committed").orElseThrow().id());
+
+        assertEquals(HttpStatus.OK, exchange(HttpMethod.PUT, "/tags/" + id, "{\"name\": \"Renamed\"}").getStatusCode());
+        assertTrue(tagCatalog.findByName("Committed").isEmpty());
+        assertEquals(id, tagCatalog.findByName("Renamed").orElseThrow().id());
+
+        exchange(HttpMethod.DELETE, "/tags/" + id, null);
+        assertTrue(tagCatalog.findByName("Renamed").isEmpty());
+    }
+
+    @Test
+    void rejectsTheNamesOfTheTagsItDoesNotKnowYet() {
+        // Written by another instance, the catalog only sees it when it is reloaded
+        jdbcTemplate.update("INSERT INTO tag (name) VALUES ('Elsewhere')");
+
+        assertTrue(tagCatalog.findByName("Elsewhere").isEmpty());
+        assertEquals(HttpStatus.CONFLICT, exchange(HttpMethod.POST, "/tags", "{\"name\": \"ELSEWHERE\"}").getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, exchange(HttpMethod.PUT, "/tags/4", "{\"name\": \"elsewhere\"}").getStatusCode());
+    }
+
+    @Test
+    void loadsTheTagsItDoesNotKnowWithOneQuery() {
+        var repository = mock(TagRepository.class);
+        var catalog = new TagCatalog(repository);
+        when(repository.findAll()).thenReturn(List.of(tag(1L, "Known")));
+        when(repository.findAllById(List.of(3L, 2L, 9L))).thenReturn(List.of(tag(2L, "Two"), tag(3L, "Three")));
+
+        catalog.refresh();
+        var tags = catalog.findAllById(List.of(3L, 1L, 2L, 9L));
+
+        assertEquals(List.of(3L, 1L, 2L), List.copyOf(tags.keySet()));
+        assertEquals("Three", tags.get(3L).name());
+        verify(repository).findAllById(List.of(3L, 2L, 9L));
+        verify(repository, never()).findById(any());
+        // The loaded tags are kept
+        assertEquals(3, catalog.size());
+    }
+
+    @Test
+    void doesNotInstallAReloadReadBeforeAWrite() {
+        var repository = mock(TagRepository.class);
+        var catalog = new TagCatalog(repository);
+        var written = tag(2L, "Written");
+
+        // The tag is written while the first reload reads the tags, the second one reads it
+        when(repository.findAll()).thenAnswer(invocation -> {
+            catalog.put(written);
+            return List.of(tag(1L, "Old"));
+        }).thenReturn(List.of(tag(1L, "Old"), written));
+
+        catalog.refresh();
+
+        assertEquals(2, catalog.size());
+        assertTrue(catalog.findByName("Written").isPresent());
+    }
+
+    private static Tag tag(Long id, String name) {
+        var tag = new Tag(name);
+        tag.setId(id);
+
+        return tag;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private ResponseEntity<Map> exchange(HttpMethod method, String url, String body) {
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        return rest.exchange(url, method, new HttpEntity<>(body, headers), Map.class);
+    }
+
+}
@@ -0,0 +1,225 @@
+package com.github.rhafaelcosta.todolist.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.github.rhafaelcosta.todolist.EmbeddedPostgresTests;
+import com.github.rhafaelcosta.todolist.caches.TaskBitmapIndex;
+import com.github.rhafaelcosta.todolist.filters.TaskFilter;
+import com.github.rhafaelcosta.todolist.filters.TaskTagMode;
+import com.github.rhafaelcosta.todolist.repositories.TaskRepository;
+import com.github.rhafaelcosta.todolist.repositories.specifications.TaskSpecification;
+import com.github.rhafaelcosta.todolist.services.TaskIndexService;
+import com.github.rhafaelcosta.todolist.statements.StatementBudgetFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counts the tasks migrated by Flyway into an embedded PostgreSQL with the in-memory task index, comparing every
+ * count with the one of the database, also after the tasks are written through the endpoints and behind the index.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "todolist.task-index.enabled=true", "todolist.cache.list.enabled=false" })
+class TaskBitmapIndexTests extends EmbeddedPostgresTests {
+
+    private static final List<TaskFilter> FILTERS = List.of(
+            filter(null, null, null, null, null, null),
+            filter(1L, null, null, null, null, null),
+            filter(99L, null, null, null, null, null),
+            filter(null, 1L, null, null, null, null),
+            filter(null, null, 2L, null, null, null),
+            filter(null, null, null, 1, null, null),
+            filter(1L, 1L, 1L, null, null, null),
+            filter(null, null, null, null, List.of(2L), null),
+            filter(null, null, null, null, List.of(2L, 3L), TaskTagMode.ANY),
+            filter(null, null, null, null, List.of(1L, 2L), TaskTagMode.ALL),
+            filter(3L, null, null, null, List.of(2L, 5L), TaskTagMode.ALL),
+            filter(null, null, null, null, List.of(42L), null),
+            // The empty values of the parameter, like in ?tagIds=&tagIds=3
+            filter(null, null, null, null, Arrays.asList(null, 3L), TaskTagMode.ALL),
+            filter(null, null, null, null, Arrays.asList((Long) null), null));
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private TaskBitmapIndex taskIndex;
+
+    @Autowired
+    private TaskIndexService taskIndexService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void countsTheFiltersLikeTheDatabase() {
+        assertTrue(taskIndex.isReady());
+        assertCountsMatchTheDatabase();
+        assertTrue(taskIndexService.verify());
+
+        // The titles are not indexed
+        assertTrue(taskIndex.count(new TaskFilter(null, null, null, "Task", null, null, null, null, null, null, null)).isEmpty());
+    }
+
+    @Test
+    void followsTheTaskWrites() {
+        var id = exchange(HttpMethod.POST, "/tasks", task(2, 2, List.of(1, 3))).getBody().get("id");
+        assertCountsMatchTheDatabase();
+
+        exchange(HttpMethod.PUT, "/tasks/" + id, task(3, 4, List.of(4)));
+        assertCountsMatchTheDatabase();
+
+        var batch = rest.exchange("/tasks/batch", HttpMethod.POST, json("{\"tasks\": [" + task(1, 1, List.of(5)) + "," + task(2, 3, List.of()) + "]}"), String.class);
+        assertTrue(batch.getStatusCode().is2xxSuccessful(), batch::getBody);
+        assertCountsMatchTheDatabase();
+
+        rest.delete("/tasks/" + id);
+        assertCountsMatchTheDatabase();
+        assertTrue(taskIndexService.verify());
+    }
+
+    @Test
+    void isRebuiltWhenTheDatabaseChangesBehindIt() {
+        var id = ((Number) exchange(HttpMethod.POST, "/tasks", task(1, 2, List.of(2))).getBody().get("id")).longValue();
+        var builds = taskIndex.getBuildCount();
+
+        jdbcTemplate.update("UPDATE task SET priority = 3, user_id = 2 WHERE id = ?", id);
+        jdbcTemplate.update("DELETE FROM task_tag WHERE task_id = ?", id);
+
+        assertFalse(taskIndexService.verify());
+        assertEquals(builds + 1, taskIndex.getBuildCount());
+        assertCountsMatchTheDatabase();
+
+        rest.delete("/tasks/" + id);
+        assertCountsMatchTheDatabase();
+    }
+
+    @Test
+    void isRebuiltAfterAnImport() throws InterruptedException {
+        var builds = taskIndex.getBuildCount();
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        var csv = """
+                title,user_id,priority,severity_type,task_status_type,tag_ids
+                Imported,2,4,1,3,2|5
+                Imported untagged,3,1,2,1,
+                """;
+
+        var response = rest.postForEntity("/tasks/imports", new HttpEntity<>(csv, headers), Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, ((Number) response.getBody().get("rowsImported")).intValue());
+
+        // The index is rebuilt after the import commits, off the request thread
+        var deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while ((taskIndex.getBuildCount() == builds || !taskIndex.isReady()) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(builds + 1, taskIndex.getBuildCount());
+        assertTrue(taskIndex.isReady());
+        assertCountsMatchTheDatabase();
+    }
+
+    @Test
+    void pagesWithoutCountingInTheDatabase() {
+        var response = rest.getForEntity("/tasks?userId=1&size=1&sort=id", Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(taskRepository.count(TaskSpecification.matches(filter(1L, null, null, null, null, null))),
+                ((Number) response.getBody().get("totalElements")).longValue());
+        assertEquals(1, ((List<?>) response.getBody().get("content")).size());
+        // The change stamp and the page, the total being counted by the index
+        assertEquals("2", response.getHeaders().getFirst(StatementBudgetFilter.HEADER));
+
+        var second = rest.getForEntity("/tasks?userId=1&size=1&sort=id&page=1", Map.class).getBody();
+        assertEquals(2, ((Number) ((Map<?, ?>) ((List<?>) second.get("content")).get(0)).get("id")).intValue());
+    }
+
+    @Test
+    void ignoresTheEmptyTagIds() {
+        var response = rest.getForEntity("/tasks?tagIds=&tagIds=3&size=1", Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(taskRepository.count(TaskSpecification.matches(filter(null, null, null, null, List.of(3L), null))),
+                ((Number) response.getBody().get("totalElements")).longValue());
+    }
+
+    @Test
+    void breaksTheCountsDownPerDimension() {
+        var facets = taskIndex.facets(filter(1L, null, null, null, null, null)).orElseThrow();
+
+        assertEquals(taskIndex.count(filter(1L, null, null, null, null, null)).getAsLong(), facets.total());
+        facets.statuses().forEach((status, count) -> assertEquals(count, taskIndex.count(filter(1L, null, status.longValue(), null, null, null)).getAsLong()));
+        facets.tags().forEach((tag, count) -> assertEquals(count, taskIndex.count(filter(1L, null, null, null, List.of(tag), null)).getAsLong()));
+        assertEquals(facets.total(), facets.severities().values().stream().mapToLong(Long::longValue).sum());
+
+        assertTrue(registry.get("todolist.task.index.memory").gauge().value() > 0);
+        assertEquals(taskRepository.count(), registry.get("todolist.task.index.tasks").gauge().value());
+    }
+
+    private void assertCountsMatchTheDatabase() {
+        var expected = new ArrayList<Long>();
+        var actual = new ArrayList<Long>();
+
+        for (var filter : FILTERS) {
+            expected.add(taskRepository.count(TaskSpecification.matches(filter)));
+            actual.add(taskIndex.count(filter).orElseThrow());
+        }
+
+        assertEquals(expected, actual, FILTERS::toString);
+    }
+
+    private static TaskFilter filter(Long userId, Long severity, Long status, Integer priority, List<Long> tagIds, TaskTagMode tagMode) {
+        return new TaskFilter(userId, severity, status, null, priority, null, null, null, null, tagIds, tagMode);
+    }
+
+    private static String task(int userId, int status, List<Integer> tagIds) {
+        var tags = tagIds.stream().map(id -> "{\"id\": " + id + "}").toList();
+
+        return """
+                {"title": "Indexed", "priority": 2, "severityType": 3, "taskStatusType": %d, "userId": %d, "tags": %s}
+                """.formatted(status, userId, tags);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private ResponseEntity<Map> exchange(HttpMethod method, String url, String body) {
+        var response = rest.exchange(url, method, json(body), Map.class);
+        assertTrue(response.getStatusCode().is2xxSuccessful(), () -> url + " returned " + response.getStatusCode());
+
+        return response;
+    }
+
+    private static HttpEntity<String> json(String body) {
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        return new HttpEntity<>(body, headers);
+    }
+
+}
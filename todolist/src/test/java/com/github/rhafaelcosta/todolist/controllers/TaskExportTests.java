@@ -0,0 +1,101 @@
+package com.github.rhafaelcosta.todolist.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.rhafaelcosta.todolist.EmbeddedPostgresTests;
+
+/**
+ * Exports the tasks of an owner created by each test, against an embedded PostgreSQL migrated by Flyway.
+ * <p>
+ * The fetch size is smaller than the exported tasks, so the export reads from the cursor several times.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "todolist.export.fetch-size=100")
+class TaskExportTests extends EmbeddedPostgresTests {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportsEveryTaskAsNdjsonOrderedById() throws IOException {
+        var userId = createUser("ndjson");
+        jdbcTemplate.update("""
+                INSERT INTO task (user_id, title, description, priority, status_type, severity_type, create_at)
+                SELECT ?, 'Exported ' || i, NULL, 1 + i % 5, 1, 1, now() FROM generate_series(1, 1050) i
+                """, userId);
+
+        var response = rest.getForEntity("/tasks/export?userId=" + userId, String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+
+        var lines = response.getBody().split("\n");
+        assertEquals(1050, lines.length);
+
+        var previousId = 0L;
+        for (var line : lines) {
+            var task = objectMapper.readTree(line);
+            assertEquals(userId, task.get("user").get("id").asLong());
+            assertTrue(task.get("id").asLong() > previousId, "tasks ordered by id");
+            previousId = task.get("id").asLong();
+        }
+    }
+
+    @Test
+    void exportsTasksAsCsv() {
+        var userId = createUser("csv");
+        jdbcTemplate.update("""
+                INSERT INTO task (user_id, title, description, priority, status_type, severity_type, create_at, update_at)
+                VALUES (?, 'Plain', NULL, 1, 2, 3, TIMESTAMP '2024-01-02 03:04:05', NULL),
+                       (?, 'Comma, "quoted"', 'Two' || chr(10) || 'lines', 5, 1, 4, TIMESTAMP '2024-01-02 03:04:05', NULL)
+                """, userId, userId);
+
+        var response = rest.getForEntity("/tasks/export?format=csv&userId=" + userId, String.class);
+        var ids = jdbcTemplate.queryForList("SELECT id FROM task WHERE user_id = ? ORDER BY id", Long.class, userId);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("attachment; filename=\"tasks.csv\"", response.getHeaders().getFirst("Content-Disposition"));
+        assertEquals("""
+                id,title,description,user_id,user_name,priority,severity_type,task_status_type,create_at,update_at\r
+                %d,Plain,,%d,User csv,1,3,2,2024-01-02T03:04:05,\r
+                %d,"Comma, ""quoted""\","Two
+                lines",%d,User csv,5,4,1,2024-01-02T03:04:05,\r
+                """.formatted(ids.get(0), userId, ids.get(1), userId), response.getBody());
+    }
+
+    @Test
+    void exportsOnlyTheHeaderOfAnEmptyCsv() {
+        var response = rest.getForEntity("/tasks/export?format=csv&userId=-1", String.class);
+
+        assertEquals("id,title,description,user_id,user_name,priority,severity_type,task_status_type,create_at,update_at\r\n", response.getBody());
+    }
+
+    @Test
+    void rejectsUnknownFormats() {
+        var response = rest.getForEntity("/tasks/export?format=xml", String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    private long createUser(String name) {
+        return jdbcTemplate.queryForObject("INSERT INTO users (name, email, active) VALUES (?, ?, TRUE) RETURNING id",
+                Long.class, "User " + name, name + "@export.com");
+    }
+
+}
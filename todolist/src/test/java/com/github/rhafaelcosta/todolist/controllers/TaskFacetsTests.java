@@ -0,0 +1,124 @@
+package com.github.rhafaelcosta.todolist.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.rhafaelcosta.todolist.EmbeddedPostgresTests;
+import com.github.rhafaelcosta.todolist.caches.TaskBitmapIndex;
+import com.github.rhafaelcosta.todolist.filters.TaskFilter;
+import com.github.rhafaelcosta.todolist.repositories.TaskFacetsRepository;
+import com.github.rhafaelcosta.todolist.repositories.specifications.TaskSpecification;
+import com.github.rhafaelcosta.todolist.services.TaskIndexService;
+
+/**
+ * Lists the tasks migrated by Flyway into an embedded PostgreSQL with their facet counts: tasks 1 and 3 are active,
+ * critical and of priority 1, task 2 and 4 have status, severity and priority 2 and 3, and task 1 is tagged 1 and 2,
+ * task 2 is tagged 3, task 3 is tagged 4 and task 4 is tagged 2 and 5.
+ * <p>
+ * The in-memory task index is enabled but not built, so the facets are counted by the database, and compared with
+ * the ones of the index once it is built.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "todolist.task-index.enabled=true")
+class TaskFacetsTests extends EmbeddedPostgresTests {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskBitmapIndex taskIndex;
+
+    @Autowired
+    private TaskIndexService taskIndexService;
+
+    @Autowired
+    private TaskFacetsRepository taskFacetsRepository;
+
+    @Test
+    void countsEveryFacetOfTheTasks() throws IOException {
+        taskIndex.invalidate();
+        var page = get("/tasks?facets=true&size=1&sort=id");
+
+        assertEquals(4, page.get("totalElements").asInt());
+        assertEquals(1, page.get("content").size());
+        assertEquals(1, page.get("content").get(0).get("id").asInt());
+
+        var facets = page.get("facets");
+        assertEquals(Map.of(1L, 2L, 2L, 1L, 3L, 1L), counts(facets.get("taskStatusTypes"), "id"));
+        assertEquals("Active", facets.get("taskStatusTypes").get(0).get("value").get("name").asText());
+        assertEquals(Map.of(1L, 2L, 2L, 1L, 3L, 1L), counts(facets.get("severityTypes"), "id"));
+        assertEquals(Map.of(1L, 2L, 2L, 1L, 3L, 1L), counts(facets.get("priorities"), null));
+        assertEquals(Map.of(1L, 1L, 2L, 2L, 3L, 1L, 4L, 1L, 5L, 1L), counts(facets.get("tags"), "id"));
+        assertEquals("Urgente", facets.get("tags").get(0).get("value").get("name").asText());
+    }
+
+    @Test
+    void countsTheFacetsOfTheFilteredTasks() throws IOException {
+        taskIndex.invalidate();
+        var facets = get("/tasks?facets=true&userId=1").get("facets");
+
+        assertEquals(Map.of(1L, 1L, 2L, 1L), counts(facets.get("taskStatusTypes"), "id"));
+        assertEquals(Map.of(1L, 1L, 2L, 1L, 3L, 1L), counts(facets.get("tags"), "id"));
+
+        var tagged = get("/tasks?facets=true&tagIds=2&tagMode=any");
+        assertEquals(2, tagged.get("totalElements").asInt());
+        assertEquals(Map.of(1L, 1L, 2L, 2L, 5L, 1L), counts(tagged.get("facets").get("tags"), "id"));
+
+        var empty = get("/tasks?facets=true&userId=99");
+        assertEquals(0, empty.get("totalElements").asInt());
+        assertTrue(empty.get("facets").get("tags").isEmpty());
+    }
+
+    @Test
+    void countsTheSameFacetsWithTheIndex() throws IOException {
+        for (var url : List.of("/tasks?facets=true", "/tasks?facets=true&userId=1", "/tasks?facets=true&tagIds=2,5&tagMode=all")) {
+            taskIndex.invalidate();
+            var counted = get(url);
+
+            assertTrue(taskIndexService.rebuild());
+            var indexed = get(url);
+
+            assertEquals(counted.get("facets"), indexed.get("facets"), url);
+            assertEquals(counted.get("totalElements"), indexed.get("totalElements"), url);
+        }
+
+        var filter = new TaskFilter(null, 1L, null, null, null, null, null, null, null, null, null);
+        assertEquals(taskFacetsRepository.count(TaskSpecification.matches(filter)), taskIndex.facets(filter).orElseThrow());
+    }
+
+    @Test
+    void keepsThePlainListingWithoutFacets() throws IOException {
+        assertTrue(get("/tasks?facets=false").path("facets").isMissingNode());
+        assertTrue(get("/tasks").path("facets").isMissingNode());
+    }
+
+    private JsonNode get(String url) throws IOException {
+        var response = rest.getForEntity(url, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode(), response.getBody());
+
+        return objectMapper.readTree(response.getBody());
+    }
+
+    private static Map<Long, Long> counts(JsonNode facet, String key) {
+        var counts = new LinkedHashMap<Long, Long>();
+        facet.forEach(value -> counts.put(key == null ? value.get("value").asLong() : value.get("value").get(key).asLong(), value.get("count").asLong()));
+
+        return counts;
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.github.rhafaelcosta.todolist.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.rhafaelcosta.todolist.EmbeddedPostgresTests;
+
+/**
+ * Lists the selected fields of the tasks migrated by Flyway into an embedded PostgreSQL: four tasks, the first two
+ * of the same owner.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TaskFieldsTests extends EmbeddedPostgresTests {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void returnsOnlyTheSelectedFields() throws IOException {
+        var page = get("/tasks?fields=title,taskStatusType,priority&sort=id&size=2");
+
+        assertEquals(4, page.get("totalElements").asInt());
+        assertEquals(2, page.get("content").size());
+        assertFalse(page.has("users"));
+
+        var task = page.get("content").get(0);
+        assertEquals(Set.of("id", "title", "taskStatusType", "priority"), fieldNames(task));
+        assertEquals("Task 1", task.get("title").asText());
+        assertEquals("Active", task.get("taskStatusType").get("name").asText());
+    }
+
+    @Test
+    void expandsTheOwnersAndTags() throws IOException {
+        var task = get("/tasks?fields=title&expand=user,tags&sort=id&userId=1").get("content").get(0);
+
+        assertEquals(Set.of("id", "title", "user", "tags"), fieldNames(task));
+        assertEquals("Anna", task.get("user").get("name").asText());
+        assertEquals(List.of("Importante", "Urgente"), task.get("tags").findValuesAsText("name"));
+    }
+
+    @Test
+    void returnsEachOwnerOnceWhenNormalized() throws IOException {
+        var page = get("/tasks?fields=title&expand=user&normalize=true&sort=id");
+
+        var owners = page.get("content").findValuesAsText("userId");
+        assertEquals(List.of("1", "1", "2", "3"), owners);
+        assertNull(page.get("content").get(0).get("user"));
+
+        assertEquals(Set.of("1", "2", "3"), fieldNames(page.get("users")));
+        assertEquals("anna@email.com.br", page.get("users").get("1").get("email").asText());
+    }
+
+    @Test
+    void filtersAndSortsTheSelectedFields() throws IOException {
+        var page = get("/tasks?fields=priority&severityTypeCode=1&sort=id,desc");
+
+        assertEquals(List.of(3L, 1L), page.get("content").findValues("id").stream().map(JsonNode::asLong).toList());
+    }
+
+    @Test
+    void rejectsUnknownFieldsAndAssociations() {
+        assertEquals(HttpStatus.BAD_REQUEST, rest.getForEntity("/tasks?fields=owner", String.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, rest.getForEntity("/tasks?fields=title&expand=comments", String.class).getStatusCode());
+    }
+
+    private JsonNode get(String url) throws IOException {
+        var response = rest.getForEntity(url, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode(), response.getBody());
+
+        return objectMapper.readTree(response.getBody());
+    }
+
+    private static Set<String> fieldNames(JsonNode node) {
+        var names = new HashSet<String>();
+        node.fieldNames().forEachRemaining(names::add);
+
+        return names;
+    }
+
+}
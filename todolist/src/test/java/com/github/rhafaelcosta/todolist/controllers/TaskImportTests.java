@@ -0,0 +1,170 @@
+package com.github.rhafaelcosta.todolist.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.github.rhafaelcosta.todolist.EmbeddedPostgresTests;
+import com.github.rhafaelcosta.todolist.responses.TaskImportResponse;
+import com.github.rhafaelcosta.todolist.responses.UserTaskStatsResponse;
+
+/**
+ * Imports files of tasks of an owner created by each test, against an embedded PostgreSQL migrated by Flyway.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TaskImportTests extends EmbeddedPostgresTests {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importsCsvAndRejectsInvalidRows() {
+        var userId = createUser("csv");
+        var csv = """
+                title,description,user_id,priority,severity_type,task_status_type,tag_ids,create_at
+                Plain,,%1$d,1,2,3,,2024-01-02T03:04:05
+                "Comma, ""quoted\""","Two
+                lines",%1$d,5,1,1,1|2,
+                Unknown severity,,%1$d,1,9,1,,
+                Unknown owner,,-1,1,1,1,,
+                Unknown tag,,%1$d,1,1,1,1|-7,
+                Not a number,,%1$d,high,1,1,,
+                Missing columns,%1$d
+                """.formatted(userId);
+
+        var response = post(csv, "text/csv");
+        var result = response.getBody();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("COMPLETED", result.status());
+        assertEquals(7, result.rowsRead());
+        assertEquals(2, result.rowsImported());
+        assertEquals(5, result.rowsRejected());
+
+        var tasks = jdbcTemplate.queryForList("""
+                SELECT t.title, t.description, t.priority, t.severity_type, t.status_type, t.create_at::text AS create_at,
+                       (SELECT string_agg(tag_id::text, '|' ORDER BY tag_id) FROM task_tag WHERE task_id = t.id) AS tags
+                FROM task t WHERE t.user_id = ? ORDER BY t.id
+                """, userId);
+
+        assertEquals(2, tasks.size());
+        assertEquals(Map.of("title", "Plain", "priority", 1, "severity_type", 2, "status_type", 3, "create_at", "2024-01-02 03:04:05"),
+                withoutNulls(tasks.get(0)));
+        assertEquals("Comma, \"quoted\"", tasks.get(1).get("title"));
+        assertEquals("Two\nlines", tasks.get(1).get("description"));
+        assertEquals("1|2", tasks.get(1).get("tags"));
+        assertEquals(2, rest.getForObject("/users/" + userId + "/task-stats", UserTaskStatsResponse.class).total());
+
+        var rejected = rest.getForEntity("/tasks/imports/" + result.id() + "/rejected", String.class).getBody().split("\r\n");
+
+        assertEquals(List.of(
+                "line,reason,source",
+                "5,\"Invalid SeverityType code: 9\",\"Unknown severity,,%d,1,9,1,,\"".formatted(userId),
+                "8,\"Invalid priority: high\",\"Not a number,,%d,high,1,1,,\"".formatted(userId),
+                "9,\"Expected 8 columns but found 2\",\"Missing columns,%d\"".formatted(userId),
+                "6,\"User not found with id: -1\",\"Unknown owner,,-1,1,1,1,,\"",
+                "7,\"Tag not found with id: -7\",\"Unknown tag,,%d,1,1,1,1|-7,\"".formatted(userId)), List.of(rejected));
+    }
+
+    @Test
+    void importsNdjson() {
+        var userId = createUser("ndjson");
+        var ndjson = """
+                {"title": "First", "userId": %1$d, "priority": 1, "severityType": 1, "taskStatusType": 1, "tags": [{"id": 3}]}
+
+                {"title": "Second", "userId": %1$d, "priority": 2, "severityType": 2, "taskStatusType": 2, "createAt": "2024-05-06T07:08:09"}
+                {"title": "Broken"
+                {"userId": %1$d, "priority": 2, "severityType": 2, "taskStatusType": 2}
+                """.formatted(userId);
+
+        var result = post(ndjson, "application/x-ndjson").getBody();
+
+        assertEquals(4, result.rowsRead());
+        assertEquals(2, result.rowsImported());
+        assertEquals(2, result.rowsRejected());
+        assertEquals(List.of("First", "Second"),
+                jdbcTemplate.queryForList("SELECT title FROM task WHERE user_id = ? ORDER BY id", String.class, userId));
+
+        var rejected = rest.getForEntity("/tasks/imports/" + result.id() + "/rejected", String.class).getBody();
+        assertTrue(rejected.contains("4,\"Invalid JSON: "), rejected);
+        assertTrue(rejected.contains("5,\"title: must not be blank\""), rejected);
+    }
+
+    @Test
+    void keepsAllocatingTaskIdsAfterAnImport() {
+        var userId = createUser("ids");
+        var csv = new StringBuilder("title,user_id,priority,severity_type,task_status_type\n");
+        for (int i = 0; i < 120; i++) {
+            csv.append("Task ").append(i).append(',').append(userId).append(",1,1,1\n");
+        }
+
+        assertEquals(120, post(csv.toString(), "text/csv").getBody().rowsImported());
+
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        var created = rest.postForEntity("/tasks", new HttpEntity<>("""
+                {"title": "After import", "priority": 1, "severityType": 1, "taskStatusType": 1, "userId": %d, "tags": []}
+                """.formatted(userId), headers), String.class);
+
+        assertEquals(HttpStatus.CREATED, created.getStatusCode());
+        assertEquals(121, jdbcTemplate.queryForObject("SELECT count(DISTINCT id) FROM task WHERE user_id = ?", Long.class, userId));
+    }
+
+    @Test
+    void rejectsCsvWithoutTheRequiredColumns() {
+        var response = rest.postForEntity("/tasks/imports", entity("title,description\nA,B\n", "text/csv"), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(response.getBody().contains("Missing CSV columns: user_id, priority, severity_type, task_status_type"), response.getBody());
+    }
+
+    @Test
+    void listsTheImports() {
+        var result = post("title,user_id,priority,severity_type,task_status_type\n", "text/csv").getBody();
+
+        var imports = rest.getForEntity("/tasks/imports", TaskImportResponse[].class).getBody();
+        var found = rest.getForEntity("/tasks/imports/" + result.id(), TaskImportResponse.class).getBody();
+
+        assertTrue(List.of(imports).stream().anyMatch(i -> i.id().equals(result.id())));
+        assertEquals("COMPLETED", found.status());
+        assertEquals(0, found.rowsRead());
+    }
+
+    private ResponseEntity<TaskImportResponse> post(String body, String contentType) {
+        return rest.postForEntity("/tasks/imports", entity(body, contentType), TaskImportResponse.class);
+    }
+
+    private static HttpEntity<String> entity(String body, String contentType) {
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(contentType));
+        return new HttpEntity<>(body, headers);
+    }
+
+    private long createUser(String name) {
+        return jdbcTemplate.queryForObject("INSERT INTO users (name, email, active) VALUES (?, ?, TRUE) RETURNING id",
+                Long.class, "User " + name, name + "@import.com");
+    }
+
+    private static Map<String, Object> withoutNulls(Map<String, Object> row) {
+        var copy = new java.util.HashMap<>(row);
+        copy.values().removeIf(java.util.Objects::isNull);
+        return copy;
+    }
+
+}
@@ -0,0 +1,202 @@
+package com.github.rhafaelcosta.todolist.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.github.rhafaelcosta.todolist.EmbeddedPostgresTests;
+import com.github.rhafaelcosta.todolist.responses.TaskStatsResponse;
+import com.github.rhafaelcosta.todolist.responses.UserTaskStatsResponse;
+import com.github.rhafaelcosta.todolist.services.TaskStatsService;
+
+/**
+ * Follows the task counts of owners created by each test, and the in-memory counts of priorities used by a single
+ * test, through the task writes and the reconciliations, against an embedded PostgreSQL migrated by Flyway.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TaskStatsTests extends EmbeddedPostgresTests {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Test
+    void countsTheBackfilledTasks() {
+        var stats = stats(1L);
+
+        assertEquals(jdbcTemplate.queryForObject("SELECT count(*) FROM task WHERE user_id = 1", Long.class), stats.total());
+        assertEquals(4, stats.byStatus().size());
+        assertEquals(4, stats.bySeverity().size());
+    }
+
+    @Test
+    void followsTheCreatesUpdatesAndDeletes() {
+        var owner = createUser("owner");
+        var other = createUser("other");
+
+        var first = create("/tasks", task(owner, 1, 1));
+        create("/tasks", task(owner, 1, 1));
+        create("/tasks", task(owner, 2, 3));
+
+        assertCounts(owner, 3, Map.of("1/1", 2L, "2/3", 1L));
+        assertEquals(List.of(2L, 1L, 0L, 0L), stats(owner).byStatus().stream().map(UserTaskStatsResponse.StatusCount::count).toList());
+        assertEquals(List.of(2L, 0L, 1L, 0L), stats(owner).bySeverity().stream().map(UserTaskStatsResponse.SeverityCount::count).toList());
+
+        // Moves a task to the other user, with another status and severity
+        exchange(HttpMethod.PUT, "/tasks/" + first, task(other, 4, 4));
+
+        assertCounts(owner, 2, Map.of("1/1", 1L, "2/3", 1L));
+        assertCounts(other, 1, Map.of("4/4", 1L));
+
+        rest.delete("/tasks/" + first);
+
+        assertCounts(other, 0, Map.of());
+
+        var batch = "{\"tasks\": [" + task(other, 3, 2) + "," + task(other, 3, 2) + "," + task(-1L, 3, 2) + "]}";
+        exchange(HttpMethod.POST, "/tasks/batch", batch);
+
+        assertCounts(other, 2, Map.of("3/2", 2L));
+    }
+
+    @Test
+    void reconcilesTheCountsThatDrifted() {
+        var owner = createUser("drifted");
+        create("/tasks", task(owner, 1, 2));
+
+        // Written without the task service, and a count corrupted
+        jdbcTemplate.update("""
+                INSERT INTO task (user_id, title, priority, status_type, severity_type, create_at, update_at)
+                SELECT ?, 'Direct ' || i, 1, 3, 4, now(), now() FROM generate_series(1, 3) i
+                """, owner);
+        jdbcTemplate.update("UPDATE user_task_stats SET task_count = 7 WHERE user_id = ?", owner);
+
+        assertCounts(owner, 7, Map.of("1/2", 7L));
+
+        assertTrue(taskStatsService.reconcile() >= 1);
+
+        assertCounts(owner, 4, Map.of("1/2", 1L, "3/4", 3L));
+        assertEquals(0, taskStatsService.reconcile());
+    }
+
+    @Test
+    void seedsTheInMemoryCountsFromTheDatabase() {
+        var stats = rest.getForObject("/tasks/stats", TaskStatsResponse.class);
+
+        assertEquals(jdbcTemplate.queryForObject("SELECT count(*) FROM task WHERE priority < 100", Long.class),
+                stats.counts().stream().filter(count -> count.priority() < 100).mapToLong(TaskStatsResponse.Count::count).sum());
+    }
+
+    @Test
+    void followsTheWritesInMemory() {
+        var owner = createUser("counted");
+
+        var id = create("/tasks", task(owner, 2, 3, 101));
+        create("/tasks", task(owner, 2, 3, 101));
+
+        assertEquals(Map.of("2/3/101", 2L), inMemoryCounts(101));
+
+        exchange(HttpMethod.PUT, "/tasks/" + id, task(owner, 4, 3, 101));
+
+        assertEquals(Map.of("2/3/101", 1L, "4/3/101", 1L), inMemoryCounts(101));
+
+        rest.delete("/tasks/" + id);
+
+        assertEquals(Map.of("2/3/101", 1L), inMemoryCounts(101));
+    }
+
+    @Test
+    void reconcilesTheInMemoryCounts() {
+        var owner = createUser("uncounted");
+        jdbcTemplate.update("""
+                INSERT INTO task (user_id, title, priority, status_type, severity_type, create_at, update_at)
+                SELECT ?, 'Direct ' || i, 102, 1, 1, now(), now() FROM generate_series(1, 5) i
+                """, owner);
+
+        assertEquals(Map.of(), inMemoryCounts(102));
+
+        taskStatsService.reconcileCounters();
+
+        assertEquals(Map.of("1/1/102", 5L), inMemoryCounts(102));
+    }
+
+    @Test
+    void doesNotFindTheStatsOfUnknownUsers() {
+        assertEquals(HttpStatus.NOT_FOUND, rest.getForEntity("/users/-1/task-stats", String.class).getStatusCode());
+    }
+
+    private void assertCounts(long userId, long total, Map<String, Long> counts) {
+        var stats = stats(userId);
+
+        assertEquals(total, stats.total());
+        assertEquals(counts, stats.counts().stream().collect(Collectors.toMap(
+                count -> count.status().id() + "/" + count.severity().id(), UserTaskStatsResponse.Count::count)));
+    }
+
+    private Map<String, Long> inMemoryCounts(int priority) {
+        return rest.getForObject("/tasks/stats", TaskStatsResponse.class).counts().stream()
+                .filter(count -> count.priority() == priority)
+                .collect(Collectors.toMap(count -> count.status().id() + "/" + count.severity().id() + "/" + count.priority(), TaskStatsResponse.Count::count));
+    }
+
+    private UserTaskStatsResponse stats(long userId) {
+        var response = rest.getForEntity("/users/" + userId + "/task-stats", UserTaskStatsResponse.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        return response.getBody();
+    }
+
+    private static String task(long userId, int status, int severity) {
+        return task(userId, status, severity, 1);
+    }
+
+    private static String task(long userId, int status, int severity, int priority) {
+        return """
+                {"title": "Task", "priority": %d, "severityType": %d, "taskStatusType": %d, "userId": %d, "tags": []}
+                """.formatted(priority, severity, status, userId);
+    }
+
+    private long createUser(String name) {
+        return create("/users", """
+                {"name": "%1$s", "email": "%1$s@stats.com", "active": true}
+                """.formatted(name));
+    }
+
+    private long create(String url, String body) {
+        var response = rest.exchange(url, HttpMethod.POST, json(body), Map.class);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+
+        return ((Number) response.getBody().get("id")).longValue();
+    }
+
+    private void exchange(HttpMethod method, String url, String body) {
+        var response = rest.exchange(url, method, json(body), String.class);
+        assertTrue(response.getStatusCode().is2xxSuccessful(), response::getBody);
+    }
+
+    private static HttpEntity<String> json(String body) {
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        return new HttpEntity<>(body, headers);
+    }
+
+}
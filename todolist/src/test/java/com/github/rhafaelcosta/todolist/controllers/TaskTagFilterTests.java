@@ -0,0 +1,81 @@
+package com.github.rhafaelcosta.todolist.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.rhafaelcosta.todolist.EmbeddedPostgresTests;
+
+/**
+ * Filters the tasks migrated by Flyway into an embedded PostgreSQL by their tags: task 1 is tagged 1 and 2, task 2
+ * is tagged 3, task 3 is tagged 4 and task 4 is tagged 2 and 5.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TaskTagFilterTests extends EmbeddedPostgresTests {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void matchesTheTasksWithAnyOfTheTags() throws IOException {
+        assertEquals(List.of(1L, 4L), ids(get("/tasks?tagIds=2&sort=id")));
+        assertEquals(List.of(1L, 2L), ids(get("/tasks?tagIds=1,3&tagMode=any&sort=id")));
+        assertEquals(List.of(1L, 2L), ids(get("/tasks?tagIds=1&tagIds=3&sort=id")));
+    }
+
+    @Test
+    void matchesTheTasksWithAllTheTags() throws IOException {
+        assertEquals(List.of(1L), ids(get("/tasks?tagIds=1,2&tagMode=all")));
+        assertEquals(List.of(4L), ids(get("/tasks?tagIds=2,5,2&tagMode=ALL")));
+        assertEquals(List.of(), ids(get("/tasks?tagIds=1,3&tagMode=all")));
+        assertEquals(List.of(1L, 4L), ids(get("/tasks?tagIds=2&tagMode=all&sort=id")));
+    }
+
+    @Test
+    void countsTheTaggedTasks() throws IOException {
+        var page = get("/tasks?tagIds=2,3&size=1&sort=id");
+
+        assertEquals(3, page.get("totalElements").asInt());
+        assertEquals(List.of(1L), ids(page));
+    }
+
+    @Test
+    void combinesTheTagsWithTheOtherCriteriaAndListings() throws IOException {
+        assertEquals(List.of(4L), ids(get("/tasks?tagIds=2&userId=3")));
+        assertEquals(List.of(1L, 4L), ids(get("/tasks?cursor=&tagIds=2&sort=id")));
+        assertEquals(List.of(1L, 4L), ids(get("/tasks?fields=title&tagIds=2&sort=id")));
+    }
+
+    @Test
+    void rejectsUnknownModes() {
+        assertEquals(HttpStatus.BAD_REQUEST, rest.getForEntity("/tasks?tagIds=1&tagMode=some", String.class).getStatusCode());
+    }
+
+    private JsonNode get(String url) throws IOException {
+        var response = rest.getForEntity(url, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode(), response.getBody());
+
+        return objectMapper.readTree(response.getBody());
+    }
+
+    private static List<Long> ids(JsonNode page) {
+        var ids = new ArrayList<Long>();
+        page.get("content").forEach(task -> ids.add(task.get("id").asLong()));
+
+        return ids;
+    }
+
+}
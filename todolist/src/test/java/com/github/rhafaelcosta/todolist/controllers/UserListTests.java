@@ -0,0 +1,170 @@
+package com.github.rhafaelcosta.todolist.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.rhafaelcosta.todolist.EmbeddedPostgresTests;
+import com.github.rhafaelcosta.todolist.responses.CursorPageResponse;
+import com.github.rhafaelcosta.todolist.responses.UserResponse;
+
+/**
+ * Lists the users by page, by cursor and by export, against an embedded PostgreSQL migrated by Flyway and filled
+ * with 47 more users before the application starts: 45 members, a third of them inactive, and two users whose names
+ * only differ after a wildcard of LIKE.
+ * <p>
+ * The fetch size of the export is smaller than the exported users, so the export reads from the cursor several times.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "todolist.export.fetch-size=10")
+class UserListTests extends EmbeddedPostgresTests {
+
+    private static final int USERS = 50;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    static void insertUsers() {
+        Flyway.configure().dataSource(database()).load().migrate();
+        var jdbc = new JdbcTemplate(database());
+        jdbc.execute("""
+                INSERT INTO users (name, email, active)
+                SELECT 'Member ' || i, 'member' || i || '@team.com', i % 3 <> 0 FROM generate_series(1, 45) i
+                """);
+        jdbc.execute("INSERT INTO users (name, email, active) VALUES ('Under_score', 'under_score@email.com', TRUE), ('Underwood', 'underwood@email.com', TRUE)");
+    }
+
+    @Test
+    void pagesUsersOrderedById() {
+        var page = rest.getForObject("/users?size=10&page=1", UserPage.class);
+
+        assertEquals(USERS, page.totalElements());
+        assertEquals(10, page.content().size());
+        assertEquals(11L, page.content().get(0).id());
+        assertOrderedById(page.content());
+    }
+
+    @Test
+    void filtersByActiveAndNamePrefix() {
+        var page = rest.getForObject("/users?active=true&name=member 1", UserPage.class);
+
+        assertEquals(List.of("Member 1", "Member 10", "Member 11", "Member 13", "Member 14", "Member 16", "Member 17", "Member 19"),
+                page.content().stream().map(UserResponse::name).toList());
+        assertTrue(page.content().stream().allMatch(UserResponse::active));
+    }
+
+    @Test
+    void filtersByEmailPrefixIgnoringCase() {
+        var page = rest.getForObject("/users?email=MEMBER4", UserPage.class);
+
+        assertEquals(7, page.totalElements());
+        assertTrue(page.content().stream().allMatch(user -> user.email().startsWith("member4")));
+    }
+
+    @Test
+    void matchesTheWildcardsOfThePrefixLiterally() {
+        assertEquals(List.of("Under_score"), rest.getForObject("/users?name=under_", UserPage.class).content().stream().map(UserResponse::name).toList());
+        assertEquals(0, rest.getForObject("/users?name=%", UserPage.class).totalElements());
+    }
+
+    @Test
+    void walksEveryUserByCursor() {
+        var ids = new ArrayList<Long>();
+        var names = new ArrayList<String>();
+        var cursor = "";
+        var pages = 0;
+
+        do {
+            var page = listByCursor("/users?sort=name,desc&size=7&cursor=" + cursor);
+            page.content().forEach(user -> {
+                ids.add(user.id());
+                names.add(user.name());
+            });
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(8, pages);
+        assertEquals(USERS, new HashSet<>(ids).size());
+        assertEquals(USERS, ids.size());
+        // Sorted by the database, the collation of the names is not checked
+        assertEquals("Member 1", names.get(names.indexOf("Member 10") + 1));
+    }
+
+    @Test
+    void walksTheFilteredUsersByCursorOrderedById() {
+        var first = listByCursor("/users?active=false&size=10&cursor=");
+        var second = listByCursor("/users?active=false&size=10&cursor=" + first.nextCursor());
+
+        assertEquals(10, first.content().size());
+        assertEquals(6, second.content().size());
+        assertNull(second.nextCursor());
+
+        var users = new ArrayList<>(first.content());
+        users.addAll(second.content());
+        assertOrderedById(users);
+        assertTrue(users.stream().noneMatch(UserResponse::active));
+    }
+
+    @Test
+    void rejectsInvalidCursorsAndSorts() {
+        assertEquals(HttpStatus.BAD_REQUEST, rest.getForEntity("/users?cursor=not-a-cursor", String.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, rest.getForEntity("/users?cursor=&sort=active", String.class).getStatusCode());
+    }
+
+    @Test
+    void exportsTheFilteredUsersAsNdjson() throws IOException {
+        var response = rest.getForEntity("/users/export?active=false", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+
+        var lines = response.getBody().split("\n");
+        assertEquals(16, lines.length);
+
+        var previousId = 0L;
+        for (var line : lines) {
+            var user = objectMapper.readValue(line, UserResponse.class);
+            assertFalse(user.active());
+            assertTrue(user.id() > previousId, "users ordered by id");
+            previousId = user.id();
+        }
+    }
+
+    private CursorPageResponse<UserResponse> listByCursor(String url) {
+        var response = rest.exchange(url, HttpMethod.GET, null, new ParameterizedTypeReference<CursorPageResponse<UserResponse>>() { });
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+
+    private static void assertOrderedById(List<UserResponse> users) {
+        for (var i = 1; i < users.size(); i++) {
+            assertTrue(users.get(i).id() > users.get(i - 1).id(), "users ordered by id");
+        }
+    }
+
+    private record UserPage(List<UserResponse> content, long totalElements) { }
+
+}
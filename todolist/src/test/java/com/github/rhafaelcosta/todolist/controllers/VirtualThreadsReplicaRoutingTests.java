@@ -0,0 +1,80 @@
+package com.github.rhafaelcosta.todolist.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.github.rhafaelcosta.todolist.EmbeddedPostgresTests;
+import com.github.rhafaelcosta.todolist.datasources.ConcurrencyLimitingDataSource;
+import com.github.rhafaelcosta.todolist.datasources.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs on virtual threads with a replica, both features wrapping the data source of Spring Boot, against an embedded
+ * PostgreSQL migrated by Flyway that also stands for the replica. The primary must be capped as the replica is,
+ * whatever the order the two wrappers are applied in.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "todolist.datasource.max-concurrency=3",
+        "todolist.cache.list.enabled=false",
+        "todolist.datasource.replica.health-check-interval=PT1H"
+})
+class VirtualThreadsReplicaRoutingTests extends EmbeddedPostgresTests {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry registry) {
+        registry.add("todolist.datasource.replicas[0].url", EmbeddedPostgresTests::databaseUrl);
+    }
+
+    @Test
+    void capsThePrimaryAndTheReplicas() throws SQLException {
+        var routing = dataSource.unwrap(ReplicaRoutingDataSource.class);
+
+        assertTrue(routing.getPrimary().isWrapperFor(ConcurrencyLimitingDataSource.class));
+        for (var replica : routing.getReplicas()) {
+            assertTrue(replica.getDataSource().isWrapperFor(ConcurrencyLimitingDataSource.class), replica::getName);
+        }
+
+        assertEquals(HttpStatus.OK, rest.getForEntity("/users", String.class).getStatusCode());
+        assertEquals(HttpStatus.OK, rest.getForEntity("/tasks", String.class).getStatusCode());
+
+        // The permits borrowed by the requests are all given back
+        assertEquals(3, routing.getPrimary().unwrap(ConcurrencyLimitingDataSource.class).getAvailablePermits());
+    }
+
+    @Test
+    void exportsThePermitsOfEachPool() throws SQLException {
+        var routing = dataSource.unwrap(ReplicaRoutingDataSource.class);
+        var primary = routing.getPrimary().unwrap(HikariDataSource.class).getPoolName();
+
+        for (var pool : List.of(primary, "replica-0")) {
+            assertEquals(3, registry.get("todolist.datasource.permits.available").tag("pool", pool).gauge().value(), pool);
+            assertEquals(0, registry.get("todolist.datasource.permits.waiting").tag("pool", pool).gauge().value(), pool);
+        }
+    }
+
+}
@@ -0,0 +1,362 @@
+package com.github.rhafaelcosta.todolist.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.rhafaelcosta.todolist.EmbeddedPostgresTests;
+import com.github.rhafaelcosta.todolist.filters.TaskFilter;
+import com.github.rhafaelcosta.todolist.filters.TaskTagMode;
+import com.github.rhafaelcosta.todolist.filters.UserFilter;
+import com.github.rhafaelcosta.todolist.services.TaskService;
+import com.github.rhafaelcosta.todolist.services.UserService;
+
+/**
+ * Runs EXPLAIN on the statements the task listing, count and change stamp actually prepare for every combination of
+ * the {@code TaskFilter} criteria, and on the ones of the full-text search combined with each criteria, against an
+ * embedded PostgreSQL migrated by Flyway. The prefix searches of the {@code UserFilter} are checked the same way.
+ * <p>
+ * The statements are recorded with their parameters from the connections of the application, so the plans follow
+ * any change of {@code TaskSpecification} or {@code UserSpecification}. They are run with EXPLAIN ANALYZE under the
+ * default settings of the planner, which may read the whole table when the filter matches a large share of it. A scan
+ * reading more than {@value #SELECTIVE_SHARE} of the rows of its table to return less than that fails the test, as no
+ * index served its selective filter.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "todolist.cache.list.enabled=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TaskFilterQueryPlanTests extends EmbeddedPostgresTests {
+
+    private static final double SELECTIVE_SHARE = 0.05;
+
+    private static final LocalDateTime FROM = LocalDateTime.parse("2023-06-01T00:00:00");
+    private static final LocalDateTime TO = LocalDateTime.parse("2023-06-02T00:00:00");
+
+    private static final PageRequest TASK_PAGE = PageRequest.of(0, 20, Sort.by("createAt", "id"));
+    private static final PageRequest USER_PAGE = PageRequest.of(0, 5);
+
+    /**
+     * Criteria of the task filter, each one selecting a value present in the generated tasks.
+     */
+    private static final List<String> CRITERIA = List.of("userId", "severityTypeCode", "taskStatusTypeCode", "title", "priority", "created", "updated");
+
+    /**
+     * Tag filters matching any or all of the tags. Tag 1 is on half of the tasks.
+     */
+    private static final Map<String, TaskFilter> TAG_FILTERS = new LinkedHashMap<>();
+
+    static {
+        TAG_FILTERS.put("any tag", tags(List.of(3L, 5L), TaskTagMode.ANY));
+        TAG_FILTERS.put("popular tag", tags(List.of(1L), TaskTagMode.ANY));
+        TAG_FILTERS.put("all tags", tags(List.of(3L, 5L), TaskTagMode.ALL));
+    }
+
+    private static final Map<String, UserFilter> USER_FILTERS = Map.of(
+            "name", new UserFilter(null, "User 42", null),
+            "email", new UserFilter(null, "user42", null));
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final StatementRecorder RECORDER = new StatementRecorder();
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<String, Double> relationRows = new HashMap<>();
+
+    @BeforeAll
+    void insertTasks() {
+        // Plans are only meaningful with a realistic volume and distribution of data
+        jdbcTemplate.execute("""
+                INSERT INTO users (name, email, active)
+                SELECT 'User ' || i, 'user' || i || '@email.com', TRUE FROM generate_series(1, 500) i
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO task (user_id, title, description, priority, status_type, severity_type, create_at, update_at)
+                SELECT 1 + i % 500, 'Task ' || i, 'Description for Task ' || i, 1 + i % 5, 1 + i % 4, 1 + (i / 4) % 4,
+                       TIMESTAMP '2023-01-01' + i * INTERVAL '5 minutes',
+                       CASE WHEN i % 3 = 0 THEN TIMESTAMP '2023-01-01' + i * INTERVAL '7 minutes' ELSE TIMESTAMP '2023-01-01' + i * INTERVAL '5 minutes' END
+                FROM generate_series(1, 200000) i
+                """);
+        // Tag n is on one task out of 2n
+        jdbcTemplate.execute("INSERT INTO task_tag (tag_id, task_id) SELECT tag.id, t.id FROM task t JOIN tag ON t.id % (2 * tag.id) = 0 WHERE t.id > 4");
+        // The block ranges of the BRIN index are summarized by the vacuum, until then they match every filter
+        jdbcTemplate.execute("VACUUM ANALYZE");
+
+        jdbcTemplate.query("SELECT relname, reltuples FROM pg_class WHERE relname IN ('task', 'task_tag', 'users')",
+                rs -> { relationRows.put(rs.getString(1), rs.getDouble(2)); });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> filterCombinationsAreServedByIndexes() {
+        return IntStream.range(1, 1 << CRITERIA.size()).mapToObj(mask -> {
+            var applied = IntStream.range(0, CRITERIA.size()).filter(i -> (mask & (1 << i)) != 0).mapToObj(CRITERIA::get).toList();
+
+            return DynamicTest.dynamicTest(String.join(" + ", applied), () -> assertListingServedByIndexes(filter(applied, null), "task"));
+        });
+    }
+
+    @TestFactory
+    Stream<DynamicTest> searchIsServedByIndexes() {
+        var criteria = Stream.concat(Stream.of(""), CRITERIA.stream());
+
+        return criteria.map(name -> DynamicTest.dynamicTest(name.isEmpty() ? "search" : "search + " + name, () -> {
+            var statements = RECORDER.record(() -> taskService.searchTasks("task 4242", filter(name.isEmpty() ? List.of() : List.of(name), null), TASK_PAGE, false));
+            assertServedByIndexes(statements, "task");
+        }));
+    }
+
+    @TestFactory
+    Stream<DynamicTest> tagFiltersAreServedByIndexes() {
+        var criteria = Stream.concat(Stream.of(""), CRITERIA.stream());
+
+        return criteria.flatMap(name -> TAG_FILTERS.entrySet().stream().map(tags -> DynamicTest.dynamicTest(
+                name.isEmpty() ? tags.getKey() : tags.getKey() + " + " + name,
+                () -> assertListingServedByIndexes(filter(name.isEmpty() ? List.of() : List.of(name), tags.getValue()), "task_tag", "task"))));
+    }
+
+    @TestFactory
+    Stream<DynamicTest> userPrefixSearchIsServedByIndexes() {
+        return USER_FILTERS.entrySet().stream().map(filter -> DynamicTest.dynamicTest(filter.getKey(), () -> {
+            // The page is full, so the users are counted as well
+            var statements = RECORDER.record(() -> userService.getPaginatedUsersByFilter(filter.getValue(), USER_PAGE));
+            assertServedByIndexes(statements, "users");
+        }));
+    }
+
+    /**
+     * Records and checks the statements of a filtered listing: its change stamp, its page and its count.
+     */
+    private void assertListingServedByIndexes(TaskFilter filter, String... relations) throws Exception {
+        var statements = RECORDER.record(() -> {
+            taskService.getChangeStamp(filter, false);
+            taskService.getPaginatedTasksByFilter(filter, TASK_PAGE);
+            taskService.countTasksByFilter(filter);
+        });
+
+        assertServedByIndexes(statements, relations);
+    }
+
+    private void assertServedByIndexes(List<RecordedStatement> statements, String... relations) throws Exception {
+        var queries = statements.stream().filter(statement -> statement.sql().startsWith("select")).toList();
+        assertFalse(queries.isEmpty(), "No query was recorded");
+
+        for (var statement : queries) {
+            var plan = explain(statement);
+            for (var relation : relations) {
+                assertScansAreSelective(plan, relation, statement.sql());
+            }
+        }
+    }
+
+    private JsonNode explain(RecordedStatement statement) throws Exception {
+        try (var connection = RECORDER.getTargetDataSource().getConnection();
+             var explain = connection.prepareStatement("EXPLAIN (ANALYZE, FORMAT JSON) " + statement.sql())) {
+            statement.bind(explain);
+
+            try (var resultSet = explain.executeQuery()) {
+                resultSet.next();
+                return MAPPER.readTree(resultSet.getString(1)).get(0).get("Plan");
+            }
+        }
+    }
+
+    private void assertScansAreSelective(JsonNode node, String relation, String sql) {
+        if (relation.equals(node.path("Relation Name").asText())) {
+            // The counters of the parallel and repeated scans are averages per loop
+            var loops = node.path("Actual Loops").asDouble();
+            var returned = node.path("Actual Rows").asDouble() * loops;
+            var read = returned + (node.path("Rows Removed by Filter").asDouble() + node.path("Rows Removed by Index Recheck").asDouble()) * loops;
+            var limit = SELECTIVE_SHARE * relationRows.get(relation);
+
+            if (read > limit && returned < limit) {
+                fail(String.format("%s on %s read %.0f rows to return %.0f in %s%n%s", node.path("Node Type").asText(), relation, read, returned,
+                        sql, node.toPrettyString()));
+            }
+        }
+
+        node.path("Plans").forEach(child -> assertScansAreSelective(child, relation, sql));
+    }
+
+    private static TaskFilter filter(List<String> applied, TaskFilter tags) {
+        return new TaskFilter(
+                applied.contains("userId") ? 7L : null,
+                applied.contains("severityTypeCode") ? 1L : null,
+                applied.contains("taskStatusTypeCode") ? 1L : null,
+                applied.contains("title") ? "Task 4242" : null,
+                applied.contains("priority") ? 1 : null,
+                applied.contains("created") ? FROM : null,
+                applied.contains("created") ? TO : null,
+                applied.contains("updated") ? FROM : null,
+                applied.contains("updated") ? TO : null,
+                tags == null ? null : tags.tagIds(),
+                tags == null ? null : tags.tagMode());
+    }
+
+    private static TaskFilter tags(List<Long> tagIds, TaskTagMode mode) {
+        return new TaskFilter(null, null, null, null, null, null, null, null, null, tagIds, mode);
+    }
+
+    @TestConfiguration
+    static class RecordingConfig {
+
+        /**
+         * Wraps the data source last, so every statement of the application goes through the recorder.
+         */
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new RecordingDataSourcePostProcessor(RECORDER);
+        }
+
+    }
+
+    private record RecordingDataSourcePostProcessor(StatementRecorder recorder) implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && recorder.getTargetDataSource() == null) {
+                recorder.setTargetDataSource(dataSource);
+                return recorder;
+            }
+
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+
+    }
+
+    /**
+     * A prepared statement as executed, with the calls that bound its parameters, which can be replayed on another
+     * statement.
+     */
+    private record RecordedStatement(String sql, List<Object[]> bindings) {
+
+        void bind(PreparedStatement statement) throws Exception {
+            for (var binding : bindings) {
+                ((Method) binding[0]).invoke(statement, (Object[]) binding[1]);
+            }
+        }
+
+    }
+
+    /**
+     * Data source recording the statements prepared through it, while a recording is running.
+     */
+    static class StatementRecorder extends DelegatingDataSource {
+
+        private final List<RecordedStatement> recorded = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean recording;
+
+        List<RecordedStatement> record(ThrowingRunnable action) throws Exception {
+            recorded.clear();
+            recording = true;
+            try {
+                action.run();
+            } finally {
+                recording = false;
+            }
+
+            return List.copyOf(recorded);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return recording(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return recording(super.getConnection(username, password));
+        }
+
+        private Connection recording(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                var result = invoke(connection, method, args);
+
+                if (method.getName().equals("prepareStatement")) {
+                    return recording((PreparedStatement) result, (String) args[0]);
+                }
+
+                return result;
+            });
+        }
+
+        private PreparedStatement recording(PreparedStatement statement, String sql) {
+            var bindings = new ArrayList<Object[]>();
+
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                var name = method.getName();
+
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    bindings.add(new Object[] { method, args.clone() });
+                } else if (name.equals("clearParameters")) {
+                    bindings.clear();
+                } else if (name.startsWith("execute") && recording) {
+                    recorded.add(new RecordedStatement(sql.strip(), List.copyOf(bindings)));
+                }
+
+                return invoke(statement, method, args);
+            });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+    }
+
+    @FunctionalInterface
+    interface ThrowingRunnable {
+
+        void run() throws Exception;
+
+    }
+
+}